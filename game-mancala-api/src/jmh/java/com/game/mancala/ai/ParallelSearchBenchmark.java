@@ -0,0 +1,97 @@
+package com.game.mancala.ai;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.game.mancala.model.Board;
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This benchmark reports the speedup of the parallel search versus the amount of threads on the largest board
+ * The time to reach a fixed depth from an empty table gives the speedup (time of 1 thread / time of N threads),
+ * and the depth reached in a fixed time budget is reported by the counters (reachedDepth / searches)
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSearchBenchmark {
+
+    private static final int BOARD_SIZE = 6;
+    private static final int STONES_PER_PIT = 6;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"14"})
+    private int depth;
+
+    private ForkJoinPool pool;
+    private TranspositionTable table;
+    private Board board;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long nodes;
+        public long searches;
+        public long reachedDepth;
+    }
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(Math.max(1, threads - 1));
+        table = new TranspositionTable(22);
+        final Board start = new Board(BOARD_SIZE, STONES_PER_PIT);
+        board = new Board(start.getId(), start.getBoardSizePerPlayer(), start.getBoard(), PlayerKind.PLAYER_1);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public SearchResult timeToDepth(
+                    final Counters counters
+    ) {
+        final SearchResult result = new ParallelSearch(pool, table, threads).search(board.getBoard(),
+                        board.getBoardSizePerPlayer(), PlayerKind.PLAYER_1, depth, TimeUnit.MINUTES.toMillis(1));
+        counters.nodes += result.getNodes();
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public SearchResult depthInFixedTime(
+                    final Counters counters
+    ) {
+        final SearchResult result = new ParallelSearch(pool, table, threads).search(board.getBoard(),
+                        board.getBoardSizePerPlayer(), PlayerKind.PLAYER_1, AlphaBetaSearch.MAX_DEPTH, 200);
+        counters.searches++;
+        counters.reachedDepth += result.getDepth();
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package com.game.mancala.api;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.ai.BoardAiService;
+import com.game.mancala.endgame.EndgameDatabase;
+import com.game.mancala.event.BoardEventService;
+import com.game.mancala.exception.MancalaException;
+import com.game.mancala.metrics.BoardMetrics;
+import com.game.mancala.model.Board;
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.repository.InMemoryBoardRepository;
+import com.game.mancala.service.BoardService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This benchmark measures a move rejected by the rules, from the controller to the bytes of the response body
+ * {@code previous} builds a new failure with its stack trace, wraps it into a runtime exception, finds its status
+ * and writes the error attributes of the server, as it was answered before the board exception handler. The stack
+ * of a benchmark is shorter than the one of a request, so it is the lower bound of the previous cost
+ * {@code shared} throws the shared stackless failure and writes the response of the board exception handler
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardRejectionBenchmark {
+
+    @Param({"previous", "shared"})
+    private String failure;
+
+    private ObjectMapper objectMapper;
+    private BoardService boardService;
+    private BoardApi boardApi;
+    private BoardExceptionHandler boardExceptionHandler;
+    private UUID id;
+    private int otherPlayerPit;
+
+    @Setup
+    public void setUp() {
+        final EndgameDatabase endgameDatabase = new EndgameDatabase("");
+        final InMemoryBoardRepository boardRepository = new InMemoryBoardRepository();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        boardService = new BoardService(boardRepository, new BoardAiService(endgameDatabase, 10, 1000, 1),
+                        endgameDatabase, new BoardEventService(objectMapper, 64, 1, 0, 10000, false),
+                        new BoardMetrics(new SimpleMeterRegistry(), false, 1));
+        boardApi = new BoardApi(boardService, objectMapper);
+        boardExceptionHandler = new BoardExceptionHandler();
+
+        final Board board = boardRepository.save(new Board(6, 6));
+        id = board.getId();
+        otherPlayerPit = board.getCurrentPlayer().getIndex() == 0 ? board.getBoardSizePerPlayer() + 1 : 1;
+    }
+
+    /**
+     * This method will play a pit of the player not in turn, rejected with the player.board.interval.invalid key
+     *
+     * @return the response body
+     */
+    @Benchmark
+    public byte[] rejectedMove() throws JsonProcessingException {
+        if ("previous".equals(failure))
+            return previousRejectedMove();
+
+        try {
+            return objectMapper.writeValueAsBytes(boardApi.target(id, otherPlayerPit, null, null).getBody());
+        } catch (final MancalaException e) {
+            return objectMapper.writeValueAsBytes(boardExceptionHandler.handle(e).getBody());
+        }
+    }
+
+    private byte[] previousRejectedMove() throws JsonProcessingException {
+        try {
+            final ResponseEntity<BoardWrapper.Result> response = boardService.update(id, otherPlayerPit)
+                            .map(ResponseEntity::ok)
+                            .orElseThrow(() -> new RuntimeException(new PreviousFailure("player.board.interval")));
+            return objectMapper.writeValueAsBytes(response.getBody());
+        } catch (final RuntimeException e) {
+            final ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getCause().getClass(),
+                            ResponseStatus.class);
+            final Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("timestamp", new Date());
+            attributes.put("status", status.code().value());
+            attributes.put("error", status.code().getReasonPhrase());
+            attributes.put("message", e.getCause().getMessage());
+            attributes.put("path", "/board/" + id + "/target/" + otherPlayerPit);
+            return objectMapper.writeValueAsBytes(attributes);
+        }
+    }
+
+    /**
+     * This class is the failure before the shared failures, built with its stack trace for each rejection
+     */
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    private static class PreviousFailure extends RuntimeException {
+        PreviousFailure(
+                        final String message
+        ) {
+            super(message + ".invalid");
+        }
+    }
+}
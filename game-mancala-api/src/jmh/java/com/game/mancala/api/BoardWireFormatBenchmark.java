@@ -0,0 +1,75 @@
+package com.game.mancala.api;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.model.Board;
+import com.game.mancala.model.BoardWrapper;
+
+/**
+ * This benchmark compares the JSON and the binary encoding of a board result
+ * The bytes on the wire of both formats are printed by the setup
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardWireFormatBenchmark {
+
+    @Param({"2", "6"})
+    private int boardSize;
+
+    private ObjectMapper objectMapper;
+    private BoardWrapper.Result result;
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final Board board = new Board(boardSize, 6);
+        result = BoardWrapper.Result.builder()
+                        .id(UUID.randomUUID())
+                        .board(Arrays.stream(board.getBoard()).boxed().collect(Collectors.toList()))
+                        .currentPlayer(board.getCurrentPlayer())
+                        .boardSizePerPlayer(board.getBoardSizePerPlayer())
+                        .isOpen(board.isOpen())
+                        .winner(board.getWinner())
+                        .version(board.getVersion())
+                        .state(board.getState())
+                        .build();
+        buffer = new byte[BoardBinaryMessageConverter.MAX_BYTES];
+
+        System.out.printf("%nboard size %d: json %d bytes, binary %d bytes%n", boardSize,
+                        objectMapper.writeValueAsBytes(result).length,
+                        BoardBinaryMessageConverter.encode(result, buffer));
+    }
+
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public int binary() {
+        return BoardBinaryMessageConverter.encode(result, buffer);
+    }
+}
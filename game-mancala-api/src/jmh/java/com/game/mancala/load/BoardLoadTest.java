@@ -0,0 +1,156 @@
+package com.game.mancala.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * This load test plays many boards against a running server, keeping a fixed amount of requests in flight
+ * Run it once against the default stack and once against the reactive profile to compare them:
+ * the latency percentiles come from the client and the threads from the actuator metrics of the server
+ * <p>
+ * Arguments: base URL, requests in flight, total requests, boards and one move every how many requests
+ */
+public class BoardLoadTest {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> METRIC =
+                    new ParameterizedTypeReference<Map<String, Object>>() {
+                    };
+
+    public static void main(
+                    final String[] args
+    ) {
+        final String baseUrl = args.length > 0 ? args[0] : "http://localhost:9001";
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        final int requests = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        final int boards = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+        final int moveEvery = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        final WebClient client = WebClient.create(baseUrl);
+
+        final List<JsonNode> created = client.post()
+                        .uri("/board/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .syncBody("{\"boardSize\": 6, \"stonesPerPit\": 6, \"count\": " + boards + "}")
+                        .retrieve()
+                        .bodyToFlux(JsonNode.class)
+                        .collectList()
+                        .block();
+        final UUID[] ids = created.stream()
+                        .map(board -> UUID.fromString(board.get("id").asText()))
+                        .toArray(UUID[]::new);
+
+        run(client, ids, concurrency, Math.min(requests, 10_000), moveEvery);
+        final long[] latencies = new long[requests];
+        final AtomicLong errors = new AtomicLong();
+        final long start = System.nanoTime();
+        run(client, ids, concurrency, requests, moveEvery, latencies, errors);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s with %d requests in flight%n", baseUrl, concurrency);
+        System.out.printf("throughput %,.0f requests/s, %d errors%n", requests / seconds, errors.get());
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                        percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                        latencies[latencies.length - 1] / 1e6);
+        System.out.printf("server threads live %s, peak %s%n", metric(client, "jvm.threads.live"),
+                        metric(client, "jvm.threads.peak"));
+    }
+
+    private static void run(
+                    final WebClient client,
+                    final UUID[] ids,
+                    final int concurrency,
+                    final int requests,
+                    final int moveEvery
+    ) {
+        run(client, ids, concurrency, requests, moveEvery, new long[requests], new AtomicLong());
+    }
+
+    /**
+     * This method will send the requests, reading the board between the moves on it
+     * A move may be rejected when the pit is empty or belongs to the other player, it still counts as a response
+     *
+     * @param client      the web client
+     * @param ids         the boards
+     * @param concurrency the amount of requests in flight
+     * @param requests    the amount of requests
+     * @param moveEvery   one move every how many requests, 1 sends only moves
+     * @param latencies   the latency of each request in nanoseconds
+     * @param errors      the amount of failed requests, other than rejected moves
+     */
+    private static void run(
+                    final WebClient client,
+                    final UUID[] ids,
+                    final int concurrency,
+                    final int requests,
+                    final int moveEvery,
+                    final long[] latencies,
+                    final AtomicLong errors
+    ) {
+        final SplittableRandom random = new SplittableRandom(42);
+        final int[] pits = random.ints(requests, 1, 14).toArray();
+        final int[] boards = random.ints(requests, 0, ids.length).toArray();
+
+        Flux.range(0, requests)
+                        .flatMap(index -> Mono.defer(() -> {
+                            final long start = System.nanoTime();
+                            final Mono<ClientResponse> response = index % moveEvery == 0
+                                            ? client.put()
+                                                            .uri("/board/{id}/target/{index}", ids[boards[index]],
+                                                                            pits[index])
+                                                            .exchange()
+                                            : client.get().uri("/board/{id}", ids[boards[index]]).exchange();
+
+                            return response.flatMap(result -> result.bodyToMono(byte[].class)
+                                            .defaultIfEmpty(new byte[0])
+                                            .doOnNext(body -> {
+                                                latencies[index] = System.nanoTime() - start;
+                                                if (result.statusCode().is5xxServerError())
+                                                    errors.incrementAndGet();
+                                            }));
+                        }).onErrorResume(error -> {
+                            errors.incrementAndGet();
+                            return Mono.empty();
+                        }), concurrency)
+                        .blockLast(Duration.ofMinutes(30));
+    }
+
+    private static double percentile(
+                    final long[] latencies,
+                    final double percentile
+    ) {
+        return latencies[(int) Math.min(latencies.length - 1, latencies.length * percentile)] / 1e6;
+    }
+
+    private static Object metric(
+                    final WebClient client,
+                    final String name
+    ) {
+        return client.get()
+                        .uri("/actuator/metrics/{name}", name)
+                        .retrieve()
+                        .bodyToMono(METRIC)
+                        .map(metric -> ((List<?>) metric.get("measurements")).get(0))
+                        .<Object>map(measurement -> ((Map<?, ?>) measurement).get("value"))
+                        .onErrorReturn("unknown")
+                        .block();
+    }
+}
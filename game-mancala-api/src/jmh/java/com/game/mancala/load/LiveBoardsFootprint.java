@@ -0,0 +1,155 @@
+package com.game.mancala.load;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.ai.BoardAiService;
+import com.game.mancala.endgame.EndgameDatabase;
+import com.game.mancala.event.BoardEventService;
+import com.game.mancala.metrics.BoardMetrics;
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.repository.BoardRepository;
+import com.game.mancala.repository.InMemoryBoardRepository;
+import com.game.mancala.repository.OffHeapBoardRepository;
+import com.game.mancala.service.BoardService;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This harness keeps millions of open boards live in a board service and reports the heap they take and the pauses
+ * of the garbage collector while they are played. Run it once over the boards in memory and once over the boards out
+ * of the heap to compare them, with the same heap size for both runs
+ * The IDs of the boards are kept as two arrays of longs, so the harness adds the same heap to both runs
+ * <p>
+ * Arguments: repository (in-memory or off-heap), boards and moves
+ */
+public class LiveBoardsFootprint {
+
+    private static final int BATCH = 10_000;
+    private static final int PITS = 14;
+
+    public static void main(
+                    final String[] args
+    ) throws IOException {
+        final String repository = args.length > 0 ? args[0] : "off-heap";
+        final int boards = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        final int moves = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final BoardRepository boardRepository = "off-heap".equals(repository)
+                        ? new OffHeapBoardRepository(boards)
+                        : new InMemoryBoardRepository();
+        final EndgameDatabase endgameDatabase = new EndgameDatabase("");
+        final BoardService boardService = new BoardService(boardRepository,
+                        new BoardAiService(endgameDatabase, 10, 1000, 1), endgameDatabase,
+                        new BoardEventService(objectMapper, 64, 1, 0, 10000, false),
+                        new BoardMetrics(new SimpleMeterRegistry(), false, 1));
+        final Pauses pauses = new Pauses();
+
+        final long[] mostSignificant = new long[boards];
+        final long[] leastSignificant = new long[boards];
+        final long createStart = System.nanoTime();
+        for (int created = 0; created < boards; created += BATCH) {
+            final int count = Math.min(BATCH, boards - created);
+            final BoardWrapper.Batch batch = objectMapper.readValue("{\"boardSize\": 6, \"stonesPerPit\": 6, "
+                            + "\"count\": " + count + "}", BoardWrapper.Batch.class);
+            final AtomicLong index = new AtomicLong(created);
+            boardService.createAll(batch).forEach(result -> {
+                final int board = (int) index.getAndIncrement();
+                mostSignificant[board] = result.getId().getMostSignificantBits();
+                leastSignificant[board] = result.getId().getLeastSignificantBits();
+            });
+        }
+        final double createSeconds = (System.nanoTime() - createStart) / 1e9;
+        final Pauses createPauses = pauses.snapshot();
+
+        System.gc();
+        System.gc();
+        final long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        final long direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                        .filter(pool -> "direct".equals(pool.getName()))
+                        .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                        .sum();
+
+        pauses.reset();
+        final SplittableRandom random = new SplittableRandom(20180622L);
+        int played = 0;
+        final long playStart = System.nanoTime();
+        for (int move = 0; move < moves; move++) {
+            final int board = random.nextInt(boards);
+            if (boardService.update(new UUID(mostSignificant[board], leastSignificant[board]),
+                            1 + random.nextInt(PITS - 1)).isSuccess())
+                played++;
+        }
+        final double playSeconds = (System.nanoTime() - playStart) / 1e9;
+
+        System.out.printf("%s with %,d live boards%n", repository, boardRepository.size());
+        System.out.printf("created in %.1f s, %d collections, pauses total %d ms, max %d ms%n", createSeconds,
+                        createPauses.count, createPauses.totalMs, createPauses.maxMs);
+        System.out.printf("heap used %,d MB, direct memory %,d MB%n", heap >> 20, direct >> 20);
+        System.out.printf("played %,d of %,d moves at %,.0f moves/s, %d collections, pauses total %d ms, max %d ms%n",
+                        played, moves, moves / playSeconds, pauses.count, pauses.totalMs, pauses.maxMs);
+    }
+
+    /**
+     * This class sums the pauses notified by every garbage collector of the JVM
+     */
+    private static class Pauses {
+
+        private long count;
+        private long totalMs;
+        private long maxMs;
+
+        Pauses() {
+            for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                    if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION
+                                    .equals(notification.getType()))
+                        return;
+                    final long duration = GarbageCollectionNotificationInfo
+                                    .from((CompositeData) notification.getUserData()).getGcInfo().getDuration();
+                    record(duration);
+                }, null, null);
+            }
+        }
+
+        private synchronized void record(
+                        final long durationMs
+        ) {
+            count++;
+            totalMs += durationMs;
+            maxMs = Math.max(maxMs, durationMs);
+        }
+
+        synchronized Pauses snapshot() {
+            final Pauses snapshot = new Pauses(count, totalMs, maxMs);
+            reset();
+            return snapshot;
+        }
+
+        synchronized void reset() {
+            count = 0;
+            totalMs = 0;
+            maxMs = 0;
+        }
+
+        private Pauses(
+                        final long count,
+                        final long totalMs,
+                        final long maxMs
+        ) {
+            this.count = count;
+            this.totalMs = totalMs;
+            this.maxMs = maxMs;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.game.mancala.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.game.mancala.GameMancalaApplication;
+
+/**
+ * This harness starts the application as a new process in each startup mode and measures the time from the start of
+ * the process to its first successful {@code POST /board}, polling the server until it answers
+ * The modes are the default one, the fast startup profile and the fast startup profile with the class data sharing
+ * archive of the {@code appCds} task, when it was written. The modes take turns so every mode sees the same machine
+ * Java 9 and newer also get {@code --add-opens java.base/java.lang=ALL-UNNAMED} through {@code JDK_JAVA_OPTIONS}
+ * <p>
+ * Arguments: class path of the application, java executable, class data sharing archive, runs and port
+ */
+public class StartupTimer {
+
+    private static final String BODY = "{\"boardSize\": 6, \"stonesPerPit\": 6}";
+    private static final long POLL_MS = 5;
+    private static final long TIMEOUT_MS = 120_000;
+
+    public static void main(
+                    final String[] args
+    ) throws IOException, InterruptedException {
+        final String classPath = args.length > 0 ? args[0] : System.getProperty("java.class.path");
+        final String java = args.length > 1 ? args[1] : System.getProperty("java.home") + "/bin/java";
+        final File archive = new File(args.length > 2 ? args[2] : "build/appcds/mancala.jsa");
+        final int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        final int port = args.length > 4 ? Integer.parseInt(args[4]) : 9011;
+        final File log = File.createTempFile("mancala-startup", ".log");
+
+        final Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("default", Arrays.asList(java, "-cp", classPath));
+        modes.put("fast-startup", Arrays.asList(java, "-cp", classPath, "-Dspring.profiles.active="
+                        + GameMancalaApplication.FAST_STARTUP_PROFILE));
+        if (archive.isFile())
+            modes.put("fast-startup with CDS", Arrays.asList(java, "-cp", classPath, "-Dspring.profiles.active="
+                            + GameMancalaApplication.FAST_STARTUP_PROFILE, "-XX:SharedArchiveFile=" + archive));
+        else
+            System.out.printf("no class data sharing archive at %s, run ./gradlew appCds first%n", archive);
+
+        final Map<String, long[]> times = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> times.put(mode, new long[runs]));
+        for (int run = -1; run < runs; run++) {
+            for (final Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                final long elapsedMs = timeToFirstBoard(mode.getValue(), port, log);
+                if (run >= 0)
+                    times.get(mode.getKey())[run] = elapsedMs;
+            }
+        }
+
+        System.out.printf("time to the first POST /board over %d runs, the log of the last run is %s%n", runs, log);
+        for (final Map.Entry<String, long[]> mode : times.entrySet()) {
+            final long[] elapsed = mode.getValue();
+            Arrays.sort(elapsed);
+            System.out.printf("%-22s min %,6d ms, median %,6d ms, max %,6d ms%n", mode.getKey(), elapsed[0],
+                            elapsed[elapsed.length / 2], elapsed[elapsed.length - 1]);
+        }
+    }
+
+    /**
+     * This method will start the application, poll it until a board is created and stop it
+     *
+     * @param command the java command without the main class
+     * @param port    the port of the server
+     * @param log     the file receiving the output of the application
+     * @return the milliseconds from the start of the process to the created board
+     */
+    private static long timeToFirstBoard(
+                    final List<String> command,
+                    final int port,
+                    final File log
+    ) throws IOException, InterruptedException {
+        final List<String> arguments = new ArrayList<>(command);
+        arguments.add(GameMancalaApplication.class.getName());
+        arguments.add("--server.port=" + port);
+        final ProcessBuilder builder = new ProcessBuilder(arguments)
+                        .redirectErrorStream(true)
+                        .redirectOutput(log);
+        builder.environment().put("JDK_JAVA_OPTIONS", "--add-opens java.base/java.lang=ALL-UNNAMED");
+
+        final long start = System.nanoTime();
+        final Process process = builder.start();
+        try {
+            final URL url = new URL("http://localhost:" + port + "/board");
+            while (!created(url)) {
+                if (!process.isAlive())
+                    throw new IllegalStateException("the application exited with " + process.exitValue()
+                                    + ", see " + log);
+                if (System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS))
+                    throw new IllegalStateException("the application did not create a board, see " + log);
+                Thread.sleep(POLL_MS);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS))
+                process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static boolean created(
+                    final URL url
+    ) {
+        try {
+            final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try {
+                final byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+                connection.setRequestMethod("POST");
+                connection.setConnectTimeout(1000);
+                connection.setReadTimeout((int) TIMEOUT_MS);
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(body.length);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(body);
+                }
+                return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+}
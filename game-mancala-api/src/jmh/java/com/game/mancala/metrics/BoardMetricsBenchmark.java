@@ -0,0 +1,102 @@
+package com.game.mancala.metrics;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.ai.BoardAiService;
+import com.game.mancala.endgame.EndgameDatabase;
+import com.game.mancala.event.BoardEventService;
+import com.game.mancala.model.Board;
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.monad.Try;
+import com.game.mancala.repository.InMemoryBoardRepository;
+import com.game.mancala.service.BoardService;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * This benchmark measures the cost of timing the phases of a move through the board service, recording into the
+ * percentile histogram buckets exported to Prometheus by the application
+ * {@code off} leaves the phases out, {@code sampled} times one move out of 128 as the application does and
+ * {@code every} times every move
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardMetricsBenchmark {
+
+    @Param({"off", "sampled", "every"})
+    private String phases;
+
+    private InMemoryBoardRepository boardRepository;
+    private BoardService boardService;
+    private UUID id;
+    private int nextPit;
+
+    @Setup
+    public void setUp() {
+        final EndgameDatabase endgameDatabase = new EndgameDatabase("");
+        boardRepository = new InMemoryBoardRepository();
+        boardService = new BoardService(boardRepository, new BoardAiService(endgameDatabase, 10, 1000, 1),
+                        endgameDatabase, new BoardEventService(new ObjectMapper(), 64, 1, 0, 10000, false),
+                        new BoardMetrics(buildRegistry(), !"off".equals(phases), "every".equals(phases) ? 1 : 128));
+        id = boardRepository.save(new Board(6, 6)).getId();
+    }
+
+    private static MeterRegistry buildRegistry() {
+        final PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        prometheus.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(
+                            final Meter.Id meterId,
+                            final DistributionStatisticConfig config
+            ) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        return prometheus;
+    }
+
+    /**
+     * This method will play a valid move of the current player, starting a new board when the match ends
+     *
+     * @return the board result
+     */
+    @Benchmark
+    public Try<BoardWrapper.Result> update() {
+        Board board = boardRepository.findOne(id).get();
+        if (!board.isOpen()) {
+            board = boardRepository.save(new Board(6, 6));
+            id = board.getId();
+        }
+
+        final int[] pits = board.getBoard();
+        final int size = board.getBoardSizePerPlayer() - 1;
+        final int start = board.getBoardSizePerPlayer() * board.getCurrentPlayer().getIndex() + 1;
+        int pit = start + nextPit++ % size;
+        while (pits[pit] == 0)
+            pit = pit + 1 < start + size ? pit + 1 : start;
+        return boardService.update(id, pit);
+    }
+}
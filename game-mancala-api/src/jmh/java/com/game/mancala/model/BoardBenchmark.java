@@ -0,0 +1,68 @@
+package com.game.mancala.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark covers the move path of the board for every legal board size and stones per pit
+ * Each invocation restores one of the prepared positions before moving, so the restore copy is part of the score
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmark {
+
+    private static final int POSITIONS = 1024;
+
+    @Param({"2", "3", "4", "5", "6"})
+    private int boardSize;
+
+    @Param({"1", "2", "3", "4", "5", "6"})
+    private int stonesPerPit;
+
+    private BoardPositions positions;
+    private Board board;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        positions = new BoardPositions(boardSize, stonesPerPit, POSITIONS, 42L);
+        board = new Board(boardSize, stonesPerPit);
+    }
+
+    @Benchmark
+    public Board construction() {
+        return new Board(boardSize, stonesPerPit);
+    }
+
+    @Benchmark
+    public Board update() {
+        final int move = positions.restore(nextPosition(), board);
+        return board.update(move);
+    }
+
+    @Benchmark
+    public Board processPossibleWinner() {
+        final int move = positions.restore(nextPosition(), board);
+        return board.update(move).processPossibleWinner();
+    }
+
+    private int nextPosition() {
+        position = (position + 1) & (POSITIONS - 1);
+        return position;
+    }
+}
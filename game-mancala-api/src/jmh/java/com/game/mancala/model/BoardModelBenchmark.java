@@ -0,0 +1,97 @@
+package com.game.mancala.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares the primitive board with the list of atomic integers board
+ * The move benchmarks report moves per second, the construction benchmarks with the gc profiler
+ * report the bytes per live game as gc.alloc.rate.norm, since every allocated object is kept by the board
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BoardModelBenchmark {
+
+    @Param({"2", "4", "6"})
+    private int boardSize;
+
+    @Param({"1", "6"})
+    private int stonesPerPit;
+
+    private Board board;
+    private LegacyBoard legacyBoard;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        board = new Board(boardSize, stonesPerPit);
+        legacyBoard = new LegacyBoard(boardSize, stonesPerPit);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Board primitiveMove() {
+        if (!board.isOpen())
+            board = new Board(boardSize, stonesPerPit);
+
+        final int[] pits = board.getBoard();
+        final int start = board.getBoardSizePerPlayer() * board.getCurrentPlayer().getIndex();
+        int target = start + 1 + nextCursor() % boardSize;
+        while (pits[target] == 0)
+            target = target + 1 < start + boardSize + 1 ? target + 1 : start + 1;
+        return board.update(target).processPossibleWinner();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public LegacyBoard legacyMove() {
+        if (!legacyBoard.getIsOpen().get())
+            legacyBoard = new LegacyBoard(boardSize, stonesPerPit);
+
+        final int start = legacyBoard.getBoardSizePerPlayer() * legacyBoard.getCurrentPlayer().get().getIndex();
+        int target = start + 1 + nextCursor() % boardSize;
+        while (legacyBoard.getBoard().get(target).get() == 0)
+            target = target + 1 < start + boardSize + 1 ? target + 1 : start + 1;
+        return legacyBoard.update(target).processPossibleWinner();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Board primitiveConstruction() {
+        return new Board(boardSize, stonesPerPit);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public LegacyBoard legacyConstruction() {
+        return new LegacyBoard(boardSize, stonesPerPit);
+    }
+
+    /**
+     * This method is a tiny linear congruential generator, so picking the pit costs the same for both models
+     *
+     * @return the next cursor
+     */
+    private int nextCursor() {
+        cursor = cursor * 1103515245 + 12345;
+        return cursor >>> 16;
+    }
+}
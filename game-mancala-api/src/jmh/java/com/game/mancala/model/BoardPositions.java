@@ -0,0 +1,81 @@
+package com.game.mancala.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class holds positions reached by random playouts to feed the benchmarks with realistic boards
+ * The positions are restored into a working board, so the benchmarks can mutate it on every invocation
+ */
+public class BoardPositions {
+
+    private final PackedBoard[] states;
+    private final int[] moves;
+
+    /**
+     * This constructor will play random games and keep the open positions with a legal move for each one
+     *
+     * @param boardSize    the size of the player board
+     * @param stonesPerPit the amount of the stones in each pit
+     * @param amount       the amount of positions
+     * @param seed         the seed of the random playouts
+     */
+    public BoardPositions(
+                    final int boardSize,
+                    final int stonesPerPit,
+                    final int amount,
+                    final long seed
+    ) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        this.states = new PackedBoard[amount];
+        this.moves = new int[amount];
+
+        Board board = new Board(boardSize, stonesPerPit);
+        for (int position = 0; position < amount; position++) {
+            if (!board.isOpen())
+                board = new Board(boardSize, stonesPerPit);
+
+            states[position] = board.getState();
+            moves[position] = randomMove(board, random);
+            board.update(moves[position]).processPossibleWinner();
+        }
+    }
+
+    /**
+     * This method will pick a random pit with stones of the current player
+     *
+     * @param board  the current board
+     * @param random the random source
+     * @return the index of the pit
+     */
+    public static int randomMove(
+                    final Board board,
+                    final SplittableRandom random
+    ) {
+        final int[] pits = board.getBoard();
+        final int pitsPerPlayer = board.getBoardSizePerPlayer() - 1;
+        final int start = board.getBoardSizePerPlayer() * board.getCurrentPlayer().getIndex() + 1;
+        int index = start + random.nextInt(pitsPerPlayer);
+        while (pits[index] == 0)
+            index = index + 1 < start + pitsPerPlayer ? index + 1 : start;
+        return index;
+    }
+
+    /**
+     * This method will put the position into the working board
+     *
+     * @param position the position index
+     * @param board    the working board with the same shape
+     * @return the legal move of the position
+     */
+    public int restore(
+                    final int position,
+                    final Board board
+    ) {
+        board.reset(states[position]);
+        return moves[position];
+    }
+
+    public int size() {
+        return states.length;
+    }
+}
@@ -0,0 +1,183 @@
+package com.game.mancala.model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.codepoetics.protonpack.Indexed;
+import com.codepoetics.protonpack.StreamUtils;
+import com.game.mancala.exception.MancalaException;
+
+/**
+ * This class is a copy of the board model backed by a list of atomic integers
+ * It is only kept as the baseline of the benchmarks comparing it to the primitive board
+ */
+public class LegacyBoard {
+    private final UUID id = UUID.randomUUID();
+    private final Integer boardSizePerPlayer;
+    private final List<AtomicInteger> board;
+    private final AtomicReference<PlayerKind> currentPlayer;
+    private final AtomicBoolean isOpen;
+    private final AtomicReference<PlayerKind> winner;
+
+    public LegacyBoard(
+                    final Integer boardSizePerPlayer,
+                    final Integer stonesPerField
+    ) {
+        this.currentPlayer = new AtomicReference<>(PlayerKind.random());
+        this.board = buildGameBoard(boardSizePerPlayer, stonesPerField);
+        this.boardSizePerPlayer = boardSizePerPlayer + 1;
+        this.isOpen = new AtomicBoolean(true);
+        this.winner = new AtomicReference<>();
+    }
+
+    public List<AtomicInteger> getBoard() {
+        return board;
+    }
+
+    public Integer getBoardSizePerPlayer() {
+        return boardSizePerPlayer;
+    }
+
+    public AtomicReference<PlayerKind> getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public AtomicBoolean getIsOpen() {
+        return isOpen;
+    }
+
+    private List<AtomicInteger> buildGameBoard(
+                    final Integer boardSizePerPlayer,
+                    final Integer stonesPerField
+    ) {
+        final Integer totalPlayers = PlayerKind.values().length;
+        return Stream.generate(() -> buildPlayerBoard(boardSizePerPlayer, stonesPerField))
+                        .limit(totalPlayers)
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList());
+    }
+
+    private List<AtomicInteger> buildPlayerBoard(
+                    final Integer boardSizePerPlayer,
+                    final Integer stonesPerField
+    ) {
+        return Stream.of(
+                        Stream.of(new AtomicInteger(0)),
+                        Stream.generate(() -> new AtomicInteger(stonesPerField)).limit(boardSizePerPlayer)
+        ).flatMap(Function.identity()).collect(Collectors.toList());
+    }
+
+    public LegacyBoard update(
+                    final Integer targetIndex
+    ) throws MancalaException {
+        final Integer start = boardSizePerPlayer * currentPlayer.get().getIndex();
+        final Integer end = start + boardSizePerPlayer;
+
+        if (!(targetIndex > start && targetIndex < end))
+            throw MancalaException.invalid("player.board.interval");
+
+        if (board.get(targetIndex).get() == 0)
+            throw MancalaException.invalid("player.board.field.zero");
+
+        final Integer actualStones = board.get(targetIndex).getAndSet(0);
+        final Integer lastIndex = loopUpdateBoard(targetIndex, actualStones);
+
+        if (lastIndex > start && lastIndex < end && board.get(lastIndex).get() == 1) {
+            final Integer stonesToTransfer = board.get(board.size() - lastIndex).getAndSet(0);
+            board.get(start).updateAndGet(stones -> stones + stonesToTransfer);
+        }
+
+        if (lastIndex != boardSizePerPlayer * currentPlayer.get().getIndex()) {
+            currentPlayer.updateAndGet(PlayerKind::nextPlayer);
+        }
+
+        return this;
+    }
+
+    private Integer loopUpdateBoard(
+                    final Integer currentIndex,
+                    final Integer stonesLeft
+    ) {
+        if (stonesLeft > 0) {
+            final Integer nextIndex = moveCursor(currentIndex - 1);
+            if (isOtherPlayerCollector(nextIndex)) {
+                return loopUpdateBoard(nextIndex, stonesLeft);
+            } else {
+                board.get(nextIndex).incrementAndGet();
+                return loopUpdateBoard(nextIndex, stonesLeft - 1);
+            }
+        } else
+            return currentIndex;
+    }
+
+    private Boolean isOtherPlayerCollector(
+                    final Integer index
+    ) {
+        final PlayerKind player = currentPlayer.get();
+        return Stream.of(PlayerKind.values())
+                        .filter(e -> !e.equals(player))
+                        .map(otherPlayer -> boardSizePerPlayer * otherPlayer.getIndex() == index)
+                        .anyMatch(Predicate.isEqual(true));
+    }
+
+    private Integer moveCursor(
+                    final Integer index
+    ) {
+        if (index < 0)
+            return board.size() - 1;
+        else if (index >= board.size())
+            return 0;
+        else
+            return index;
+    }
+
+    public LegacyBoard processPossibleWinner() throws MancalaException {
+        if (isMatchEnded()) {
+            final List<Integer> collectedStones = collectAllRemainStones();
+            final PlayerKind winnerInBoard = findWinnerInBoard(collectedStones)
+                            .orElseThrow(() -> MancalaException.invalid("board.player.winner"));
+            winner.set(winnerInBoard);
+            isOpen.set(false);
+        }
+
+        return this;
+    }
+
+    private Boolean isMatchEnded() {
+        final Predicate<AtomicInteger> isEqualsZero = (pit) -> pit.get() == 0;
+        return Stream.of(PlayerKind.values()).map(player -> {
+            final BoardPlayerCorner corner = new BoardPlayerCorner(player, boardSizePerPlayer);
+            return board.subList(corner.getStart() + 1, corner.getEnd())
+                            .stream()
+                            .allMatch(isEqualsZero);
+        }).anyMatch(Predicate.isEqual(true));
+    }
+
+    private List<Integer> collectAllRemainStones() {
+        return Stream.of(PlayerKind.values()).map(player -> {
+            final BoardPlayerCorner corner = new BoardPlayerCorner(player, boardSizePerPlayer);
+            final Integer collectedStones = board.subList(corner.getStart() + 1, corner.getEnd()).stream()
+                            .map(pit -> pit.getAndSet(0))
+                            .reduce(0, (a, b) -> a + b);
+            return board.get(corner.getStart()).updateAndGet(stones -> stones + collectedStones);
+        }).collect(Collectors.toList());
+    }
+
+    private Optional<PlayerKind> findWinnerInBoard(
+                    final List<Integer> collectedStones
+    ) {
+        return StreamUtils.zipWithIndex(collectedStones.stream())
+                        .sorted(Comparator.comparing(Indexed::getValue))
+                        .reduce((first, second) -> second)
+                        .map(indexedPosition -> PlayerKind.values()[(int) indexedPosition.getIndex()]);
+    }
+}
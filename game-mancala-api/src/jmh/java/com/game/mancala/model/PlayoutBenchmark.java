@@ -0,0 +1,43 @@
+package com.game.mancala.model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark plays full games picking a random pit with stones on every move until there is a winner
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlayoutBenchmark {
+
+    @Param({"2", "4", "6"})
+    private int boardSize;
+
+    @Param({"1", "3", "6"})
+    private int stonesPerPit;
+
+    private final SplittableRandom random = new SplittableRandom(42L);
+
+    @Benchmark
+    public PlayerKind randomPlayout() {
+        final Board board = new Board(boardSize, stonesPerPit);
+        while (board.isOpen())
+            board.update(BoardPositions.randomMove(board, random)).processPossibleWinner();
+        return board.getWinner();
+    }
+}
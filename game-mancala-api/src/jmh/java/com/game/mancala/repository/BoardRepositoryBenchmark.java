@@ -0,0 +1,86 @@
+package com.game.mancala.repository;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.game.mancala.model.Board;
+
+/**
+ * This benchmark measures the reads of independent boards under their lock by one thread and by every core, the
+ * throughput of both shows how the striped locks scale with the threads
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BoardRepositoryBenchmark {
+
+    private static final int BOARDS = 1024;
+
+    private InMemoryBoardRepository repository;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        repository = new InMemoryBoardRepository();
+        ids = new UUID[BOARDS];
+        for (int index = 0; index < BOARDS; index++)
+            ids[index] = repository.save(new Board(6, 6)).getId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int readOnOneThread(
+                    final Cursor cursor
+    ) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int readOnEveryCore(
+                    final Cursor cursor
+    ) {
+        return read(cursor);
+    }
+
+    private int read(
+                    final Cursor cursor
+    ) {
+        final UUID id = ids[cursor.next()];
+        return repository.withLock(id, board -> board.getBoard()[1]).getUnchecked();
+    }
+
+    /**
+     * This class walks the boards from a different start on each thread
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        @Setup
+        public void setUp() {
+            index = (int) (Thread.currentThread().getId() * 31);
+        }
+
+        int next() {
+            index = (index + 1) & (BOARDS - 1);
+            return index;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.game.mancala.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.ai.BoardAiService;
+import com.game.mancala.endgame.EndgameDatabase;
+import com.game.mancala.event.BoardEventService;
+import com.game.mancala.metrics.BoardMetrics;
+import com.game.mancala.model.Board;
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.repository.InMemoryBoardRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This benchmark measures the mapping of a board to the result returned by every endpoint
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardServiceBenchmark {
+
+    @Param({"2", "6"})
+    private int boardSize;
+
+    private BoardService boardService;
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        final EndgameDatabase endgameDatabase = new EndgameDatabase("");
+        boardService = new BoardService(new InMemoryBoardRepository(),
+                        new BoardAiService(endgameDatabase, 10, 1000, 1), endgameDatabase,
+                        new BoardEventService(new ObjectMapper(), 64, 1, 0, 10000, false),
+                        new BoardMetrics(new SimpleMeterRegistry(), false, 1));
+        board = new Board(boardSize, 6);
+    }
+
+    @Benchmark
+    public BoardWrapper.Result toBoardResult() {
+        return boardService.toBoardResult(board);
+    }
+}
@@ -1,12 +1,29 @@
 package com.game.mancala;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 @SpringBootApplication
 public class GameMancalaApplication {
 
+	public static final String REACTIVE_PROFILE = "reactive";
+	public static final String FAST_STARTUP_PROFILE = "fast-startup";
+
+	/**
+	 * This method will start the application on Netty when the reactive profile is active
+	 * The type is decided before the run, so the servlet configurations are not applied to the reactive stack
+	 *
+	 * @param args the application arguments
+	 */
 	public static void main(String[] args) {
-		SpringApplication.run(GameMancalaApplication.class, args);
+		final SpringApplication application = new SpringApplication(GameMancalaApplication.class);
+		final StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		if (environment.acceptsProfiles(REACTIVE_PROFILE))
+			application.setWebApplicationType(WebApplicationType.REACTIVE);
+		application.run(args);
 	}
 }
@@ -0,0 +1,276 @@
+package com.game.mancala.ai;
+
+import com.game.mancala.model.BoardRules;
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This class searches the best move of a player with a negamax alpha-beta search and iterative deepening
+ * Each ply owns a preallocated copy of the pits (copy-make), so visiting a node does not allocate
+ * A move landing in the player collector keeps the same player, so the child is searched without negating
+ */
+public class AlphaBetaSearch {
+
+    public static final int MAX_DEPTH = 64;
+
+    static final int WIN = 100_000;
+
+    private static final int INFINITY = 1_000_000;
+    private static final int TIME_CHECK_MASK = 1023;
+
+    private final TranspositionTable table;
+    private final int boardSizePerPlayer;
+    private final int ringLength;
+    private final int[][] positions;
+    private final int[][] moves;
+    private final int helper;
+
+    private volatile boolean stopped;
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+    private int completedDepth;
+    private int rootMove;
+    private int rootScore;
+
+    /**
+     * This constructor will allocate the positions and moves of every ply for one board shape
+     *
+     * @param table              the transposition table
+     * @param boardSizePerPlayer the size of the player board including its collector
+     */
+    public AlphaBetaSearch(
+                    final TranspositionTable table,
+                    final int boardSizePerPlayer
+    ) {
+        this(table, boardSizePerPlayer, 0);
+    }
+
+    /**
+     * This constructor will create a helper of a parallel search sharing the transposition table
+     * Helpers start at a different depth and rotate the order of the quiet moves, so they fill the table
+     * with different subtrees than the main search (lazy SMP)
+     *
+     * @param table              the shared transposition table
+     * @param boardSizePerPlayer the size of the player board including its collector
+     * @param helper             the helper number, zero for the main search
+     */
+    public AlphaBetaSearch(
+                    final TranspositionTable table,
+                    final int boardSizePerPlayer,
+                    final int helper
+    ) {
+        final int boardLength = boardSizePerPlayer * PlayerKind.count();
+        this.table = table;
+        this.boardSizePerPlayer = boardSizePerPlayer;
+        this.ringLength = boardLength - (PlayerKind.count() - 1);
+        this.positions = new int[MAX_DEPTH + 2][boardLength];
+        this.moves = new int[MAX_DEPTH + 1][boardSizePerPlayer];
+        this.helper = helper;
+    }
+
+    /**
+     * This method will deepen the search one ply at a time until the max depth or the time runs out
+     * The first depth always completes, when the time runs out in the middle of a later depth the move of the
+     * last completed depth is kept
+     *
+     * @param board    the pits of the position, they are not modified
+     * @param player   the player to move
+     * @param maxDepth the max depth to search
+     * @param timeMs   the time budget in milliseconds
+     * @return the search result with the best move
+     */
+    public SearchResult search(
+                    final int[] board,
+                    final PlayerKind player,
+                    final int maxDepth,
+                    final long timeMs
+    ) {
+        final long start = System.nanoTime();
+        deadline = start + timeMs * 1_000_000L;
+        nodes = 0;
+        aborted = false;
+        completedDepth = 0;
+
+        int bestMove = -1;
+        int bestScore = 0;
+        for (int depth = 1 + (helper & 1); depth <= Math.min(maxDepth, MAX_DEPTH) && !stopped; depth++) {
+            System.arraycopy(board, 0, positions[0], 0, board.length);
+            rootMove = -1;
+            negamax(0, depth, -INFINITY, INFINITY, player.getIndex());
+            if (aborted)
+                break;
+
+            bestMove = rootMove;
+            bestScore = rootScore;
+            completedDepth = depth;
+            if (Math.abs(bestScore) >= WIN / 2)
+                break;
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * This method will ask a running search to stop at its next time check
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * This method will search the position of the ply from the point of view of the player to move
+     *
+     * @param ply    the distance from the root
+     * @param depth  the remaining depth
+     * @param alpha  the lower bound
+     * @param beta   the upper bound
+     * @param player the player index to move
+     * @return the score of the position for the player
+     */
+    private int negamax(
+                    final int ply,
+                    final int depth,
+                    int alpha,
+                    int beta,
+                    final int player
+    ) {
+        nodes++;
+        if (completedDepth > 0 && (nodes & TIME_CHECK_MASK) == 0 && (stopped || System.nanoTime() > deadline))
+            aborted = true;
+        if (aborted)
+            return 0;
+
+        final int[] pits = positions[ply];
+        if (BoardRules.isMatchEnded(pits, boardSizePerPlayer))
+            return terminalScore(pits, player);
+        if (depth == 0)
+            return evaluate(pits, player);
+
+        final int originalAlpha = alpha;
+        final long key = ZobristKeys.hash(pits, player);
+        final long entry = table.probe(key);
+        final int tableMove = entry == 0 ? -1 : TranspositionTable.move(entry);
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            final int score = TranspositionTable.score(entry);
+            final int flag = TranspositionTable.flag(entry);
+            if (flag == TranspositionTable.EXACT)
+                return score;
+            if (flag == TranspositionTable.LOWER)
+                alpha = Math.max(alpha, score);
+            else
+                beta = Math.min(beta, score);
+            if (alpha >= beta)
+                return score;
+        }
+
+        final int[] plyMoves = moves[ply];
+        final int count = orderedMoves(pits, player, tableMove, plyMoves);
+        final int[] child = positions[ply + 1];
+        final PlayerKind playerKind = PlayerKind.of(player);
+        final int nextPlayer = PlayerKind.nextPlayer(playerKind).getIndex();
+
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int index = 0; index < count; index++) {
+            final int move = plyMoves[index];
+            System.arraycopy(pits, 0, child, 0, pits.length);
+            final int lastIndex = BoardRules.moveStones(child, playerKind, boardSizePerPlayer, move);
+
+            final int score;
+            if (BoardRules.doNotHaveOtherRound(playerKind, lastIndex, boardSizePerPlayer))
+                score = -negamax(ply + 1, depth - 1, -beta, -alpha, nextPlayer);
+            else
+                score = negamax(ply + 1, depth - 1, alpha, beta, player);
+
+            if (aborted)
+                return 0;
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootMove = move;
+                    rootScore = score;
+                }
+            }
+            if (best > alpha)
+                alpha = best;
+            if (alpha >= beta)
+                break;
+        }
+
+        final int flag = best <= originalAlpha ? TranspositionTable.UPPER
+                        : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, depth, flag, best, bestMove);
+        return best;
+    }
+
+    /**
+     * This method will write the legal moves of the player, first the move of the transposition table,
+     * then the moves ending in the player collector (closest to the collector first) and then the others,
+     * rotated by the helper number
+     *
+     * @param pits      the current pits
+     * @param player    the player index
+     * @param tableMove the move of the transposition table or -1
+     * @param target    the array receiving the moves
+     * @return the amount of moves
+     */
+    private int orderedMoves(
+                    final int[] pits,
+                    final int player,
+                    final int tableMove,
+                    final int[] target
+    ) {
+        final int start = boardSizePerPlayer * player;
+        final int end = start + boardSizePerPlayer;
+        int count = 0;
+        if (tableMove > start && tableMove < end && pits[tableMove] > 0)
+            target[count++] = tableMove;
+        for (int index = start + 1; index < end; index++) {
+            if (index != tableMove && pits[index] > 0 && pits[index] % ringLength == index - start)
+                target[count++] = index;
+        }
+        final int pitsPerPlayer = boardSizePerPlayer - 1;
+        for (int offset = 0; offset < pitsPerPlayer; offset++) {
+            final int index = start + 1 + (offset + helper) % pitsPerPlayer;
+            if (index != tableMove && pits[index] > 0 && pits[index] % ringLength != index - start)
+                target[count++] = index;
+        }
+        return count;
+    }
+
+    /**
+     * This method will score an open position by the difference between the collectors
+     *
+     * @param pits   the current pits
+     * @param player the player index
+     * @return the score for the player
+     */
+    private int evaluate(
+                    final int[] pits,
+                    final int player
+    ) {
+        int score = 0;
+        for (int other = 0; other < PlayerKind.count(); other++) {
+            final int stones = pits[boardSizePerPlayer * other];
+            score += other == player ? stones : -stones;
+        }
+        return score;
+    }
+
+    /**
+     * This method will collect the remaining stones and score the finished match by the rules winner,
+     * using the difference between the collectors to prefer bigger wins and smaller losses
+     *
+     * @param pits   the current pits, they are collected in place
+     * @param player the player index
+     * @return the score for the player
+     */
+    private int terminalScore(
+                    final int[] pits,
+                    final int player
+    ) {
+        final PlayerKind winner = BoardRules.collectAllRemainStones(pits, boardSizePerPlayer);
+        final int difference = evaluate(pits, player);
+        return winner.getIndex() == player ? WIN + difference : -WIN + difference;
+    }
+}
@@ -0,0 +1,84 @@
+package com.game.mancala.ai;
+
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.game.mancala.endgame.EndgameDatabase;
+import com.game.mancala.exception.MancalaException;
+import com.game.mancala.model.PackedBoard;
+
+@Service
+public class BoardAiService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoardAiService.class);
+
+    private final EndgameDatabase endgameDatabase;
+    private final TranspositionTable table;
+    private final long maxTimeMs;
+    private final int threads;
+    private final ForkJoinPool pool;
+
+    public BoardAiService(
+                    final EndgameDatabase endgameDatabase,
+                    @Value("${mancala.ai.table-size-bits:20}") final int tableSizeBits,
+                    @Value("${mancala.ai.max-time-ms:10000}") final long maxTimeMs,
+                    @Value("${mancala.ai.threads:0}") final int threads
+    ) {
+        this.endgameDatabase = endgameDatabase;
+        this.table = new TranspositionTable(tableSizeBits);
+        this.maxTimeMs = maxTimeMs;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(Math.max(1, this.threads - 1));
+    }
+
+    /**
+     * This method will search the best move for the current player of a board position
+     * The position is an immutable state read from the board, so the search holds no lock of the board
+     * A position solved by the endgame database is answered with its winning move without searching
+     *
+     * @param id     the board ID
+     * @param state  the position of the board
+     * @param depth  the max depth to search
+     * @param timeMs the time budget in milliseconds
+     * @return the search result with the best move
+     * @throws MancalaException
+     */
+    public SearchResult bestMove(
+                    final UUID id,
+                    final PackedBoard state,
+                    final int depth,
+                    final long timeMs
+    ) throws MancalaException {
+        if (depth < 1 || depth > AlphaBetaSearch.MAX_DEPTH)
+            throw MancalaException.invalid("board.ai.depth");
+
+        if (timeMs < 1 || timeMs > maxTimeMs)
+            throw MancalaException.invalid("board.ai.time");
+
+        final int[] pits = state.pits();
+        final int solvedMove = endgameDatabase.winningMove(pits, state.getBoardSizePerPlayer(),
+                        state.getCurrentPlayer());
+        if (solvedMove != EndgameDatabase.NO_MOVE) {
+            LOGGER.debug("board {} solved move {} from the endgame database", id, solvedMove);
+            return new SearchResult(solvedMove, AlphaBetaSearch.WIN, 0, 0, 0);
+        }
+
+        final SearchResult result = new ParallelSearch(pool, table, threads).search(pits,
+                        state.getBoardSizePerPlayer(), state.getCurrentPlayer(), depth, timeMs);
+        LOGGER.debug("board {} searched move {} at depth {} with {} nodes ({} nodes/s)", id,
+                        result.getMove(), result.getDepth(), result.getNodes(), result.getNodesPerSecond());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,67 @@
+package com.game.mancala.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This class runs a lazy SMP search: the main search runs in the calling thread while helpers search the same
+ * position in the fork join pool, all sharing the lock-free transposition table. The helpers only feed the table,
+ * so the main search reaches deeper plies in the same time, and they are stopped once the main search finishes
+ */
+public class ParallelSearch {
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final int threads;
+
+    public ParallelSearch(
+                    final ForkJoinPool pool,
+                    final TranspositionTable table,
+                    final int threads
+    ) {
+        this.pool = pool;
+        this.table = table;
+        this.threads = threads;
+    }
+
+    /**
+     * This method will search the best move using all the threads
+     *
+     * @param board              the pits of the position, they are not modified
+     * @param boardSizePerPlayer the size of the player board including its collector
+     * @param player             the player to move
+     * @param maxDepth           the max depth to search
+     * @param timeMs             the time budget in milliseconds
+     * @return the result of the main search with the nodes of all the threads
+     */
+    public SearchResult search(
+                    final int[] board,
+                    final int boardSizePerPlayer,
+                    final PlayerKind player,
+                    final int maxDepth,
+                    final long timeMs
+    ) {
+        final List<AlphaBetaSearch> helpers = new ArrayList<>(threads - 1);
+        final List<ForkJoinTask<SearchResult>> tasks = new ArrayList<>(threads - 1);
+        for (int helper = 1; helper < threads; helper++) {
+            final AlphaBetaSearch search = new AlphaBetaSearch(table, boardSizePerPlayer, helper);
+            helpers.add(search);
+            tasks.add(pool.submit(() -> search.search(board, player, maxDepth, timeMs)));
+        }
+
+        final SearchResult main = new AlphaBetaSearch(table, boardSizePerPlayer).search(board, player, maxDepth,
+                        timeMs);
+
+        long nodes = main.getNodes();
+        for (final AlphaBetaSearch helper : helpers)
+            helper.stop();
+        for (final ForkJoinTask<SearchResult> task : tasks)
+            nodes += task.join().getNodes();
+
+        return new SearchResult(main.getMove(), main.getScore(), main.getDepth(), nodes, main.getElapsedNanos());
+    }
+}
@@ -0,0 +1,23 @@
+package com.game.mancala.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchResult {
+    private final int move;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    /**
+     * This method will compute the speed of the search
+     *
+     * @return the searched nodes per second
+     */
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? nodes : nodes * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,106 @@
+package com.game.mancala.ai;
+
+import java.util.Arrays;
+
+/**
+ * This class is a fixed size hash table of searched positions stored in two primitive arrays
+ * Every slot keeps the key xor-ed with the packed entry, so a slot written by two threads at the same time
+ * does not match any key and is read as a miss instead of returning a torn entry.
+ * That makes the table safe to share between the threads of a parallel search without any lock
+ */
+public class TranspositionTable {
+
+    static final int EXACT = 0;
+    static final int LOWER = 1;
+    static final int UPPER = 2;
+
+    private static final int NO_MOVE = 0xFF;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    /**
+     * This constructor will allocate the table with a power of two amount of slots
+     *
+     * @param sizeBits the amount of slots as a power of two exponent
+     */
+    public TranspositionTable(
+                    final int sizeBits
+    ) {
+        this.keys = new long[1 << sizeBits];
+        this.entries = new long[1 << sizeBits];
+        this.mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * This method will look for the entry of the position
+     *
+     * @param key the hash of the position
+     * @return the packed entry or zero when there is no entry for the key
+     */
+    long probe(
+                    final long key
+    ) {
+        final int slot = (int) key & mask;
+        final long entry = entries[slot];
+        if ((keys[slot] ^ entry) == key && entry != 0)
+            return entry;
+        return 0;
+    }
+
+    /**
+     * This method will store the entry of the position, keeping a deeper entry of the same position
+     *
+     * @param key   the hash of the position
+     * @param depth the searched depth
+     * @param flag  if the score is exact, a lower or an upper bound
+     * @param score the score of the position
+     * @param move  the best move or -1
+     */
+    void store(
+                    final long key,
+                    final int depth,
+                    final int flag,
+                    final int score,
+                    final int move
+    ) {
+        final int slot = (int) key & mask;
+        final long previous = entries[slot];
+        if ((keys[slot] ^ previous) == key && previous != 0 && depth(previous) > depth)
+            return;
+
+        final long entry = ((long) score << 32)
+                        | ((long) (move < 0 ? NO_MOVE : move) << 16)
+                        | ((long) depth << 8)
+                        | (flag << 1)
+                        | 1L;
+        entries[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    /**
+     * This method will remove all entries of the table
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, 0);
+    }
+
+    static int score(final long entry) {
+        return (int) (entry >> 32);
+    }
+
+    static int move(final long entry) {
+        final int move = (int) (entry >>> 16) & 0xFF;
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    static int depth(final long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    static int flag(final long entry) {
+        return (int) (entry >>> 1) & 0x3;
+    }
+}
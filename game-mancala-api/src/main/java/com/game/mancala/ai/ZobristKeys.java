@@ -0,0 +1,46 @@
+package com.game.mancala.ai;
+
+import java.util.SplittableRandom;
+
+import com.game.mancala.model.PlayerKind;
+
+final class ZobristKeys {
+
+    static final int MAX_PITS = (6 + 1) * 2;
+    static final int MAX_STONES = 6 * 6 * 2;
+
+    private static final long[] PIT_KEYS = new long[MAX_PITS * (MAX_STONES + 1)];
+    private static final long[] PLAYER_KEYS = new long[PlayerKind.count()];
+    private static final long[] SHAPE_KEYS = new long[MAX_PITS + 1];
+
+    static {
+        final SplittableRandom random = new SplittableRandom(0x6D616E63616C61L);
+        for (int index = 0; index < PIT_KEYS.length; index++)
+            PIT_KEYS[index] = random.nextLong();
+        for (int index = 0; index < PLAYER_KEYS.length; index++)
+            PLAYER_KEYS[index] = random.nextLong();
+        for (int index = 0; index < SHAPE_KEYS.length; index++)
+            SHAPE_KEYS[index] = random.nextLong();
+    }
+
+    private ZobristKeys() {
+    }
+
+    /**
+     * This method will hash the position xor-ing one random key per pit and stones, the player to move and the
+     * board length, so boards of different sizes do not share entries
+     *
+     * @param board  the pits of the position
+     * @param player the player index to move
+     * @return the hash of the position
+     */
+    static long hash(
+                    final int[] board,
+                    final int player
+    ) {
+        long hash = SHAPE_KEYS[board.length] ^ PLAYER_KEYS[player];
+        for (int index = 0; index < board.length; index++)
+            hash ^= PIT_KEYS[index * (MAX_STONES + 1) + board[index]];
+        return hash;
+    }
+}
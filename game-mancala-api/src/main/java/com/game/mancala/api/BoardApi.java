@@ -1,9 +1,17 @@
 package com.game.mancala.api;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import javax.validation.Valid;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,65 +20,248 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import com.game.mancala.model.BoardWrapper;
 import com.game.mancala.service.BoardService;
 
 @CrossOrigin
 @Controller
+@Profile("!reactive")
 @RequestMapping("/board")
 public class BoardApi {
 
     private final BoardService boardService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
 
-    public BoardApi(final BoardService boardService) {
+    public BoardApi(
+                    final BoardService boardService,
+                    final ObjectMapper objectMapper
+    ) {
         this.boardService = boardService;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(BoardWrapper.Result.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
      * This method will ask to the board service to create a new board
      *
-     * @param input the board create object
+     * @param input  the board create object
+     * @param accept the media types accepted by the client
      * @return a board result
      */
     @PostMapping
     public ResponseEntity<BoardWrapper.Result> create(
-                    @RequestBody @Valid final BoardWrapper.Create input
+                    @RequestBody @Valid final BoardWrapper.Create input,
+                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept
     ) {
         final BoardWrapper.Result result = boardService.create(input);
-        return ResponseEntity.ok(result);
+        return tagged(result, BoardVersions.isBinary(accept));
+    }
+
+    /**
+     * This method will ask to the board service to create many boards at once
+     * The boards are written as a JSON array while they are created, in chunks over a chunked response
+     *
+     * @param input the board batch object
+     * @return the board results as a streamed JSON array
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<StreamingResponseBody> createAll(
+                    @RequestBody @Valid final BoardWrapper.Batch input
+    ) {
+        return toJsonArray(boardService.createAll(input));
+    }
+
+    /**
+     * This method will ask to the board service for many existing boards by ID
+     * The boards are written as a JSON array while they are read, unknown boards are left out
+     *
+     * @param ids the board IDs
+     * @return the board results as a streamed JSON array
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<StreamingResponseBody> getAll(
+                    @RequestParam final List<UUID> ids
+    ) {
+        return toJsonArray(boardService.getAll(ids));
     }
 
     /**
      * This method will ask to the board service for a existing board by ID
+     * A client holding the board at its version in the accepted representation gets a not modified answer,
+     * without reading the board
      *
-     * @param id the board ID
-     * @return a possible board result
+     * @param id          the board ID
+     * @param ifNoneMatch the entity tags of the board held by the client
+     * @param accept      the media types accepted by the client
+     * @return a possible board result tagged with its version
      */
     @GetMapping("/{id}")
     public ResponseEntity<BoardWrapper.Result> get(
-                    @PathVariable final UUID id
+                    @PathVariable final UUID id,
+                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept
     ) {
+        final boolean binary = BoardVersions.isBinary(accept);
+        if (ifNoneMatch != null) {
+            final Optional<Long> version = boardService.version(id);
+            if (version.isPresent() && BoardVersions.matches(ifNoneMatch, version.get(), binary))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(BoardVersions.eTagOf(version.get(), binary))
+                                .varyBy(HttpHeaders.ACCEPT)
+                                .build();
+        }
+
         return boardService.get(id)
-                        .map(ResponseEntity::ok)
+                        .map(result -> tagged(result, binary))
                         .getUnchecked();
     }
 
     /**
      * This method will ask to the board service to update a board by ID starting from the index
+     * A move with an If-Match header is only played on the board at one of its strong tags, otherwise it is a
+     * conflict
      *
-     * @param id    the board ID
-     * @param index the index to start updating the board
-     * @return a possible board result
+     * @param id      the board ID
+     * @param index   the index to start updating the board
+     * @param ifMatch the entity tags of the board known by the client
+     * @param accept  the media types accepted by the client
+     * @return a possible board result tagged with its version
      */
     @PutMapping("/{id}/target/{index}")
     public ResponseEntity<BoardWrapper.Result> target(
                     @PathVariable final UUID id,
-                    @PathVariable final Integer index
+                    @PathVariable final Integer index,
+                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept
     ) {
-        return boardService.update(id, index)
+        return boardService.update(id, index, BoardVersions.expectedVersions(ifMatch))
+                        .map(result -> tagged(result, BoardVersions.isBinary(accept)))
+                        .getUnchecked();
+    }
+
+    /**
+     * This method will ask to the board service to play many moves on a board by ID at once
+     * The moves are applied in order and all or none, a rejected move is reported by its position
+     *
+     * @param id      the board ID
+     * @param pits    the pits of the moves in order
+     * @param ifMatch the entity tags of the board known by the client
+     * @param accept  the media types accepted by the client
+     * @return a possible board result after the last move tagged with its version
+     */
+    @PostMapping("/{id}/moves")
+    public ResponseEntity<BoardWrapper.Result> moves(
+                    @PathVariable final UUID id,
+                    @RequestBody final int[] pits,
+                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
+                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept
+    ) {
+        return boardService.updateAll(id, pits, BoardVersions.expectedVersions(ifMatch))
+                        .map(result -> tagged(result, BoardVersions.isBinary(accept)))
+                        .getUnchecked();
+    }
+
+    /**
+     * This method will ask to the board service to play the move of the computer for the current player
+     * A board moved by another request during the search is answered as a conflict
+     *
+     * @param id     the board ID
+     * @param depth  the max depth of the search
+     * @param timeMs the time budget of the search in milliseconds
+     * @param accept the media types accepted by the client
+     * @return a possible board result
+     */
+    @PostMapping("/{id}/ai-move")
+    public ResponseEntity<BoardWrapper.Result> aiMove(
+                    @PathVariable final UUID id,
+                    @RequestParam(defaultValue = "20") final Integer depth,
+                    @RequestParam(defaultValue = "1000") final Long timeMs,
+                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept
+    ) {
+        return boardService.aiMove(id, depth, timeMs)
+                        .map(result -> tagged(result, BoardVersions.isBinary(accept)))
+                        .getUnchecked();
+    }
+
+    /**
+     * This method will ask to the board service for the winner of a board with perfect play
+     *
+     * @param id the board ID
+     * @return a possible board outcome
+     */
+    @GetMapping("/{id}/outcome")
+    public ResponseEntity<BoardWrapper.Outcome> outcome(
+                    @PathVariable final UUID id
+    ) {
+        return boardService.outcome(id)
+                        .map(ResponseEntity::ok)
+                        .getUnchecked();
+    }
+
+    /**
+     * This method will ask to the board service to stream the moves of a board as server sent events
+     * The first event is the full board and every following event is the delta of a move
+     *
+     * @param id the board ID
+     * @return a possible event stream
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(
+                    @PathVariable final UUID id
+    ) {
+        return boardService.subscribe(id)
                         .map(ResponseEntity::ok)
                         .getUnchecked();
     }
+
+    /**
+     * This method is a helper to answer a board result with the entity tag of its version in its representation
+     *
+     * @param result the board result
+     * @param binary true when the result is written in the binary representation
+     * @return the response with the result
+     */
+    private ResponseEntity<BoardWrapper.Result> tagged(
+                    final BoardWrapper.Result result,
+                    final boolean binary
+    ) {
+        return ResponseEntity.ok()
+                        .eTag(BoardVersions.eTagOf(result.getVersion(), binary))
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(result);
+    }
+
+    /**
+     * This method is a helper to write the results one by one as a JSON array without holding all of them
+     * The generator hands its buffer to the response whenever it fills up, so the response is sent in chunks
+     *
+     * @param results the board results
+     * @return the response writing the array
+     */
+    private ResponseEntity<StreamingResponseBody> toJsonArray(
+                    final Stream<BoardWrapper.Result> results
+    ) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(output -> {
+            final JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+            generator.writeStartArray();
+            final Iterator<BoardWrapper.Result> iterator = results.iterator();
+            while (iterator.hasNext())
+                resultWriter.writeValue(generator, iterator.next());
+            generator.writeEndArray();
+            generator.flush();
+        });
+    }
 }
@@ -0,0 +1,167 @@
+package com.game.mancala.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.model.PackedBoard;
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This converter writes a board result as a few bytes for the clients accepting {@code application/vnd.mancala.board}
+ * The layout is the version, the board ID as two big endian longs, the size per player, the player to move,
+ * the winner or -1, the open flag, the board version as a big endian long, the amount of pits and one unsigned byte
+ * per pit
+ * The bytes are read from the packed state of the board held by the result, never from its boxed pits
+ */
+public class BoardBinaryMessageConverter extends AbstractHttpMessageConverter<BoardWrapper.Result> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.mancala.board";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    static final byte VERSION = 2;
+    static final int HEADER_BYTES = 30;
+    static final int MAX_BYTES = HEADER_BYTES + PackedBoard.MAX_PITS;
+
+    private static final byte NO_WINNER = -1;
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[MAX_BYTES]);
+
+    public BoardBinaryMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(
+                    final Class<?> clazz
+    ) {
+        return BoardWrapper.Result.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(
+                    final MediaType mediaType
+    ) {
+        return false;
+    }
+
+    @Override
+    protected BoardWrapper.Result readInternal(
+                    final Class<? extends BoardWrapper.Result> clazz,
+                    final HttpInputMessage inputMessage
+    ) {
+        throw new HttpMessageNotReadableException("board results are only written as " + MEDIA_TYPE_VALUE);
+    }
+
+    @Override
+    protected Long getContentLength(
+                    final BoardWrapper.Result result,
+                    final MediaType contentType
+    ) {
+        return (long) (HEADER_BYTES + result.getState().getBoardSizePerPlayer() * PlayerKind.count());
+    }
+
+    /**
+     * This method will encode the result into a buffer of the thread and write it at once, so no bytes are allocated
+     *
+     * @param result        the board result
+     * @param outputMessage the response
+     * @throws IOException when the response can not be written
+     */
+    @Override
+    protected void writeInternal(
+                    final BoardWrapper.Result result,
+                    final HttpOutputMessage outputMessage
+    ) throws IOException {
+        final byte[] buffer = BUFFER.get();
+        final int length = encode(result, buffer);
+        outputMessage.getBody().write(buffer, 0, length);
+    }
+
+    /**
+     * This method will encode a board result into the buffer from the packed state of its board
+     *
+     * @param result the board result
+     * @param buffer the buffer with at least {@link #MAX_BYTES} bytes
+     * @return the amount of bytes written
+     */
+    public static int encode(
+                    final BoardWrapper.Result result,
+                    final byte[] buffer
+    ) {
+        final PackedBoard state = result.getState();
+        final PlayerKind winner = state.getWinner();
+        final int pits = state.getBoardSizePerPlayer() * PlayerKind.count();
+        buffer[0] = VERSION;
+        putLong(buffer, 1, result.getId().getMostSignificantBits());
+        putLong(buffer, 9, result.getId().getLeastSignificantBits());
+        buffer[17] = (byte) state.getBoardSizePerPlayer();
+        buffer[18] = (byte) state.getCurrentPlayer().getIndex();
+        buffer[19] = winner == null ? NO_WINNER : (byte) winner.getIndex();
+        buffer[20] = (byte) (state.isOpen() ? 1 : 0);
+        putLong(buffer, 21, result.getVersion());
+        buffer[29] = (byte) pits;
+        for (int index = 0; index < pits; index++)
+            buffer[HEADER_BYTES + index] = (byte) state.stones(index);
+        return HEADER_BYTES + pits;
+    }
+
+    /**
+     * This method is a helper for the Java clients to read a board result back
+     *
+     * @param buffer the encoded board result
+     * @return the board result
+     */
+    public static BoardWrapper.Result decode(
+                    final byte[] buffer
+    ) {
+        if (buffer.length < HEADER_BYTES || buffer[0] != VERSION)
+            throw new IllegalArgumentException("unknown board encoding");
+
+        final int[] board = new int[buffer[29]];
+        final List<Integer> pits = new ArrayList<>(board.length);
+        for (int index = 0; index < board.length; index++) {
+            board[index] = buffer[HEADER_BYTES + index] & 0xFF;
+            pits.add(board[index]);
+        }
+
+        final PlayerKind currentPlayer = PlayerKind.of(buffer[18]);
+        final PlayerKind winner = buffer[19] == NO_WINNER ? null : PlayerKind.of(buffer[19]);
+        return BoardWrapper.Result.builder()
+                        .id(new UUID(getLong(buffer, 1), getLong(buffer, 9)))
+                        .boardSizePerPlayer((int) buffer[17])
+                        .currentPlayer(currentPlayer)
+                        .winner(winner)
+                        .isOpen(buffer[20] == 1)
+                        .version(getLong(buffer, 21))
+                        .board(pits)
+                        .state(PackedBoard.of(buffer[17], board, currentPlayer, buffer[20] == 1, winner))
+                        .build();
+    }
+
+    private static void putLong(
+                    final byte[] buffer,
+                    final int offset,
+                    final long value
+    ) {
+        for (int index = 0; index < Long.BYTES; index++)
+            buffer[offset + index] = (byte) (value >>> (56 - 8 * index));
+    }
+
+    private static long getLong(
+                    final byte[] buffer,
+                    final int offset
+    ) {
+        long value = 0;
+        for (int index = 0; index < Long.BYTES; index++)
+            value = value << 8 | buffer[offset + index] & 0xFF;
+        return value;
+    }
+}
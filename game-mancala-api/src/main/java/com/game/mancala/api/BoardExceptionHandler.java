@@ -0,0 +1,53 @@
+package com.game.mancala.api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.game.mancala.exception.MancalaException;
+import com.game.mancala.model.BoardWrapper;
+
+/**
+ * This class answers the failures of the game on both the blocking and the reactive controllers with the status of
+ * their exception and a body carrying their message key, as player.board.interval.invalid
+ * The failures are shared instances, so the response of each one is built once instead of going through the error
+ * page of the server
+ */
+@ControllerAdvice
+public class BoardExceptionHandler {
+
+    private final Map<MancalaException, ResponseEntity<BoardWrapper.Rejection>> responses = new ConcurrentHashMap<>();
+
+    /**
+     * This method will answer a failure of the game
+     *
+     * @param failure the failure
+     * @return the response with the status of the failure
+     */
+    @ExceptionHandler(MancalaException.class)
+    public ResponseEntity<BoardWrapper.Rejection> handle(
+                    final MancalaException failure
+    ) {
+        return responses.computeIfAbsent(failure, BoardExceptionHandler::buildResponse);
+    }
+
+    private static ResponseEntity<BoardWrapper.Rejection> buildResponse(
+                    final MancalaException failure
+    ) {
+        final ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(failure.getClass(),
+                        ResponseStatus.class);
+        final HttpStatus status = responseStatus == null ? HttpStatus.INTERNAL_SERVER_ERROR : responseStatus.code();
+        return ResponseEntity.status(status)
+                        .body(BoardWrapper.Rejection.builder()
+                                        .status(status.value())
+                                        .error(status.getReasonPhrase())
+                                        .message(failure.getMessage())
+                                        .build());
+    }
+}
@@ -0,0 +1,136 @@
+package com.game.mancala.api;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.game.mancala.exception.MancalaException;
+
+/**
+ * This class maps the version of a board to the entity tag of each representation, as {@code "12"} for the JSON one
+ * and {@code "12-bin"} for the binary one, and reads the versions of the conditional headers back. The bytes of the
+ * representations differ, so each one gets its own strong tag and the responses vary by the Accept header
+ */
+final class BoardVersions {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String BINARY_SUFFIX = "-bin";
+    private static final long[] NO_VERSION = new long[0];
+
+    private BoardVersions() {
+    }
+
+    /**
+     * This method will provide the entity tag of a board version in a representation
+     *
+     * @param version the board version
+     * @param binary  true for the binary representation
+     * @return the strong entity tag
+     */
+    static String eTagOf(
+                    final long version,
+                    final boolean binary
+    ) {
+        return "\"" + version + (binary ? BINARY_SUFFIX : "") + "\"";
+    }
+
+    /**
+     * This method will pick the representation of a board result as the message converters do, the first accepted
+     * media type by specificity and quality decides, JSON winning a tie as its converter comes first
+     *
+     * @param accept the Accept header, may be null
+     * @return true when the board result is written in the binary representation
+     */
+    static boolean isBinary(
+                    final String accept
+    ) {
+        if (accept == null)
+            return false;
+
+        final List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (final InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (final MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0)
+                continue;
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON))
+                return false;
+            if (mediaType.isCompatibleWith(BoardBinaryMessageConverter.MEDIA_TYPE))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method will read the versions expected by an If-Match header, one or many tags split by commas
+     * The header is compared with the strong comparison, so a weak tag never matches and a header of weak tags
+     * only is answered as a conflict
+     *
+     * @param ifMatch the If-Match header, may be null
+     * @return the expected versions or null when any version is expected
+     * @throws MancalaException when a tag is not a board version
+     */
+    static long[] expectedVersions(
+                    final String ifMatch
+    ) throws MancalaException {
+        if (ifMatch == null || ANY.equals(ifMatch.trim()))
+            return null;
+
+        final String[] tags = ifMatch.split(",");
+        final long[] versions = new long[tags.length];
+        int count = 0;
+        for (final String tag : tags) {
+            final String value = tag.trim();
+            if (!value.startsWith(WEAK_PREFIX))
+                versions[count++] = versionOf(value);
+        }
+        return count == 0 ? NO_VERSION : Arrays.copyOf(versions, count);
+    }
+
+    /**
+     * This method will check if an If-None-Match header holds the tag of the board in a representation
+     * The header is compared with the weak comparison, a weak tag matches the strong tag of the same value
+     *
+     * @param ifNoneMatch the If-None-Match header, one or many tags split by commas
+     * @param version     the board version
+     * @param binary      true for the binary representation
+     * @return true when the client already holds the board at this version in this representation
+     */
+    static boolean matches(
+                    final String ifNoneMatch,
+                    final long version,
+                    final boolean binary
+    ) {
+        final String eTag = eTagOf(version, binary);
+        for (final String tag : ifNoneMatch.split(",")) {
+            final String value = tag.trim();
+            if (ANY.equals(value) || eTag.equals(value.startsWith(WEAK_PREFIX)
+                            ? value.substring(WEAK_PREFIX.length()) : value))
+                return true;
+        }
+        return false;
+    }
+
+    private static long versionOf(
+                    final String tag
+    ) throws MancalaException {
+        String value = tag;
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\""))
+            value = value.substring(1, value.length() - 1);
+        if (value.endsWith(BINARY_SUFFIX))
+            value = value.substring(0, value.length() - BINARY_SUFFIX.length());
+
+        try {
+            return Long.parseLong(value);
+        } catch (final NumberFormatException e) {
+            throw MancalaException.invalid("board.version");
+        }
+    }
+}
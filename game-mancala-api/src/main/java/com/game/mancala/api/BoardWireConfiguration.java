@@ -0,0 +1,22 @@
+package com.game.mancala.api;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * This configuration adds the binary board format after the default converters, so JSON stays the format of the
+ * clients not asking for {@link BoardBinaryMessageConverter#MEDIA_TYPE_VALUE}
+ */
+@Configuration
+public class BoardWireConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(
+                    final List<HttpMessageConverter<?>> converters
+    ) {
+        converters.add(new BoardBinaryMessageConverter());
+    }
+}
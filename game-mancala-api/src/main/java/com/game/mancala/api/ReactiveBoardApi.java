@@ -0,0 +1,272 @@
+package com.game.mancala.api;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+import javax.validation.Valid;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.monad.Try;
+import com.game.mancala.service.BoardService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * This controller serves the board routes on the reactive stack when the {@code reactive} profile is active
+ * The board calls wait for the board lock or the publication of a move, so they never run on the event loop: they
+ * run on a parallel scheduler of one thread per core while the boards live in memory, and on an elastic scheduler
+ * for the repositories touching the disk and the computer search
+ */
+@CrossOrigin
+@Controller
+@Profile("reactive")
+@RequestMapping("/board")
+public class ReactiveBoardApi {
+
+    private final BoardService boardService;
+    private final Scheduler boardScheduler;
+    private final Scheduler searchScheduler;
+
+    public ReactiveBoardApi(
+                    final BoardService boardService,
+                    @Value("${mancala.journal.enabled:false}") final boolean journalEnabled,
+                    @Value("${mancala.storage.tiered.enabled:false}") final boolean tieredEnabled
+    ) {
+        this.boardService = boardService;
+        this.searchScheduler = Schedulers.newElastic("board-search");
+        this.boardScheduler = journalEnabled || tieredEnabled
+                        ? Schedulers.newElastic("board-storage")
+                        : Schedulers.newParallel("board-calls");
+    }
+
+    /**
+     * This method will ask to the board service to create a new board
+     *
+     * @param input the board create object
+     * @return a board result
+     */
+    @PostMapping
+    public Mono<ResponseEntity<BoardWrapper.Result>> create(
+                    @RequestBody @Valid final BoardWrapper.Create input
+    ) {
+        return answer(() -> Try.ofFailable(() -> tagged(boardService.create(input))), boardScheduler);
+    }
+
+    /**
+     * This method will ask to the board service to create many boards at once
+     * The boards are created in chunks as the flux is consumed, a streaming media type as application/stream+json
+     * writes each one as it is created while application/json writes the whole array at the end
+     *
+     * @param input the board batch object
+     * @return the board results
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Flux<BoardWrapper.Result>> createAll(
+                    @RequestBody @Valid final BoardWrapper.Batch input
+    ) {
+        return ResponseEntity.ok(Flux.defer(() -> Flux.fromStream(boardService.createAll(input)))
+                        .subscribeOn(boardScheduler));
+    }
+
+    /**
+     * This method will ask to the board service for many existing boards by ID, unknown boards are left out
+     *
+     * @param ids the board IDs
+     * @return the board results
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Flux<BoardWrapper.Result>> getAll(
+                    @RequestParam final List<UUID> ids
+    ) {
+        return ResponseEntity.ok(Flux.defer(() -> Flux.fromStream(boardService.getAll(ids)))
+                        .subscribeOn(boardScheduler));
+    }
+
+    /**
+     * This method will ask to the board service for a existing board by ID
+     * A client holding the board at its version gets a not modified answer, without reading the board
+     *
+     * @param id          the board ID
+     * @param ifNoneMatch the entity tags of the board held by the client
+     * @return a possible board result tagged with its version
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BoardWrapper.Result>> get(
+                    @PathVariable final UUID id,
+                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch
+    ) {
+        return answer(() -> {
+            if (ifNoneMatch != null) {
+                final Optional<Long> version = boardService.version(id);
+                if (version.isPresent() && BoardVersions.matches(ifNoneMatch, version.get(), false))
+                    return Try.successful(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                    .eTag(BoardVersions.eTagOf(version.get(), false))
+                                    .build());
+            }
+            return boardService.get(id).map(ReactiveBoardApi::tagged);
+        }, boardScheduler);
+    }
+
+    /**
+     * This method will ask to the board service to update a board by ID starting from the index
+     * A move with an If-Match header is only played on the board at one of its strong tags, otherwise it is a
+     * conflict
+     *
+     * @param id      the board ID
+     * @param index   the index to start updating the board
+     * @param ifMatch the entity tags of the board known by the client
+     * @return a possible board result tagged with its version
+     */
+    @PutMapping("/{id}/target/{index}")
+    public Mono<ResponseEntity<BoardWrapper.Result>> target(
+                    @PathVariable final UUID id,
+                    @PathVariable final Integer index,
+                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch
+    ) {
+        return answer(() -> boardService.update(id, index, BoardVersions.expectedVersions(ifMatch))
+                        .map(ReactiveBoardApi::tagged), boardScheduler);
+    }
+
+    /**
+     * This method will ask to the board service to play many moves on a board by ID at once
+     * The moves are applied in order and all or none, a rejected move is reported by its position
+     *
+     * @param id      the board ID
+     * @param pits    the pits of the moves in order
+     * @param ifMatch the entity tags of the board known by the client
+     * @return a possible board result after the last move tagged with its version
+     */
+    @PostMapping("/{id}/moves")
+    public Mono<ResponseEntity<BoardWrapper.Result>> moves(
+                    @PathVariable final UUID id,
+                    @RequestBody final int[] pits,
+                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch
+    ) {
+        return answer(() -> boardService.updateAll(id, pits, BoardVersions.expectedVersions(ifMatch))
+                        .map(ReactiveBoardApi::tagged), boardScheduler);
+    }
+
+    /**
+     * This method will ask to the board service to play the move of the computer for the current player
+     * A board moved by another request during the search is answered as a conflict
+     *
+     * @param id     the board ID
+     * @param depth  the max depth of the search
+     * @param timeMs the time budget of the search in milliseconds
+     * @return a possible board result
+     */
+    @PostMapping("/{id}/ai-move")
+    public Mono<ResponseEntity<BoardWrapper.Result>> aiMove(
+                    @PathVariable final UUID id,
+                    @RequestParam(defaultValue = "20") final Integer depth,
+                    @RequestParam(defaultValue = "1000") final Long timeMs
+    ) {
+        return answer(() -> boardService.aiMove(id, depth, timeMs).map(ReactiveBoardApi::tagged), searchScheduler);
+    }
+
+    /**
+     * This method will ask to the board service for the winner of a board with perfect play
+     *
+     * @param id the board ID
+     * @return a possible board outcome
+     */
+    @GetMapping("/{id}/outcome")
+    public Mono<ResponseEntity<BoardWrapper.Outcome>> outcome(
+                    @PathVariable final UUID id
+    ) {
+        return respond(() -> boardService.outcome(id), boardScheduler);
+    }
+
+    /**
+     * This method will ask to the board service to stream the moves of a board as server sent events
+     * The first event is the full board and every following event is the delta of a move
+     *
+     * @param id the board ID
+     * @return a possible event stream
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> events(
+                    @PathVariable final UUID id
+    ) {
+        return respond(() -> boardService.stream(id), boardScheduler);
+    }
+
+    @PreDestroy
+    public void close() {
+        boardScheduler.dispose();
+        searchScheduler.dispose();
+    }
+
+    /**
+     * This method is a helper to adapt a try of the board service to a mono, a failure becomes an error signal
+     * answered by the board exception handler, the same one of the blocking controller
+     *
+     * @param call      the board service call
+     * @param scheduler the scheduler to run the call
+     * @param <T>       the type of the result
+     * @return the result as a mono
+     */
+    private static <T> Mono<ResponseEntity<T>> respond(
+                    final Supplier<Try<T>> call,
+                    final Scheduler scheduler
+    ) {
+        return answer(() -> call.get().map(ResponseEntity::ok), scheduler);
+    }
+
+    /**
+     * This method is a helper to adapt a try of a response to a mono as the other one, for the calls answering
+     * their own status and headers
+     *
+     * @param call      the board service call mapped to its response
+     * @param scheduler the scheduler to run the call
+     * @param <T>       the type of the result
+     * @return the response as a mono
+     */
+    private static <T> Mono<ResponseEntity<T>> answer(
+                    final Supplier<Try<ResponseEntity<T>>> call,
+                    final Scheduler scheduler
+    ) {
+        return Mono.defer(() -> call.get()
+                        .<Mono<ResponseEntity<T>>>map(Mono::just)
+                        .recover(Mono::error))
+                        .subscribeOn(scheduler);
+    }
+
+    /**
+     * This method is a helper to answer a board result with the entity tag of its version, only JSON is served here
+     *
+     * @param result the board result
+     * @return the response with the result
+     */
+    private static ResponseEntity<BoardWrapper.Result> tagged(
+                    final BoardWrapper.Result result
+    ) {
+        return ResponseEntity.ok()
+                        .eTag(BoardVersions.eTagOf(result.getVersion(), false))
+                        .body(result);
+    }
+}
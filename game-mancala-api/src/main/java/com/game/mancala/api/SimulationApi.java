@@ -0,0 +1,39 @@
+package com.game.mancala.api;
+
+import javax.validation.Valid;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.game.mancala.model.SimulationWrapper;
+import com.game.mancala.simulation.SimulationService;
+
+@CrossOrigin
+@Controller
+@RequestMapping("/simulation")
+public class SimulationApi {
+
+    private final SimulationService simulationService;
+
+    public SimulationApi(final SimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    /**
+     * This method will ask to the simulation service to play many games of a board configuration
+     *
+     * @param input the simulation create object
+     * @return a simulation result
+     */
+    @PostMapping
+    public ResponseEntity<SimulationWrapper.Result> simulate(
+                    @RequestBody @Valid final SimulationWrapper.Create input
+    ) {
+        final SimulationWrapper.Result result = simulationService.simulate(input);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,37 @@
+package com.game.mancala.cluster;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class holds a power of two amount of gates shared by the boards
+ * A request served by this node passes the gate of its board as a reader, a board handed over to another node
+ * closes the gate as the writer, so it waits for the requests in flight and holds the next ones until it is gone
+ */
+class BoardGates {
+
+    private static final int STRIPES_PER_CORE = 4;
+
+    private final ReentrantReadWriteLock[] stripes;
+
+    BoardGates() {
+        final int size = Integer.highestOneBit(Math.max(1,
+                        Runtime.getRuntime().availableProcessors() * STRIPES_PER_CORE - 1)) << 1;
+        this.stripes = new ReentrantReadWriteLock[size];
+        for (int index = 0; index < size; index++)
+            stripes[index] = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * This method will pick the gate of the board spreading the hash bits to reduce collisions in the stripes
+     *
+     * @param id the board ID
+     * @return the gate of the board
+     */
+    ReentrantReadWriteLock of(
+                    final UUID id
+    ) {
+        final int hash = id.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
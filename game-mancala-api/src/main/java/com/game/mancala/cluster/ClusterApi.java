@@ -0,0 +1,64 @@
+package com.game.mancala.cluster;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.game.mancala.repository.BoardCodec;
+
+@Controller
+@Profile("!reactive")
+@ConditionalOnProperty(name = "mancala.cluster.enabled", havingValue = "true")
+@RequestMapping("/cluster")
+public class ClusterApi {
+
+    private final ClusterNode clusterNode;
+
+    public ClusterApi(
+                    final ClusterNode clusterNode
+    ) {
+        this.clusterNode = clusterNode;
+    }
+
+    /**
+     * This method will keep a board handed over by another node of the cluster, sent with the shared secret
+     * A board this node does not own is answered as misdirected and an older version of a board it holds as a
+     * conflict, a board sent again is kept once
+     *
+     * @param id     the board ID
+     * @param secret the shared secret of the cluster
+     * @param body   the board encoded by the board codec
+     * @return no content, forbidden, conflict or misdirected
+     * @throws IOException when the board can not be decoded
+     */
+    @PutMapping(value = "/boards/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> receive(
+                    @PathVariable final UUID id,
+                    @RequestHeader(value = ClusterNode.SECRET_HEADER, required = false) final String secret,
+                    @RequestBody final byte[] body
+    ) throws IOException {
+        if (!clusterNode.isAuthorized(secret))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+
+        switch (clusterNode.receive(BoardCodec.decode(id, ByteBuffer.wrap(body)))) {
+            case STALE:
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            case MISDIRECTED:
+                return ResponseEntity.status(ClusterNode.MISDIRECTED).build();
+            default:
+                return ResponseEntity.noContent().build();
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.game.mancala.cluster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.model.BoardWrapper;
+
+/**
+ * This filter serves the requests of a board held by this node and forwards the other ones to the node picked by
+ * the cluster node, copying the request and streaming back the response as it comes, as the events of a board
+ * A forwarded request carries the amount of the nodes it went through and the shared secret, so it is never
+ * forwarded in a loop and a client can not send the amount itself. A read of many boards is served by the single
+ * node holding them, the boards of several nodes are answered as misdirected. A
+ * request of a board being handed over, or in doubt as the answer of its hand over was lost, is answered as
+ * unavailable so the client tries again
+ * A computer move waits for the owner as long as its search may take. A request failing before it reached the owner is
+ * answered as unavailable, while one failing after it did may have been played there and is answered as a timeout,
+ * so the client reads the board again instead of playing the move twice
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "mancala.cluster.enabled", havingValue = "true")
+public class ClusterForwardingFilter extends OncePerRequestFilter {
+
+    private static final Pattern BOARD_PATH = Pattern.compile("^/board/([0-9a-fA-F-]{36})(/.*)?$");
+    private static final String BOARDS_PATH = "/board";
+    private static final String MISDIRECTED_REASON = "Misdirected Request";
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList("connection", "host",
+                    "content-length", "transfer-encoding", "keep-alive", "upgrade", "te", "trailer",
+                    ClusterNode.HOPS_HEADER.toLowerCase(), ClusterNode.SECRET_HEADER.toLowerCase()));
+    private static final int BUFFER_BYTES = 8192;
+    private static final String DEFAULT_SEARCH_TIME_MS = "1000";
+
+    private final ClusterNode clusterNode;
+    private final ObjectMapper objectMapper;
+    private final long maxSearchTimeMs;
+
+    public ClusterForwardingFilter(
+                    final ClusterNode clusterNode,
+                    final ObjectMapper objectMapper,
+                    @Value("${mancala.ai.max-time-ms:10000}") final long maxSearchTimeMs
+    ) {
+        this.clusterNode = clusterNode;
+        this.objectMapper = objectMapper;
+        this.maxSearchTimeMs = maxSearchTimeMs;
+    }
+
+    @Override
+    protected void doFilterInternal(
+                    final HttpServletRequest request,
+                    final HttpServletResponse response,
+                    final FilterChain chain
+    ) throws ServletException, IOException {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        final Matcher matcher = BOARD_PATH.matcher(path);
+        final List<UUID> ids = matcher.matches() ? null : idsOf(path, request);
+        if (!matcher.matches() && ids == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final int hops = hopsOf(request);
+        if (hops < 0) {
+            reject(response, HttpStatus.BAD_REQUEST, "cluster.hops");
+            return;
+        }
+        if (ids != null) {
+            filterAll(ids, request, response, chain, hops);
+            return;
+        }
+
+        final UUID id = UUID.fromString(matcher.group(1));
+        final String target;
+        final ReentrantReadWriteLock.ReadLock gate = clusterNode.gateOf(id).readLock();
+        gate.lock();
+        try {
+            if (clusterNode.isMoving(id)) {
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, "cluster.board.moving");
+                return;
+            }
+            target = clusterNode.forwardTarget(id, hops);
+            if (target == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+        } finally {
+            gate.unlock();
+        }
+
+        forward(target, request, response, hops + 1);
+    }
+
+    /**
+     * This method will serve a read of many boards here when this node holds all of them, or forward it when a
+     * single other node does. The boards of several nodes are answered as misdirected, so a client never takes the
+     * boards of one node for all of them and reads the boards of each node on its own
+     * The gates of the boards are held while they are served here, so none of them is handed over meanwhile
+     *
+     * @param ids      the board IDs
+     * @param request  the request
+     * @param response the response
+     * @param chain    the filter chain
+     * @param hops     the amount of the nodes the request went through
+     */
+    private void filterAll(
+                    final List<UUID> ids,
+                    final HttpServletRequest request,
+                    final HttpServletResponse response,
+                    final FilterChain chain,
+                    final int hops
+    ) throws ServletException, IOException {
+        final List<ReentrantReadWriteLock.ReadLock> gates = new ArrayList<>(ids.size());
+        final Set<String> targets = new HashSet<>();
+        boolean held = false;
+        try {
+            for (final UUID id : ids) {
+                final ReentrantReadWriteLock.ReadLock gate = clusterNode.gateOf(id).readLock();
+                gate.lock();
+                gates.add(gate);
+                if (clusterNode.isMoving(id)) {
+                    reject(response, HttpStatus.SERVICE_UNAVAILABLE, "cluster.board.moving");
+                    return;
+                }
+
+                final String target = clusterNode.forwardTarget(id, hops);
+                if (target == null)
+                    held = true;
+                else
+                    targets.add(target);
+            }
+            if (targets.isEmpty()) {
+                chain.doFilter(request, response);
+                return;
+            }
+        } finally {
+            gates.forEach(ReentrantReadWriteLock.ReadLock::unlock);
+        }
+
+        if (held || targets.size() > 1)
+            reject(response, ClusterNode.MISDIRECTED, MISDIRECTED_REASON, "cluster.boards.nodes");
+        else
+            forward(targets.iterator().next(), request, response, hops + 1);
+    }
+
+    /**
+     * This method will read the IDs of a read of many boards, the request is served as any other one when its IDs
+     * are not valid, so it is answered as a bad request there
+     *
+     * @param path    the request path
+     * @param request the request
+     * @return the board IDs or null when it is not a valid read of many boards
+     */
+    private static List<UUID> idsOf(
+                    final String path,
+                    final HttpServletRequest request
+    ) {
+        if (!BOARDS_PATH.equals(path) || !"GET".equals(request.getMethod()))
+            return null;
+        final String[] values = request.getParameterValues("ids");
+        if (values == null)
+            return null;
+
+        final List<UUID> ids = new ArrayList<>();
+        try {
+            for (final String value : values)
+                for (final String id : value.split(","))
+                    ids.add(UUID.fromString(id.trim()));
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+        return ids;
+    }
+
+    /**
+     * This method will read the amount of the nodes a request went through, only sent by the other nodes with the
+     * shared secret, so a client never skips the forwarding nor raises the limit of the hops
+     *
+     * @param request the request
+     * @return the amount of the hops, zero for a client and -1 for a value that is not a natural number
+     */
+    private int hopsOf(
+                    final HttpServletRequest request
+    ) {
+        final String header = request.getHeader(ClusterNode.HOPS_HEADER);
+        if (header == null)
+            return 0;
+
+        final int hops;
+        try {
+            hops = Integer.parseInt(header);
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+        if (hops < 0)
+            return -1;
+        return clusterNode.isAuthorized(request.getHeader(ClusterNode.SECRET_HEADER)) ? hops : 0;
+    }
+
+    private void forward(
+                    final String url,
+                    final HttpServletRequest request,
+                    final HttpServletResponse response,
+                    final int hops
+    ) throws IOException {
+        final String query = request.getQueryString();
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url + request.getRequestURI()
+                        + (query == null ? "" : "?" + query)).openConnection();
+        try {
+            connection.setRequestMethod(request.getMethod());
+            connection.setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(clusterNode.getTimeoutMs());
+            connection.setReadTimeout(readTimeoutOf(request));
+            for (final String name : Collections.list(request.getHeaderNames())) {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase()))
+                    connection.setRequestProperty(name, request.getHeader(name));
+            }
+            connection.setRequestProperty(ClusterNode.HOPS_HEADER, String.valueOf(hops));
+            connection.setRequestProperty(ClusterNode.SECRET_HEADER, clusterNode.getSecret());
+
+            boolean delivered = false;
+            final int status;
+            try {
+                if ("POST".equals(request.getMethod()) || "PUT".equals(request.getMethod())) {
+                    connection.setDoOutput(true);
+                    try (OutputStream output = connection.getOutputStream()) {
+                        copy(request.getInputStream(), output, false);
+                    }
+                } else {
+                    connection.connect();
+                }
+                delivered = true;
+                status = connection.getResponseCode();
+            } catch (final IOException e) {
+                if (delivered) {
+                    logger.warn("cluster node " + url + " did not answer in time");
+                    reject(response, HttpStatus.GATEWAY_TIMEOUT, "cluster.node.timeout");
+                } else {
+                    logger.warn("cluster node " + url + " is unavailable");
+                    reject(response, HttpStatus.SERVICE_UNAVAILABLE, "cluster.node.unavailable");
+                }
+                return;
+            }
+
+            response.setStatus(status);
+            for (final Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+                if (header.getKey() == null || HOP_BY_HOP_HEADERS.contains(header.getKey().toLowerCase()))
+                    continue;
+                for (final String value : header.getValue())
+                    response.addHeader(header.getKey(), value);
+            }
+            final InputStream body = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (body != null) {
+                try (InputStream input = body) {
+                    copy(input, response.getOutputStream(), true);
+                }
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * This method will pick how long to wait for the owner of a board, the events are streamed for as long as the
+     * client listens and a computer move is answered once its search ended
+     *
+     * @param request the forwarded request
+     * @return the read timeout in milliseconds, zero to wait forever
+     */
+    private int readTimeoutOf(
+                    final HttpServletRequest request
+    ) {
+        final String uri = request.getRequestURI();
+        if (uri.endsWith("/events"))
+            return 0;
+        if (!uri.endsWith("/ai-move"))
+            return clusterNode.getTimeoutMs();
+
+        final String timeMs = request.getParameter("timeMs");
+        try {
+            final long searchTimeMs = Long.parseLong(timeMs == null ? DEFAULT_SEARCH_TIME_MS : timeMs);
+            return (int) Math.min(Math.max(searchTimeMs, 0), maxSearchTimeMs) + clusterNode.getTimeoutMs();
+        } catch (final NumberFormatException e) {
+            return clusterNode.getTimeoutMs();
+        }
+    }
+
+    /**
+     * This method will copy a stream, flushing each read when the response is streamed as it comes
+     */
+    private static void copy(
+                    final InputStream input,
+                    final OutputStream output,
+                    final boolean flush
+    ) throws IOException {
+        final byte[] buffer = new byte[BUFFER_BYTES];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+            if (flush)
+                output.flush();
+        }
+    }
+
+    private void reject(
+                    final HttpServletResponse response,
+                    final HttpStatus status,
+                    final String message
+    ) throws IOException {
+        reject(response, status.value(), status.getReasonPhrase(), message);
+    }
+
+    private void reject(
+                    final HttpServletResponse response,
+                    final int status,
+                    final String error,
+                    final String message
+    ) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), BoardWrapper.Rejection.builder()
+                        .status(status)
+                        .error(error)
+                        .message(message)
+                        .build());
+    }
+}
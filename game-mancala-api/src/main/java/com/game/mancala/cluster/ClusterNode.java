@@ -0,0 +1,440 @@
+package com.game.mancala.cluster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.game.mancala.model.Board;
+import com.game.mancala.monad.Try;
+import com.game.mancala.repository.BoardCodec;
+import com.game.mancala.repository.BoardRepository;
+import com.game.mancala.repository.InMemoryBoardRepository;
+import com.game.mancala.service.BoardIdGenerator;
+
+/**
+ * This class is the node of this instance in a cluster of instances sharing the boards through a hash ring
+ * The members of the ring are the lines {@code name=url} of the file {@code mancala.cluster.members-file}, read
+ * again when it changes. A node only creates the IDs of the boards it owns and hands over to their new owner the
+ * boards it no longer owns, so a node joining or leaving the ring only moves the boards of its points
+ * A starting node takes the ring of the other members as the previous one, as their boards may still be held there
+ * A board handed over is marked as moving behind its closed gate and sent with the gate open again, so its requests
+ * are refused without waiting for the new owner until it acknowledged the board, and forwarded to it after. A board
+ * whose answer was lost is in doubt, its requests are refused until it is sent again and the new owner keeps it or
+ * already holds a newer version of it
+ * The boards are kept in memory, the journal and the tiered storage are not supported by the cluster
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "mancala.cluster.enabled", havingValue = "true")
+public class ClusterNode implements BoardIdGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterNode.class);
+
+    static final String HOPS_HEADER = "X-Mancala-Hops";
+    static final String SECRET_HEADER = "X-Mancala-Cluster-Secret";
+    /**
+     * A request may come back from the new owner of a board before it kept the board, and reach it again once kept
+     */
+    static final int MAX_HOPS = 3;
+    static final int MISDIRECTED = 421;
+
+    private final String node;
+    private final Path membersFile;
+    private final int timeoutMs;
+    private final byte[] secret;
+    private final InMemoryBoardRepository boards;
+    private final BoardGates gates;
+    private final Map<UUID, String> inDoubt;
+    private final Set<UUID> moving;
+    private final ScheduledExecutorService refresher;
+
+    private volatile HashRing ring;
+    private volatile HashRing previousRing;
+    private FileTime membersModified;
+    private boolean misplaced;
+
+    public ClusterNode(
+                    final BoardRepository boardRepository,
+                    final InMemoryBoardRepository boards,
+                    @Value("${mancala.cluster.node}") final String node,
+                    @Value("${mancala.cluster.members-file}") final String membersFile,
+                    @Value("${mancala.cluster.refresh-ms:1000}") final long refreshMs,
+                    @Value("${mancala.cluster.timeout-ms:5000}") final int timeoutMs,
+                    @Value("${mancala.cluster.secret:}") final String secret
+    ) throws IOException {
+        if (boardRepository != boards)
+            throw new IllegalStateException("the cluster keeps the boards in memory, "
+                            + "disable mancala.journal.enabled, mancala.storage.tiered.enabled and "
+                            + "mancala.storage.off-heap.enabled");
+        if (secret.isEmpty())
+            throw new IllegalStateException("the nodes of the cluster hand over the boards with a shared secret, "
+                            + "set mancala.cluster.secret");
+
+        this.node = node;
+        this.membersFile = Paths.get(membersFile);
+        this.timeoutMs = timeoutMs;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.boards = boards;
+        this.gates = new BoardGates();
+        this.inDoubt = new ConcurrentHashMap<>();
+        this.moving = ConcurrentHashMap.newKeySet();
+        this.membersModified = Files.getLastModifiedTime(this.membersFile);
+        final Map<String, String> members = readMembers(this.membersFile);
+        this.ring = new HashRing(members);
+        if (ring.urlOf(node) == null)
+            throw new IllegalStateException("node " + node + " is not a member of " + membersFile);
+
+        final Map<String, String> others = new LinkedHashMap<>(members);
+        others.remove(node);
+        this.previousRing = others.isEmpty() ? null : new HashRing(others);
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "cluster-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        LOGGER.info("cluster node {} joined the ring of {}", node, ring.getMembers().keySet());
+    }
+
+    /**
+     * This method will read the members of the ring, one {@code name=url} line per node
+     *
+     * @param membersFile the members file
+     * @return the URL of each node by its name
+     * @throws IOException when the file can not be read
+     */
+    static Map<String, String> readMembers(
+                    final Path membersFile
+    ) throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(membersFile)) {
+            properties.load(input);
+        }
+
+        final Map<String, String> members = new LinkedHashMap<>();
+        for (final String name : properties.stringPropertyNames())
+            members.put(name, properties.getProperty(name).trim().replaceAll("/+$", ""));
+        return members;
+    }
+
+    /**
+     * This method will create a random ID owned by this node, trying one ID per node of the ring on average
+     * A node out of the ring creates any ID, its boards are handed over on the next refresh
+     *
+     * @return the board ID
+     */
+    @Override
+    public UUID next() {
+        final HashRing current = ring;
+        UUID id = UUID.randomUUID();
+        if (current.urlOf(node) == null)
+            return id;
+
+        while (!node.equals(current.ownerOf(id)))
+            id = UUID.randomUUID();
+        return id;
+    }
+
+    /**
+     * This method will pick the node to forward a request of a board to
+     * A board held by this node is served here, unless it is being handed over and refused by the filter
+     * Otherwise the request goes to the owner of the board or, when this node is the owner, to the previous owner
+     * still holding it
+     *
+     * @param id   the board ID
+     * @param hops the amount of the nodes the request went through
+     * @return the URL of the node or null to serve the request here
+     */
+    String forwardTarget(
+                    final UUID id,
+                    final int hops
+    ) {
+        if (hops >= MAX_HOPS || boards.findOne(id).isPresent())
+            return null;
+
+        final HashRing current = ring;
+        final String owner = current.ownerOf(id);
+        if (!node.equals(owner))
+            return current.urlOf(owner);
+
+        final HashRing previous = previousRing;
+        if (previous == null || node.equals(previous.ownerOf(id)))
+            return null;
+        return previous.urlOf(previous.ownerOf(id));
+    }
+
+    /**
+     * This method will check if a board held by this node is being sent to another node or may already be kept by
+     * it, as the answer of its hand over was lost, its requests are not served until it is acknowledged or sent again
+     * The caller holds the gate of the board
+     *
+     * @param id the board ID
+     * @return true if the board is moving or in doubt
+     */
+    boolean isMoving(
+                    final UUID id
+    ) {
+        return moving.contains(id) || inDoubt.containsKey(id);
+    }
+
+    /**
+     * This method will check the secret sent by another node of the cluster in constant time
+     *
+     * @param candidate the secret of the request, possibly null
+     * @return true if the secret is the shared one
+     */
+    boolean isAuthorized(
+                    final String candidate
+    ) {
+        return candidate != null && MessageDigest.isEqual(secret, candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method will keep a board handed over by another node, closing its gate while it is replaced
+     * A board this node holds is only replaced by a newer version of it, so a board sent again after a lost answer
+     * is kept once and a stale copy never overwrites the moves played here. A board this node does not hold is only
+     * kept when this node owns it
+     *
+     * @param board the board handed over
+     * @return the receipt of the board
+     */
+    Receipt receive(
+                    final Board board
+    ) {
+        final UUID id = board.getId();
+        final ReentrantReadWriteLock.WriteLock gate = gates.of(id).writeLock();
+        gate.lock();
+        try {
+            final Board held = boards.findOne(id).orElse(null);
+            if (held == null && !node.equals(ring.ownerOf(id)))
+                return Receipt.MISDIRECTED;
+            if (held != null && board.getVersion() < held.getVersion())
+                return Receipt.STALE;
+            if (held != null && board.getVersion() == held.getVersion() && !inDoubt.containsKey(id))
+                return Receipt.KEPT;
+
+            boards.save(board);
+            inDoubt.remove(id);
+            return Receipt.KEPT;
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    /**
+     * This method is a helper to provide the gate of a board, passed by the requests served by this node
+     *
+     * @param id the board ID
+     * @return the gate of the board
+     */
+    ReentrantReadWriteLock gateOf(
+                    final UUID id
+    ) {
+        return gates.of(id);
+    }
+
+    /**
+     * This method will read the members file again when it changed and hand over the boards of other nodes
+     * A board failing to be handed over is tried again on the next refresh
+     *
+     * @return the amount of the boards handed over
+     * @throws IOException when the members file can not be read
+     */
+    synchronized int refresh() throws IOException {
+        final FileTime modified = Files.getLastModifiedTime(membersFile);
+        if (!modified.equals(membersModified)) {
+            membersModified = modified;
+            final Map<String, String> members = readMembers(membersFile);
+            if (!members.isEmpty() && !members.equals(ring.getMembers())) {
+                previousRing = ring;
+                ring = new HashRing(members);
+                misplaced = true;
+                LOGGER.info("cluster node {} moved to the ring of {}", node, ring.getMembers().keySet());
+            }
+        }
+        if (!misplaced)
+            return 0;
+
+        int handedOver = 0;
+        int failed = 0;
+        for (final UUID id : boards.ids()) {
+            final String owner = ring.ownerOf(id);
+            if (node.equals(owner) && !inDoubt.containsKey(id))
+                continue;
+            if (handOver(id, owner))
+                handedOver++;
+            else
+                failed++;
+        }
+        inDoubt.keySet().removeIf(id -> !boards.findOne(id).isPresent());
+        if (failed > 0)
+            LOGGER.warn("cluster node {} could not hand over {} boards, trying again", node, failed);
+        misplaced = failed > 0;
+        return handedOver;
+    }
+
+    private void refreshQuietly() {
+        try {
+            final int handedOver = refresh();
+            if (handedOver > 0)
+                LOGGER.info("cluster node {} handed over {} boards", node, handedOver);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.error("cluster refresh failed", e);
+        }
+    }
+
+    /**
+     * This method will send a board to its owner and remove it once kept there
+     * The gate is closed to mark the board as moving, so the requests in flight end before and the next ones are
+     * refused, and closed again once answered: a kept board is gone before the gate opens, so the next requests are
+     * forwarded to its owner, and a refused one is served here again until the next try. The board is sent with the
+     * gate open, so no request waits for the other node
+     * A board whose answer was lost is in doubt and sent again to the same node, until it keeps it or answers that
+     * it holds a newer version of it
+     *
+     * @param id    the board ID
+     * @param owner the current owner of the board
+     * @return true if the board was handed over
+     */
+    private boolean handOver(
+                    final UUID id,
+                    final String owner
+    ) {
+        final String doubtful = inDoubt.get(id);
+        if (doubtful == null && node.equals(owner))
+            return true;
+
+        final String receiver = doubtful == null ? ring.urlOf(owner) : doubtful;
+        final ReentrantReadWriteLock.WriteLock gate = gates.of(id).writeLock();
+        final Try<byte[]> encoded;
+        gate.lock();
+        try {
+            encoded = boards.withLock(id, BoardCodec::encode);
+            if (!encoded.isSuccess()) {
+                inDoubt.remove(id);
+                return true;
+            }
+            moving.add(id);
+        } finally {
+            gate.unlock();
+        }
+
+        int status = 0;
+        IOException failure = null;
+        try {
+            status = send(receiver + "/cluster/boards/" + id, encoded.getUnchecked());
+        } catch (final IOException e) {
+            failure = e;
+        }
+
+        gate.lock();
+        try {
+            moving.remove(id);
+            if (failure != null) {
+                if (!(failure instanceof ConnectException))
+                    inDoubt.put(id, receiver);
+                LOGGER.debug("board {} could not be handed over to {}", id, receiver, failure);
+                return false;
+            }
+            if (status == MISDIRECTED) {
+                inDoubt.remove(id);
+                return false;
+            }
+            if (status / 100 != 2 && status != HttpURLConnection.HTTP_CONFLICT) {
+                LOGGER.debug("board {} could not be handed over to {}, it answered {}", id, receiver, status);
+                return false;
+            }
+
+            inDoubt.remove(id);
+            boards.remove(id, board -> board);
+            return true;
+        } finally {
+            gate.unlock();
+        }
+    }
+
+    private int send(
+                    final String url,
+                    final byte[] body
+    ) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestMethod("PUT");
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            connection.setRequestProperty(SECRET_HEADER, getSecret());
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(body);
+            }
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * This method is a helper to provide the connect and read timeout of the requests to the other nodes
+     *
+     * @return the timeout in milliseconds
+     */
+    int getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * This method is a helper to provide the shared secret, sent to the other nodes with the boards handed over and
+     * the requests forwarded
+     *
+     * @return the shared secret
+     */
+    String getSecret() {
+        return new String(secret, StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * This enum holds the answers of a node to a board handed over to it
+     */
+    enum Receipt {
+        KEPT,
+        STALE,
+        MISDIRECTED
+    }
+}
@@ -0,0 +1,107 @@
+package com.game.mancala.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * This class places the nodes of the cluster on a ring of 64 bits hashes, each node on many points
+ * A board is owned by the node of the first point at or after the hash of its ID, so a node joining the ring only
+ * takes the boards falling right before its points and the other boards keep their owner
+ */
+public final class HashRing {
+
+    static final int POINTS_PER_NODE = 128;
+
+    private final Map<String, String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * This constructor will place the points of each member on the ring
+     *
+     * @param members the URL of each node by its name
+     */
+    public HashRing(
+                    final Map<String, String> members
+    ) {
+        if (members.isEmpty())
+            throw new IllegalArgumentException("a hash ring needs at least one node");
+
+        final TreeMap<Long, String> ring = new TreeMap<>();
+        for (final String node : members.keySet()) {
+            for (int point = 0; point < POINTS_PER_NODE; point++)
+                ring.merge(hash(node + "#" + point), node, (first, second) -> first.compareTo(second) < 0
+                                ? first
+                                : second);
+        }
+
+        this.members = Collections.unmodifiableMap(new TreeMap<>(members));
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int index = 0;
+        for (final Map.Entry<Long, String> entry : ring.entrySet()) {
+            points[index] = entry.getKey();
+            owners[index++] = entry.getValue();
+        }
+    }
+
+    /**
+     * This method will find the node owning a board
+     *
+     * @param id the board ID
+     * @return the name of the owner node
+     */
+    public String ownerOf(
+                    final UUID id
+    ) {
+        final int index = Arrays.binarySearch(points, mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits()));
+        final int point = index >= 0 ? index : -index - 1;
+        return owners[point == points.length ? 0 : point];
+    }
+
+    /**
+     * This method is a helper to provide the URL of a node
+     *
+     * @param node the node name
+     * @return the URL of the node or null when it is not a member
+     */
+    public String urlOf(
+                    final String node
+    ) {
+        return members.get(node);
+    }
+
+    /**
+     * This method is a helper to provide the members of the ring
+     *
+     * @return the URL of each node by its name
+     */
+    public Map<String, String> getMembers() {
+        return members;
+    }
+
+    private static long hash(
+                    final String value
+    ) {
+        long hash = 0xcbf29ce484222325L;
+        for (final byte character : value.getBytes(StandardCharsets.UTF_8))
+            hash = (hash ^ (character & 0xFF)) * 0x100000001b3L;
+        return mix(hash);
+    }
+
+    /**
+     * This method will spread the bits of a hash with the finalizer of MurmurHash3
+     */
+    private static long mix(
+                    final long value
+    ) {
+        long hash = value;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
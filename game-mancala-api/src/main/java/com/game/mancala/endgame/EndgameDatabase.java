@@ -0,0 +1,131 @@
+package com.game.mancala.endgame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.game.mancala.model.BoardRules;
+import com.game.mancala.model.PlayerKind;
+
+@Service
+public class EndgameDatabase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EndgameDatabase.class);
+
+    public static final int NO_MOVE = -1;
+
+    private final Map<Long, EndgameTable> tables;
+
+    /**
+     * This constructor will map every endgame table of the directory, an empty directory disables the database
+     *
+     * @param directory the directory of the tables generated by the endgame generator
+     */
+    public EndgameDatabase(
+                    @Value("${mancala.endgame.directory:}") final String directory
+    ) {
+        this.tables = new HashMap<>();
+        if (directory.isEmpty() || !Files.isDirectory(Paths.get(directory)))
+            return;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), "endgame-*.db")) {
+            for (final Path file : files) {
+                final EndgameTable table = EndgameTable.map(file);
+                tables.put(key(table.getBoardSize() + 1, table.getTotalStones()), table);
+                LOGGER.info("endgame table {} mapped", file);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method will look for the winner of the position with perfect play
+     *
+     * @param pits               the pits of the board
+     * @param boardSizePerPlayer the size of the player board
+     * @param player             the player to move
+     * @return the winner, empty when there is no table for the board or the position is a draw
+     */
+    public Optional<PlayerKind> winner(
+                    final int[] pits,
+                    final int boardSizePerPlayer,
+                    final PlayerKind player
+    ) {
+        final EndgameTable table = tables.get(key(boardSizePerPlayer, sum(pits)));
+        if (table == null)
+            return Optional.empty();
+
+        final int value = table.value(pits, player);
+        return value == EndgameTable.UNKNOWN || value == EndgameTable.DRAW
+                        ? Optional.empty()
+                        : Optional.of(PlayerKind.of(value - 1));
+    }
+
+    /**
+     * This method will look for a move keeping the player as the winner with perfect play
+     *
+     * @param pits               the pits of the board
+     * @param boardSizePerPlayer the size of the player board
+     * @param player             the player to move
+     * @return the winning move, or NO_MOVE when there is no table for the board or the position is not won
+     */
+    public int winningMove(
+                    final int[] pits,
+                    final int boardSizePerPlayer,
+                    final PlayerKind player
+    ) {
+        final EndgameTable table = tables.get(key(boardSizePerPlayer, sum(pits)));
+        if (table == null || table.value(pits, player) != player.getIndex() + 1)
+            return NO_MOVE;
+
+        final int[] child = new int[pits.length];
+        final int start = boardSizePerPlayer * player.getIndex();
+        for (int target = start + 1; target < start + boardSizePerPlayer; target++) {
+            if (pits[target] == 0)
+                continue;
+
+            System.arraycopy(pits, 0, child, 0, pits.length);
+            final int lastIndex = BoardRules.moveStones(child, player, boardSizePerPlayer, target);
+            final int value;
+            if (BoardRules.isMatchEnded(child, boardSizePerPlayer)) {
+                value = BoardRules.collectAllRemainStones(child, boardSizePerPlayer).getIndex() + 1;
+            } else {
+                final PlayerKind next = BoardRules.doNotHaveOtherRound(player, lastIndex, boardSizePerPlayer)
+                                ? PlayerKind.nextPlayer(player)
+                                : player;
+                value = table.value(child, next);
+            }
+            if (value == player.getIndex() + 1)
+                return target;
+        }
+        return NO_MOVE;
+    }
+
+    private static long key(
+                    final int boardSizePerPlayer,
+                    final int totalStones
+    ) {
+        return (long) boardSizePerPlayer << 32 | totalStones;
+    }
+
+    private static int sum(
+                    final int[] pits
+    ) {
+        int stones = 0;
+        for (final int pit : pits)
+            stones += pit;
+        return stones;
+    }
+}
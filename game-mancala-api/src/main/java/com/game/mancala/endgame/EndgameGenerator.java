@@ -0,0 +1,209 @@
+package com.game.mancala.endgame;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+import com.game.mancala.model.BoardRules;
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This class solves every position of a board configuration offline and writes its endgame table
+ * The values are found by a parallel fixed point: a position is won when one move reaches a won position and lost
+ * when all moves reach lost positions, what is still unknown when nothing changes can be played forever (draw)
+ */
+public final class EndgameGenerator {
+
+    static final long MAX_POSITIONS = 1L << 26;
+
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private EndgameGenerator() {
+    }
+
+    /**
+     * This method will generate the table of the configuration given by the arguments
+     * Usage: EndgameGenerator boardSize stonesPerPit outputDirectory
+     *
+     * @param args the board size, the stones per pit and the output directory
+     * @throws IOException when the table can not be written
+     */
+    public static void main(
+                    final String[] args
+    ) throws IOException {
+        if (args.length != 3)
+            throw new IllegalArgumentException("usage: EndgameGenerator boardSize stonesPerPit outputDirectory");
+
+        final long start = System.nanoTime();
+        final Path file = generate(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Paths.get(args[2]));
+        System.out.printf("%s written in %d ms%n", file, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * This method will solve the configuration and write it to the directory
+     *
+     * @param boardSize    the amount of pits per player
+     * @param stonesPerPit the initial stones per pit
+     * @param directory    the output directory
+     * @return the written file
+     * @throws IOException when the table can not be written
+     */
+    public static Path generate(
+                    final int boardSize,
+                    final int stonesPerPit,
+                    final Path directory
+    ) throws IOException {
+        final int totalStones = boardSize * stonesPerPit * PlayerKind.count();
+        final byte[] values = solve(boardSize, totalStones);
+
+        Files.createDirectories(directory);
+        final Path file = directory.resolve(fileName(boardSize, totalStones));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            EndgameTable.write(channel, boardSize, totalStones, values);
+        }
+        return file;
+    }
+
+    /**
+     * This method will solve every position holding the stones, indexed by rank * players + player to move
+     *
+     * @param boardSize   the amount of pits per player
+     * @param totalStones the stones of the board
+     * @return the winner index plus one or DRAW for each position
+     */
+    static byte[] solve(
+                    final int boardSize,
+                    final int totalStones
+    ) {
+        final int boardSizePerPlayer = boardSize + 1;
+        final PositionIndex index = new PositionIndex(boardSizePerPlayer * PlayerKind.count(), totalStones);
+        final long positions = index.count() * PlayerKind.count();
+        if (positions > MAX_POSITIONS)
+            throw new IllegalArgumentException("too many positions to solve: " + positions);
+
+        final byte[] values = new byte[(int) positions];
+        final int chunks = (int) ((index.count() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+        boolean changed = true;
+        while (changed) {
+            changed = IntStream.range(0, chunks).parallel()
+                            .map(chunk -> solveChunk(index, values, boardSizePerPlayer, chunk))
+                            .sum() > 0;
+        }
+
+        for (int position = 0; position < values.length; position++) {
+            if (values[position] == EndgameTable.UNKNOWN)
+                values[position] = EndgameTable.DRAW;
+        }
+        return values;
+    }
+
+    static String fileName(
+                    final int boardSize,
+                    final int totalStones
+    ) {
+        return "endgame-" + boardSize + "-" + totalStones + ".db";
+    }
+
+    /**
+     * This method will try to solve the unknown positions of one chunk of ranks
+     * Every position is only written by the thread owning its chunk, other threads may read a stale unknown value,
+     * which only delays the fixed point to the next pass
+     *
+     * @param index              the position index
+     * @param values             the values of all positions
+     * @param boardSizePerPlayer the size of the player board
+     * @param chunk              the chunk number
+     * @return the amount of solved positions
+     */
+    private static int solveChunk(
+                    final PositionIndex index,
+                    final byte[] values,
+                    final int boardSizePerPlayer,
+                    final int chunk
+    ) {
+        final int[] pits = new int[boardSizePerPlayer * PlayerKind.count()];
+        final int[] child = new int[pits.length];
+        final long first = (long) chunk * CHUNK_SIZE;
+        final long last = Math.min(index.count(), first + CHUNK_SIZE);
+
+        int solved = 0;
+        index.unrank(first, pits);
+        for (long rank = first; rank < last; rank++) {
+            for (int player = 0; player < PlayerKind.count(); player++) {
+                final int position = (int) (rank * PlayerKind.count() + player);
+                if (values[position] == EndgameTable.UNKNOWN) {
+                    values[position] = (byte) solvePosition(index, values, pits, child, boardSizePerPlayer,
+                                    PlayerKind.of(player));
+                    if (values[position] != EndgameTable.UNKNOWN)
+                        solved++;
+                }
+            }
+            index.next(pits);
+        }
+        return solved;
+    }
+
+    /**
+     * This method will look at the children of the position with the values known so far
+     *
+     * @param index              the position index
+     * @param values             the values of all positions
+     * @param pits               the pits of the position
+     * @param child              the array receiving the pits of each child
+     * @param boardSizePerPlayer the size of the player board
+     * @param player             the player to move
+     * @return the winner index plus one, or UNKNOWN
+     */
+    private static int solvePosition(
+                    final PositionIndex index,
+                    final byte[] values,
+                    final int[] pits,
+                    final int[] child,
+                    final int boardSizePerPlayer,
+                    final PlayerKind player
+    ) {
+        if (BoardRules.isMatchEnded(pits, boardSizePerPlayer))
+            return terminalValue(pits, child, boardSizePerPlayer);
+
+        final int won = player.getIndex() + 1;
+        final int start = boardSizePerPlayer * player.getIndex();
+        boolean allLost = true;
+        for (int target = start + 1; target < start + boardSizePerPlayer; target++) {
+            if (pits[target] == 0)
+                continue;
+
+            System.arraycopy(pits, 0, child, 0, pits.length);
+            final int lastIndex = BoardRules.moveStones(child, player, boardSizePerPlayer, target);
+            final int value;
+            if (BoardRules.isMatchEnded(child, boardSizePerPlayer)) {
+                value = BoardRules.collectAllRemainStones(child, boardSizePerPlayer).getIndex() + 1;
+            } else {
+                final PlayerKind next = BoardRules.doNotHaveOtherRound(player, lastIndex, boardSizePerPlayer)
+                                ? PlayerKind.nextPlayer(player)
+                                : player;
+                value = values[(int) (index.rank(child) * PlayerKind.count() + next.getIndex())];
+            }
+
+            if (value == won)
+                return won;
+            if (value == EndgameTable.UNKNOWN)
+                allLost = false;
+        }
+        return allLost ? PlayerKind.nextPlayer(player).getIndex() + 1 : EndgameTable.UNKNOWN;
+    }
+
+    private static int terminalValue(
+                    final int[] pits,
+                    final int[] copy,
+                    final int boardSizePerPlayer
+    ) {
+        System.arraycopy(pits, 0, copy, 0, pits.length);
+        return BoardRules.collectAllRemainStones(copy, boardSizePerPlayer).getIndex() + 1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.game.mancala.endgame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This class reads the values of a solved board configuration straight from a memory mapped file
+ * The file is a 32 bytes header followed by 2 bits per position, indexed by rank * players + player to move
+ */
+class EndgameTable {
+
+    static final int MAGIC = 0x4D4E4442;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    static final int UNKNOWN = 0;
+    static final int DRAW = 3;
+
+    private final int boardSize;
+    private final int totalStones;
+    private final PositionIndex index;
+    private final ByteBuffer values;
+
+    private EndgameTable(
+                    final int boardSize,
+                    final int totalStones,
+                    final ByteBuffer values
+    ) {
+        this.boardSize = boardSize;
+        this.totalStones = totalStones;
+        this.index = new PositionIndex((boardSize + 1) * PlayerKind.count(), totalStones);
+        this.values = values;
+    }
+
+    /**
+     * This method will map the file without copying its values to the heap
+     *
+     * @param file the table file
+     * @return the table
+     * @throws IOException when the file can not be read or it is not a table
+     */
+    static EndgameTable map(
+                    final Path file
+    ) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+                throw new IOException("not an endgame table: " + file);
+
+            final EndgameTable table = new EndgameTable(buffer.getInt(8), buffer.getInt(12), buffer);
+            if (buffer.getLong(16) != table.index.count() * PlayerKind.count())
+                throw new IOException("corrupted endgame table: " + file);
+            return table;
+        }
+    }
+
+    /**
+     * This method will write the header and the values of a solved configuration
+     *
+     * @param channel     the channel of the file
+     * @param boardSize   the size of the player board
+     * @param totalStones the stones of the board
+     * @param values      one value per position
+     * @throws IOException when the file can not be written
+     */
+    static void write(
+                    final FileChannel channel,
+                    final int boardSize,
+                    final int totalStones,
+                    final byte[] values
+    ) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(boardSize).putInt(totalStones).putLong(values.length);
+        header.rewind();
+        channel.write(header);
+
+        final ByteBuffer packed = ByteBuffer.allocate(64 * 1024);
+        for (int position = 0; position < values.length; position += 4) {
+            int value = 0;
+            for (int offset = 0; offset < 4 && position + offset < values.length; offset++)
+                value |= values[position + offset] << (offset * 2);
+            packed.put((byte) value);
+            if (!packed.hasRemaining()) {
+                packed.flip();
+                channel.write(packed);
+                packed.clear();
+            }
+        }
+        packed.flip();
+        channel.write(packed);
+    }
+
+    /**
+     * This method will read the value of the position
+     *
+     * @param pits   the pits of the position, holding the stones of the table
+     * @param player the player to move
+     * @return the winner index plus one, DRAW or UNKNOWN
+     */
+    int value(
+                    final int[] pits,
+                    final PlayerKind player
+    ) {
+        final long position = index.rank(pits) * PlayerKind.count() + player.getIndex();
+        final int packed = values.get(HEADER_BYTES + (int) (position >>> 2));
+        return (packed >>> ((int) (position & 3) * 2)) & 3;
+    }
+
+    int getBoardSize() {
+        return boardSize;
+    }
+
+    int getTotalStones() {
+        return totalStones;
+    }
+}
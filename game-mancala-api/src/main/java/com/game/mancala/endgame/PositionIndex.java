@@ -0,0 +1,112 @@
+package com.game.mancala.endgame;
+
+/**
+ * This class is a perfect hash of the pit counts of a board with a fixed amount of stones
+ * Every way of spreading the stones through the pits (collectors included) gets a distinct rank in lexicographic
+ * order, using the combinatorial number system, so a table of all positions has no holes
+ */
+class PositionIndex {
+
+    private final int slots;
+    private final int totalStones;
+    private final long[][] binomial;
+
+    PositionIndex(
+                    final int slots,
+                    final int totalStones
+    ) {
+        this.slots = slots;
+        this.totalStones = totalStones;
+        this.binomial = new long[totalStones + slots + 1][slots + 1];
+        for (int n = 0; n < binomial.length; n++) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, slots); k++)
+                binomial[n][k] = binomial[n - 1][k - 1] + (k <= n - 1 ? binomial[n - 1][k] : 0);
+        }
+    }
+
+    /**
+     * This method will count the ways of spreading the stones through the pits
+     *
+     * @return the amount of ranks
+     */
+    long count() {
+        return compositions(totalStones, slots);
+    }
+
+    /**
+     * This method will rank the pits adding, for each pit, the amount of positions with less stones in it
+     * The sum of those amounts is closed (hockey-stick identity), so the rank costs one step per pit
+     *
+     * @param pits the pits holding all the stones
+     * @return the rank of the pits
+     */
+    long rank(
+                    final int[] pits
+    ) {
+        long rank = 0;
+        int remaining = totalStones;
+        for (int index = 0; index < slots - 1; index++) {
+            final int slotsAfter = slots - 1 - index;
+            rank += binomial[remaining + slotsAfter][slotsAfter]
+                            - binomial[remaining - pits[index] + slotsAfter][slotsAfter];
+            remaining -= pits[index];
+        }
+        return rank;
+    }
+
+    /**
+     * This method will write the pits of the rank
+     *
+     * @param rank the rank of the pits
+     * @param pits the array receiving the pits
+     */
+    void unrank(
+                    long rank,
+                    final int[] pits
+    ) {
+        int remaining = totalStones;
+        for (int index = 0; index < slots - 1; index++) {
+            final int slotsAfter = slots - 1 - index;
+            int stones = 0;
+            long withStones = compositions(remaining, slotsAfter);
+            while (rank >= withStones) {
+                rank -= withStones;
+                stones++;
+                withStones = compositions(remaining - stones, slotsAfter);
+            }
+            pits[index] = stones;
+            remaining -= stones;
+        }
+        pits[slots - 1] = remaining;
+    }
+
+    /**
+     * This method will move the pits to the next rank
+     *
+     * @param pits the pits to be moved to the next rank
+     * @return false when the pits are already the last rank
+     */
+    boolean next(
+                    final int[] pits
+    ) {
+        int index = slots - 1;
+        while (index > 0 && pits[index] == 0)
+            index--;
+        if (index == 0)
+            return false;
+
+        final int stones = pits[index];
+        pits[index] = 0;
+        pits[index - 1]++;
+        pits[slots - 1] = stones - 1;
+        return true;
+    }
+
+    private long compositions(
+                    final int stones,
+                    final int pits
+    ) {
+        return binomial[stones + pits - 1][pits - 1];
+    }
+}
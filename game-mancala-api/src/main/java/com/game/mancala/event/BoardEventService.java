@@ -0,0 +1,291 @@
+package com.game.mancala.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.model.Board;
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.model.PackedBoard;
+import com.game.mancala.thread.VirtualThreads;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.UnicastProcessor;
+import reactor.util.concurrent.Queues;
+
+/**
+ * This service pushes the moves of a board to its subscribers as server sent events, over the servlet or the reactive
+ * stack
+ * A subscriber gets the full board first and then one delta per move, with the changed pits and the new turn
+ * Every subscriber has a bounded queue: a client too slow to keep up loses its queued deltas and gets the full board
+ * The events are written by a small pool of threads, or by a virtual thread per subscriber when they are enabled
+ * A client not taking a write within {@code mancala.events.write-timeout-ms} is unsubscribed, and the pool starts
+ * a thread in place of the stalled one until its write returns, bounded by the write timeout of the server
+ */
+@Service
+public class BoardEventService {
+
+    public static final String BOARD_EVENT = "board";
+    public static final String MOVE_EVENT = "move";
+
+    private final ObjectMapper objectMapper;
+    private final int queueSize;
+    private final long timeoutMs;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService watchdog;
+    private final Map<UUID, List<BoardSubscriber>> subscribers;
+
+    public BoardEventService(
+                    final ObjectMapper objectMapper,
+                    @Value("${mancala.events.queue-size:64}") final int queueSize,
+                    @Value("${mancala.events.threads:4}") final int threads,
+                    @Value("${mancala.events.timeout-ms:1800000}") final long timeoutMs,
+                    @Value("${mancala.events.write-timeout-ms:10000}") final long writeTimeoutMs,
+                    @Value("${mancala.threads.virtual:false}") final boolean virtualThreads
+    ) {
+        final AtomicInteger count = new AtomicInteger();
+        this.objectMapper = objectMapper;
+        this.queueSize = queueSize;
+        this.timeoutMs = timeoutMs;
+        this.sender = (virtualThreads ? VirtualThreads.newExecutor("board-events-") : Optional.<ExecutorService>empty())
+                        .orElseGet(() -> new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                        new LinkedBlockingQueue<>(), runnable -> {
+                                            final Thread thread = new Thread(runnable,
+                                                            "board-events-" + count.incrementAndGet());
+                                            thread.setDaemon(true);
+                                            return thread;
+                                        }));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "board-events-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.subscribers = new ConcurrentHashMap<>();
+
+        final long periodMs = Math.max(1, writeTimeoutMs / 4);
+        final long writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.watchdog.scheduleWithFixedDelay(() -> expire(writeTimeoutNanos), periodMs, periodMs,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method will subscribe a new client to the board and queue the full board as its first event
+     * The caller must hold the publication of the board, so no move is published between the full board and the
+     * subscription
+     *
+     * @param result the current board result
+     * @return the emitter of the client
+     */
+    public SseEmitter subscribe(
+                    final BoardWrapper.Result result
+    ) {
+        final UUID id = result.getId();
+        final SseEmitter emitter = new SseEmitter(timeoutMs);
+        final BoardSubscriber subscriber = new BoardSubscriber(emitter, queueSize, sender, () -> resize(-1));
+        final Runnable unsubscribe = () -> unsubscribe(id, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        add(result, subscriber);
+        return emitter;
+    }
+
+    /**
+     * This method will subscribe a new client of the reactive stack as the other one
+     * The events not taken by the client yet are held by its stream, bounded by the queue size: a client too slow
+     * to take them gets its stream ended with an error, its event source connects again and gets the full board
+     *
+     * @param result the current board result
+     * @return the event stream of the client
+     */
+    public Flux<ServerSentEvent<String>> stream(
+                    final BoardWrapper.Result result
+    ) {
+        final UUID id = result.getId();
+        final UnicastProcessor<ServerSentEvent<String>> events = UnicastProcessor.create(
+                        Queues.<ServerSentEvent<String>>get(queueSize).get());
+        final BoardSubscriber subscriber = new BoardSubscriber(BoardEventSink.of(events.sink()), queueSize, sender,
+                        () -> resize(-1));
+
+        add(result, subscriber);
+        return events.take(Duration.ofMillis(timeoutMs))
+                        .doFinally(signal -> unsubscribe(id, subscriber));
+    }
+
+    /**
+     * This method will queue the delta of a move to every subscriber of the board without waiting for any of them
+     * The caller must publish the moves of a board in the order of their versions, so the deltas are queued in order
+     *
+     * @param id       the board ID
+     * @param previous the state before the move
+     * @param moved    the state and the version after the move
+     * @param result   the full board, only built for the slow subscribers
+     */
+    public void moved(
+                    final UUID id,
+                    final PackedBoard previous,
+                    final Board.Snapshot moved,
+                    final Supplier<BoardWrapper.Result> result
+    ) {
+        final List<BoardSubscriber> boardSubscribers = subscribers.get(id);
+        if (boardSubscribers == null)
+            return;
+
+        final String delta = toJson(toDelta(id, previous, moved));
+        String full = null;
+        for (final BoardSubscriber subscriber : boardSubscribers) {
+            if (subscriber.offer(MOVE_EVENT, delta))
+                continue;
+
+            if (full == null)
+                full = toJson(result.get());
+            subscriber.resync(BOARD_EVENT, full);
+        }
+    }
+
+    /**
+     * This method is a helper to provide the amount of subscribers of a board
+     *
+     * @param id the board ID
+     * @return the amount of subscribers
+     */
+    public int subscribers(
+                    final UUID id
+    ) {
+        final List<BoardSubscriber> boardSubscribers = subscribers.get(id);
+        return boardSubscribers == null ? 0 : boardSubscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        watchdog.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    /**
+     * This method will unsubscribe the clients whose current write is past its deadline, each one holding a thread
+     * of the pool until its write returns, so the pool gets one more thread meanwhile
+     *
+     * @param writeTimeoutNanos the write deadline in nanoseconds
+     */
+    private void expire(
+                    final long writeTimeoutNanos
+    ) {
+        final long now = System.nanoTime();
+        subscribers.forEach((id, boardSubscribers) -> {
+            for (final BoardSubscriber subscriber : boardSubscribers) {
+                if (subscriber.expire(now, writeTimeoutNanos)) {
+                    unsubscribe(id, subscriber);
+                    resize(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * This method will change the amount of the threads of the pool, a virtual thread per client needs none
+     * The max size is raised before and lowered after the core size, as the core size may never be above it
+     *
+     * @param delta the amount of the threads to add or remove
+     */
+    private synchronized void resize(
+                    final int delta
+    ) {
+        if (!(sender instanceof ThreadPoolExecutor))
+            return;
+
+        final ThreadPoolExecutor pool = (ThreadPoolExecutor) sender;
+        if (delta > 0) {
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+            pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+        } else {
+            pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+            pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+        }
+    }
+
+    private void add(
+                    final BoardWrapper.Result result,
+                    final BoardSubscriber subscriber
+    ) {
+        subscribers.compute(result.getId(), (key, boardSubscribers) -> {
+            final List<BoardSubscriber> list = boardSubscribers == null
+                            ? new CopyOnWriteArrayList<>()
+                            : boardSubscribers;
+            list.add(subscriber);
+            return list;
+        });
+        subscriber.offer(BOARD_EVENT, toJson(result));
+    }
+
+    private void unsubscribe(
+                    final UUID id,
+                    final BoardSubscriber subscriber
+    ) {
+        subscriber.close();
+        subscribers.computeIfPresent(id, (key, boardSubscribers) -> {
+            boardSubscribers.remove(subscriber);
+            return boardSubscribers.isEmpty() ? null : boardSubscribers;
+        });
+    }
+
+    private static BoardWrapper.Delta toDelta(
+                    final UUID id,
+                    final PackedBoard previous,
+                    final Board.Snapshot moved
+    ) {
+        final PackedBoard state = moved.getState();
+        final int[] pits = state.pits();
+        final List<Integer> changedPits = new ArrayList<>();
+        final List<Integer> stones = new ArrayList<>();
+        for (int index = 0; index < pits.length; index++) {
+            if (pits[index] != previous.stones(index)) {
+                changedPits.add(index);
+                stones.add(pits[index]);
+            }
+        }
+
+        return BoardWrapper.Delta.builder()
+                        .id(id)
+                        .pits(changedPits)
+                        .stones(stones)
+                        .currentPlayer(state.getCurrentPlayer())
+                        .isOpen(state.isOpen())
+                        .winner(state.getWinner())
+                        .version(moved.getVersion())
+                        .build();
+    }
+
+    private String toJson(
+                    final Object value
+    ) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.game.mancala.event;
+
+import java.io.IOException;
+
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import reactor.core.publisher.FluxSink;
+
+/**
+ * This interface writes the events of one client, over an emitter of the servlet stack or a stream of the reactive one
+ */
+interface BoardEventSink {
+
+    /**
+     * This method will write an event, waiting for the client on the servlet stack
+     *
+     * @param name the event name
+     * @param data the event data as JSON
+     * @throws IOException when the client is gone
+     */
+    void send(String name, String data) throws IOException;
+
+    void complete();
+
+    void completeWithError(Throwable error);
+
+    /**
+     * This method will write the events to an emitter of the servlet stack
+     *
+     * @param emitter the emitter of the client
+     * @return the sink of the emitter
+     */
+    static BoardEventSink of(
+                    final SseEmitter emitter
+    ) {
+        return new BoardEventSink() {
+            @Override
+            public void send(
+                            final String name,
+                            final String data
+            ) throws IOException {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            }
+
+            @Override
+            public void complete() {
+                emitter.complete();
+            }
+
+            @Override
+            public void completeWithError(
+                            final Throwable error
+            ) {
+                emitter.completeWithError(error);
+            }
+        };
+    }
+
+    /**
+     * This method will write the events to a stream of the reactive stack, the server writes them as the client
+     * takes them, so a write never waits for the client
+     *
+     * @param sink the sink of the stream of the client
+     * @return the sink of the stream
+     */
+    static BoardEventSink of(
+                    final FluxSink<ServerSentEvent<String>> sink
+    ) {
+        return new BoardEventSink() {
+            @Override
+            public void send(
+                            final String name,
+                            final String data
+            ) throws IOException {
+                if (sink.isCancelled())
+                    throw new IOException("the stream of the client is cancelled");
+                sink.next(ServerSentEvent.builder(data).event(name).build());
+            }
+
+            @Override
+            public void complete() {
+                sink.complete();
+            }
+
+            @Override
+            public void completeWithError(
+                            final Throwable error
+            ) {
+                sink.error(error);
+            }
+        };
+    }
+}
@@ -0,0 +1,188 @@
+package com.game.mancala.event;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * This class holds the events not yet sent to one client of a board in a bounded queue
+ * The events are sent by at most one task of the sender at a time, so the publisher never waits for a client
+ * A write lasting longer than its deadline expires the client: it gets no more events and its sink is completed
+ * once the write returns, while the sender runs the other clients on a thread replacing the stalled one
+ * A client of the reactive stack never stalls a write, its stream holds the events the client did not take yet
+ */
+class BoardSubscriber {
+
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long EXPIRED = Long.MAX_VALUE;
+
+    private final BoardEventSink sink;
+    private final ArrayBlockingQueue<Frame> frames;
+    private final Executor sender;
+    private final Runnable released;
+    private final AtomicBoolean sending;
+    private final AtomicLong writeStarted;
+    private volatile boolean closed;
+
+    /**
+     * @param emitter   the emitter of the client
+     * @param queueSize the max amount of the events not yet sent
+     * @param sender    the executor sending the events
+     * @param released  called on the sender thread once an expired write returned
+     */
+    BoardSubscriber(
+                    final SseEmitter emitter,
+                    final int queueSize,
+                    final Executor sender,
+                    final Runnable released
+    ) {
+        this(BoardEventSink.of(emitter), queueSize, sender, released);
+    }
+
+    /**
+     * @param sink      the sink writing the events of the client
+     * @param queueSize the max amount of the events not yet sent
+     * @param sender    the executor sending the events
+     * @param released  called on the sender thread once an expired write returned
+     */
+    BoardSubscriber(
+                    final BoardEventSink sink,
+                    final int queueSize,
+                    final Executor sender,
+                    final Runnable released
+    ) {
+        this.sink = sink;
+        this.frames = new ArrayBlockingQueue<>(queueSize);
+        this.sender = sender;
+        this.released = released;
+        this.sending = new AtomicBoolean();
+        this.writeStarted = new AtomicLong(IDLE);
+    }
+
+    /**
+     * This method will queue an event for the client
+     *
+     * @param name the event name
+     * @param data the event data as JSON
+     * @return false when the queue is full, the client is too slow and needs to be resynchronized
+     */
+    boolean offer(
+                    final String name,
+                    final String data
+    ) {
+        if (!frames.offer(new Frame(name, data)))
+            return false;
+
+        schedule();
+        return true;
+    }
+
+    /**
+     * This method will replace the queued events by a full board, the deltas dropped before it are not needed anymore
+     * The caller must publish the moves of the board, so no delta of the board is queued in the meantime
+     *
+     * @param name the event name
+     * @param data the board as JSON
+     */
+    void resync(
+                    final String name,
+                    final String data
+    ) {
+        frames.clear();
+        frames.offer(new Frame(name, data));
+        schedule();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        closed = true;
+        frames.clear();
+    }
+
+    /**
+     * This method will expire the client when its current write started before the deadline, once
+     * The sink is not completed here, as it waits for the write, but by the sender once the write returns, and a
+     * write returning meanwhile wins over the expiry, so the sender always knows if its write expired
+     *
+     * @param now          the current time in nanoseconds
+     * @param timeoutNanos the write deadline in nanoseconds
+     * @return true when the client expired now
+     */
+    boolean expire(
+                    final long now,
+                    final long timeoutNanos
+    ) {
+        final long started = writeStarted.get();
+        if (started == IDLE || started == EXPIRED || now - started < timeoutNanos
+                        || !writeStarted.compareAndSet(started, EXPIRED))
+            return false;
+
+        close();
+        return true;
+    }
+
+    private void schedule() {
+        if (closed || !sending.compareAndSet(false, true))
+            return;
+
+        try {
+            sender.execute(this::send);
+        } catch (final RejectedExecutionException e) {
+            sending.set(false);
+            sink.complete();
+        }
+    }
+
+    private void send() {
+        boolean expired = false;
+        try {
+            Frame frame;
+            while (!closed && (frame = frames.poll()) != null) {
+                final long started = System.nanoTime();
+                writeStarted.set(started);
+                try {
+                    sink.send(frame.name, frame.data);
+                } finally {
+                    expired = !writeStarted.compareAndSet(started, IDLE);
+                }
+                if (expired) {
+                    sink.complete();
+                    break;
+                }
+            }
+        } catch (final IOException | IllegalStateException e) {
+            close();
+            sink.completeWithError(e);
+        } finally {
+            sending.set(false);
+        }
+
+        if (expired) {
+            released.run();
+            return;
+        }
+        if (!frames.isEmpty())
+            schedule();
+    }
+
+    private static class Frame {
+        private final String name;
+        private final String data;
+
+        private Frame(
+                        final String name,
+                        final String data
+        ) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
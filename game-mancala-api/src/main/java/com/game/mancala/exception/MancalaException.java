@@ -5,16 +5,34 @@
 
 package com.game.mancala.exception;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+/**
+ * This class holds the failures of the game, known by their message key
+ * A failure has no stack trace and a single instance per message key, so rejecting a request allocates nothing.
+ * The message keys are a fixed set, the biggest one being the position of a rejected move in a batch
+ */
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class MancalaException extends RuntimeException {
-    private String message;
+    private static final String INVALID_SUFFIX = ".invalid";
+    private static final Map<String, NotFoundFailure> NOT_FOUND = new ConcurrentHashMap<>();
+    private static final Map<String, InvalidFailure> INVALID = new ConcurrentHashMap<>();
+    private static final Map<String, ConflictFailure> CONFLICT = new ConcurrentHashMap<>();
+
+    private final String message;
+
+    MancalaException(final String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
 
     /**
      * This class holds all NOT_FOUND exceptions
@@ -22,7 +40,7 @@ public class MancalaException extends RuntimeException {
     @ResponseStatus(value = HttpStatus.NOT_FOUND)
     public static class NotFoundFailure extends MancalaException {
         NotFoundFailure(final String message) {
-            setMessage(message + ".not_found");
+            super(message + ".not_found");
         }
     }
 
@@ -32,15 +50,41 @@ public class MancalaException extends RuntimeException {
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public static class InvalidFailure extends MancalaException {
         InvalidFailure(final String message) {
-            setMessage(message + ".invalid");
+            super(message + INVALID_SUFFIX);
+        }
+    }
+
+    /**
+     * This class holds all CONFLICT exceptions
+     */
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public static class ConflictFailure extends MancalaException {
+        ConflictFailure(final String message) {
+            super(message + ".conflict");
         }
     }
 
     public static NotFoundFailure notFound(final String message) {
-        return new NotFoundFailure(message);
+        return NOT_FOUND.computeIfAbsent(message, NotFoundFailure::new);
     }
 
     public static InvalidFailure invalid(final String message) {
-        return new InvalidFailure(message);
+        return INVALID.computeIfAbsent(message, InvalidFailure::new);
+    }
+
+    public static ConflictFailure conflict(final String message) {
+        return CONFLICT.computeIfAbsent(message, ConflictFailure::new);
+    }
+
+    /**
+     * This method will prefix the message of an invalid failure, keeping a single invalid suffix
+     *
+     * @param prefix  the prefix, as the move of a batch
+     * @param failure the invalid failure
+     * @return the invalid failure of the prefixed message
+     */
+    public static InvalidFailure invalid(final String prefix, final InvalidFailure failure) {
+        final String message = failure.getMessage();
+        return invalid(prefix + "." + message.substring(0, message.length() - INVALID_SUFFIX.length()));
     }
 }
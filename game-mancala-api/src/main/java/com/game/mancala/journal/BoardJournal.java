@@ -0,0 +1,444 @@
+package com.game.mancala.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.game.mancala.model.Board;
+
+/**
+ * This class is an append only log of the boards split in numbered segments
+ * Appends only copy the record to a memory batch, a single writer thread writes and forces the whole batch at once
+ * (group commit), so many moves share the cost of one fsync and nobody waits for the disk holding a board lock
+ */
+public class BoardJournal implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoardJournal.class);
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final int MAX_RECORD_BYTES = 64;
+    static final int MAX_MOVES = 0xFFFF;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int BATCH_BYTES = 256 * 1024;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition hasSpace = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+
+    private ByteBuffer pending = ByteBuffer.allocate(BATCH_BYTES);
+    private ByteBuffer writing = ByteBuffer.allocate(BATCH_BYTES);
+    private volatile long nextSequence;
+    private long durableSequence;
+    private boolean rotateRequested;
+    private boolean running = true;
+    private IOException failure;
+    private int segment;
+    private FileChannel channel;
+
+    /**
+     * This constructor will open a new segment and start the writer thread
+     * It never appends to an existing segment, its last record may be torn by a crash
+     *
+     * @param directory     the directory of the segments
+     * @param firstSegment  the number of the first segment to write
+     * @param firstSequence the sequence of the first record to append
+     * @param segmentBytes  the size after which the writer moves to a new segment
+     * @throws IOException when the segment can not be created
+     */
+    public BoardJournal(
+                    final Path directory,
+                    final int firstSegment,
+                    final long firstSequence,
+                    final long segmentBytes
+    ) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.nextSequence = firstSequence;
+        this.durableSequence = firstSequence - 1;
+        this.segment = firstSegment;
+        this.channel = openSegment(firstSegment);
+        this.writer = new Thread(this::writeLoop, "board-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * This method will append the creation of a board
+     *
+     * @param board the created board, not yet visible to other threads
+     * @return the sequence of the record
+     */
+    public long appendCreate(
+                    final Board board
+    ) {
+        return append(JournalRecord.CREATE, board, null);
+    }
+
+    /**
+     * This method will append a move already applied to the board, the caller must hold the board lock so the
+     * records of a board are appended in the same order as its moves
+     *
+     * @param board the moved board
+     * @param pit   the pit of the move
+     * @return the sequence of the record
+     */
+    public long appendMove(
+                    final Board board,
+                    final int pit
+    ) {
+        return append(JournalRecord.MOVE, board, new int[]{pit});
+    }
+
+    /**
+     * This method will append the moves of a batch already applied to the board as a single record, so a crash
+     * keeps either all of them or none. The caller must hold the board lock
+     *
+     * @param board the moved board
+     * @param pits  the pits of the moves in order
+     * @return the sequence of the record
+     */
+    public long appendMoves(
+                    final Board board,
+                    final int[] pits
+    ) {
+        if (pits.length > MAX_MOVES)
+            throw new IllegalArgumentException("too many moves in a record: " + pits.length);
+        return append(JournalRecord.MOVES, board, pits);
+    }
+
+    /**
+     * This method will wait until the record of the sequence is forced to the disk
+     *
+     * @param sequence the sequence returned by an append
+     */
+    public void awaitDurable(
+                    final long sequence
+    ) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence && failure == null)
+                flushed.awaitUninterruptibly();
+            if (durableSequence < sequence)
+                throw new UncheckedIOException(failure);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method will provide the sequence of the next record
+     * Read while holding a board lock, every record of the board before it is smaller and every one after is bigger
+     *
+     * @return the next sequence
+     */
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * This method will make the writer flush the pending records and move to a new segment
+     * Every record appended after this method returns is written to the new segment or a later one
+     *
+     * @return the number of the new segment
+     */
+    public int rotate() {
+        lock.lock();
+        try {
+            rotateRequested = true;
+            hasWork.signal();
+            while (rotateRequested && failure == null)
+                flushed.awaitUninterruptibly();
+            if (failure != null)
+                throw new UncheckedIOException(failure);
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method will flush the pending records and stop the writer thread
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            running = false;
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private long append(
+                    final byte type,
+                    final Board board,
+                    final int[] pits
+    ) {
+        final int recordBytes = MAX_RECORD_BYTES + (type == JournalRecord.MOVES ? pits.length : 0);
+        lock.lock();
+        try {
+            if (!running)
+                throw new IllegalStateException("board journal closed");
+            while (pending.remaining() < recordBytes && failure == null)
+                hasSpace.awaitUninterruptibly();
+            if (failure != null)
+                throw new UncheckedIOException(failure);
+
+            final long sequence = nextSequence;
+            encode(pending, crc, type, sequence, board, pits);
+            nextSequence = sequence + 1;
+            hasWork.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method will write the batches until the journal is closed
+     * Swapping the batches is the only work done holding the journal lock, the appends go on while it writes
+     */
+    private void writeLoop() {
+        while (true) {
+            final long lastSequence;
+            final boolean rotate;
+            final boolean stop;
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !rotateRequested && running)
+                    hasWork.awaitUninterruptibly();
+
+                final ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                lastSequence = nextSequence - 1;
+                rotate = rotateRequested;
+                stop = !running && writing.position() == 0;
+                hasSpace.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            final boolean rotated;
+            try {
+                writing.flip();
+                while (writing.hasRemaining())
+                    channel.write(writing);
+                writing.clear();
+                channel.force(false);
+                rotated = rotate || channel.size() >= segmentBytes;
+                if (rotated) {
+                    channel.close();
+                    channel = openSegment(segment + 1);
+                }
+            } catch (final IOException e) {
+                LOGGER.error("board journal failed writing segment {}", segment, e);
+                fail(e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                if (rotated)
+                    segment++;
+                durableSequence = lastSequence;
+                if (rotate)
+                    rotateRequested = false;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            if (stop)
+                return;
+        }
+    }
+
+    private void fail(
+                    final IOException e
+    ) {
+        lock.lock();
+        try {
+            failure = e;
+            flushed.signalAll();
+            hasSpace.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileChannel openSegment(
+                    final int number
+    ) throws IOException {
+        return FileChannel.open(segmentPath(directory, number), StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+    }
+
+    /**
+     * This method will encode a record as its length, the CRC32 of the rest, the sequence, the type, the board ID
+     * and then the whole board with its version for a create, the pit and the state hash for a move or the amount of
+     * pits, the pits and the state hash for a batch of moves
+     *
+     * @param buffer   the buffer receiving the record, with at least MAX_RECORD_BYTES plus the pits remaining
+     * @param crc      the checksum to reuse
+     * @param type     the record type
+     * @param sequence the record sequence
+     * @param board    the board
+     * @param pits     the pits of the moves, null for a create
+     */
+    static void encode(
+                    final ByteBuffer buffer,
+                    final CRC32 crc,
+                    final byte type,
+                    final long sequence,
+                    final Board board,
+                    final int[] pits
+    ) {
+        final int start = buffer.position();
+        final UUID id = board.getId();
+        buffer.position(start + HEADER_BYTES);
+        buffer.putLong(sequence).put(type).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        if (type == JournalRecord.CREATE) {
+            final int[] stonesPerPit = board.getBoard();
+            buffer.put((byte) board.getBoardSizePerPlayer())
+                            .put((byte) board.getCurrentPlayer().getIndex())
+                            .put((byte) stonesPerPit.length);
+            for (final int stones : stonesPerPit)
+                buffer.put((byte) stones);
+            buffer.putLong(board.getVersion());
+        } else if (type == JournalRecord.MOVES) {
+            buffer.putShort((short) pits.length);
+            for (final int pit : pits)
+                buffer.put((byte) pit);
+            buffer.putLong(board.stateHash());
+        } else {
+            buffer.put((byte) pits[0]).putLong(board.stateHash());
+        }
+
+        final int end = buffer.position();
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start + HEADER_BYTES, end - start - HEADER_BYTES);
+        buffer.putInt(start, end - start - 4);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * This method will read the records of a file until its end or the first torn record
+     *
+     * @param file     the segment or snapshot file
+     * @param consumer the consumer of the records
+     * @return true when the whole file was read
+     * @throws IOException when the file can not be read
+     */
+    static boolean read(
+                    final Path file,
+                    final Consumer<JournalRecord> consumer
+    ) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            final CRC32 checksum = new CRC32();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                final int start = buffer.position();
+                final int length = buffer.getInt(start);
+                if (length < HEADER_BYTES || length > buffer.remaining() - 4)
+                    return false;
+
+                final ByteBuffer body = buffer.duplicate();
+                body.position(start + HEADER_BYTES).limit(start + 4 + length);
+                checksum.reset();
+                checksum.update(body.duplicate());
+                if ((int) checksum.getValue() != buffer.getInt(start + 4))
+                    return false;
+
+                consumer.accept(decode(body));
+                buffer.position(start + 4 + length);
+            }
+            return !buffer.hasRemaining();
+        }
+    }
+
+    private static JournalRecord decode(
+                    final ByteBuffer body
+    ) {
+        final long sequence = body.getLong();
+        final byte type = body.get();
+        final UUID id = new UUID(body.getLong(), body.getLong());
+        if (type == JournalRecord.CREATE) {
+            final int boardSizePerPlayer = body.get();
+            final int currentPlayer = body.get();
+            final int[] pits = new int[body.get()];
+            for (int index = 0; index < pits.length; index++)
+                pits[index] = body.get() & 0xFF;
+            return new JournalRecord(type, sequence, id, boardSizePerPlayer, currentPlayer, pits, null, 0,
+                            body.getLong());
+        }
+        if (type == JournalRecord.MOVES) {
+            final int[] pits = new int[body.getShort() & 0xFFFF];
+            for (int index = 0; index < pits.length; index++)
+                pits[index] = body.get() & 0xFF;
+            return new JournalRecord(type, sequence, id, 0, 0, null, pits, body.getLong(), 0);
+        }
+        return new JournalRecord(type, sequence, id, 0, 0, null, new int[]{body.get()}, body.getLong(), 0);
+    }
+
+    /**
+     * This method will list the segments of the directory ordered by their number
+     *
+     * @param directory the directory of the segments
+     * @return the sorted segment numbers
+     * @throws IOException when the directory can not be listed
+     */
+    static List<Integer> segments(
+                    final Path directory
+    ) throws IOException {
+        final List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                        SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                numbers.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                                name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        numbers.sort(Integer::compare);
+        return numbers;
+    }
+
+    static Path segmentPath(
+                    final Path directory,
+                    final int number
+    ) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+}
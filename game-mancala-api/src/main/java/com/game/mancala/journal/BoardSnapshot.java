@@ -0,0 +1,151 @@
+package com.game.mancala.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.OptionalInt;
+import java.util.zip.CRC32;
+
+import com.game.mancala.model.Board;
+
+/**
+ * This class writes a compacted snapshot of the open boards as create records
+ * Each record sequence is the journal sequence read while holding the board lock, so the replay skips the records
+ * of the board already applied to the snapshot. The file only gets its final name once it is complete
+ */
+public class BoardSnapshot implements Closeable {
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int segment;
+    private final Path temporary;
+    private final Path target;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final CRC32 crc = new CRC32();
+    private int boards;
+
+    /**
+     * This constructor will start the snapshot replacing the journal segments before the segment
+     *
+     * @param directory the directory of the journal
+     * @param segment   the first segment to replay after the snapshot
+     * @throws IOException when the file can not be created
+     */
+    public BoardSnapshot(
+                    final Path directory,
+                    final int segment
+    ) throws IOException {
+        this.directory = directory;
+        this.segment = segment;
+        this.target = snapshotPath(directory, segment);
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * This method will copy the board to the snapshot buffer without any IO, so it can run holding the board lock
+     *
+     * @param board    the board
+     * @param sequence the journal sequence read holding the board lock
+     */
+    public void add(
+                    final Board board,
+                    final long sequence
+    ) {
+        BoardJournal.encode(buffer, crc, JournalRecord.CREATE, sequence, board, null);
+        boards++;
+    }
+
+    /**
+     * This method will write the buffer when there is no room for another board
+     *
+     * @throws IOException when the file can not be written
+     */
+    public void flushIfFull() throws IOException {
+        if (buffer.remaining() < BoardJournal.MAX_RECORD_BYTES)
+            flush();
+    }
+
+    /**
+     * This method will force the snapshot to the disk and give it its final name
+     * Then the older snapshots and the segments before the snapshot are not needed anymore and are deleted
+     *
+     * @return the amount of boards in the snapshot
+     * @throws IOException when the file can not be written
+     */
+    public int commit() throws IOException {
+        flush();
+        channel.force(true);
+        channel.close();
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+        for (final int number : BoardJournal.segments(directory)) {
+            if (number < segment)
+                Files.deleteIfExists(BoardJournal.segmentPath(directory, number));
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                        SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (final Path file : files) {
+                if (!file.equals(target))
+                    Files.deleteIfExists(file);
+            }
+        }
+        return boards;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(temporary);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * This method will look for the snapshot replacing the most segments
+     *
+     * @param directory the directory of the journal
+     * @return the first segment to replay after the latest snapshot, if any
+     * @throws IOException when the directory can not be listed
+     */
+    static OptionalInt latest(
+                    final Path directory
+    ) throws IOException {
+        OptionalInt latest = OptionalInt.empty();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                        SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                final int segment = Integer.parseInt(name.substring(SNAPSHOT_PREFIX.length(),
+                                name.length() - SNAPSHOT_SUFFIX.length()));
+                if (!latest.isPresent() || segment > latest.getAsInt())
+                    latest = OptionalInt.of(segment);
+            }
+        }
+        return latest;
+    }
+
+    static Path snapshotPath(
+                    final Path directory,
+                    final int segment
+    ) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+}
@@ -0,0 +1,31 @@
+package com.game.mancala.journal;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This class is a record read back from the journal or from a snapshot
+ * A create record holds the whole board, a move record only holds the pit and the state hash after the move and
+ * a moves record holds the pits of a batch with the state hash after the last one
+ * A create record also holds the version of the board, restored by the recovery
+ */
+@Getter
+@AllArgsConstructor
+public class JournalRecord {
+
+    public static final byte CREATE = 1;
+    public static final byte MOVE = 2;
+    public static final byte MOVES = 3;
+
+    private final byte type;
+    private final long sequence;
+    private final UUID id;
+    private final int boardSizePerPlayer;
+    private final int currentPlayer;
+    private final int[] board;
+    private final int[] pits;
+    private final long stateHash;
+    private final long version;
+}
@@ -0,0 +1,121 @@
+package com.game.mancala.journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.game.mancala.model.Board;
+import com.game.mancala.model.PlayerKind;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * This class rebuilds the boards from the latest snapshot and the journal segments written after it
+ */
+@Getter
+public class JournalRecovery {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalRecovery.class);
+
+    private final Map<UUID, Board> boards = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, Long> snapshotSequences = new HashMap<>();
+    private int nextSegment;
+    private long nextSequence;
+    private long replayedMoves;
+
+    private JournalRecovery() {
+    }
+
+    /**
+     * This method will load the latest snapshot and replay the segments after it
+     * A torn record ends its segment, since it can only be the tail of a write interrupted by a crash
+     *
+     * @param directory the directory of the journal
+     * @return the recovered boards with the first segment and sequence to be used by the next journal
+     * @throws IOException when the files can not be read
+     */
+    public static JournalRecovery recover(
+                    final Path directory
+    ) throws IOException {
+        final JournalRecovery recovery = new JournalRecovery();
+        final OptionalInt snapshot = BoardSnapshot.latest(directory);
+        if (snapshot.isPresent()) {
+            final Path file = BoardSnapshot.snapshotPath(directory, snapshot.getAsInt());
+            if (!BoardJournal.read(file, recovery::restore))
+                throw new IllegalStateException("corrupted board snapshot " + file);
+            recovery.nextSegment = snapshot.getAsInt();
+        }
+
+        for (final int segment : BoardJournal.segments(directory)) {
+            if (snapshot.isPresent() && segment < snapshot.getAsInt())
+                continue;
+
+            if (!BoardJournal.read(BoardJournal.segmentPath(directory, segment), recovery::replay))
+                LOGGER.warn("board journal segment {} ends with a torn record, ignoring its tail", segment);
+            recovery.nextSegment = segment + 1;
+        }
+        return recovery;
+    }
+
+    /**
+     * This method will restore a board from a snapshot record, whose sequence is the first one not applied to it
+     *
+     * @param record the snapshot record
+     */
+    private void restore(
+                    final JournalRecord record
+    ) {
+        boards.put(record.getId(), toBoard(record));
+        snapshotSequences.put(record.getId(), record.getSequence());
+        nextSequence = Math.max(nextSequence, record.getSequence());
+    }
+
+    /**
+     * This method will apply a journal record not yet applied to its board by the snapshot
+     * A move of an unknown board belongs to a game finished before the snapshot and is ignored
+     *
+     * @param record the journal record
+     */
+    private void replay(
+                    final JournalRecord record
+    ) {
+        nextSequence = Math.max(nextSequence, record.getSequence() + 1);
+        if (record.getSequence() < snapshotSequences.getOrDefault(record.getId(), Long.MIN_VALUE))
+            return;
+
+        if (record.getType() == JournalRecord.CREATE) {
+            boards.put(record.getId(), toBoard(record));
+            return;
+        }
+
+        final Board board = boards.get(record.getId());
+        if (board == null)
+            return;
+
+        if (record.getType() == JournalRecord.MOVES)
+            board.updateAll(record.getPits());
+        else
+            board.update(record.getPits()[0]).processPossibleWinner();
+        if (board.stateHash() != record.getStateHash())
+            throw new IllegalStateException("board " + record.getId() + " diverged from its journal at sequence "
+                            + record.getSequence());
+        replayedMoves++;
+    }
+
+    private static Board toBoard(
+                    final JournalRecord record
+    ) {
+        final Board board = new Board(record.getId(), record.getBoardSizePerPlayer(), record.getBoard(),
+                        PlayerKind.of(record.getCurrentPlayer()));
+        board.setVersion(record.getVersion());
+        return board;
+    }
+}
@@ -0,0 +1,161 @@
+package com.game.mancala.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.game.mancala.exception.MancalaException;
+import com.game.mancala.monad.Try;
+import com.game.mancala.repository.BoardRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * This class holds the meters of the boards: a timer per phase of a move, the amount of boards in memory, open
+ * and finished and a counter per message key of the rejected requests
+ * Timing a phase reads the clock and records it into a timer, costing as much as the move itself, so only one move
+ * out of {@code mancala.metrics.phases.sample-rate} is timed. The phases are left out with
+ * {@code mancala.metrics.phases.enabled}
+ */
+@Component
+public class BoardMetrics {
+
+    public enum Phase {
+        LOOKUP, VALIDATION, SOWING, WINNER, RECORDING, MAPPING
+    }
+
+    private static final long NOT_TIMED = 0;
+
+    private final MeterRegistry registry;
+    private final Timer[] phases;
+    private final int sampleRate;
+    private final AtomicLong open = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final Map<String, Counter> errors = new ConcurrentHashMap<>();
+
+    public BoardMetrics(
+                    final MeterRegistry registry,
+                    @Value("${mancala.metrics.phases.enabled:true}") final boolean phasesEnabled,
+                    @Value("${mancala.metrics.phases.sample-rate:128}") final int sampleRate
+    ) {
+        this.registry = registry;
+        this.phases = phasesEnabled ? buildPhases(registry) : null;
+        this.sampleRate = Math.max(1, sampleRate);
+        Gauge.builder("mancala.boards.open", open, AtomicLong::get)
+                        .description("open boards created or recovered since the start")
+                        .register(registry);
+        Gauge.builder("mancala.boards.finished", finished, AtomicLong::get)
+                        .description("boards finished since the start")
+                        .register(registry);
+    }
+
+    private static Timer[] buildPhases(
+                    final MeterRegistry registry
+    ) {
+        final Timer[] timers = new Timer[Phase.values().length];
+        for (final Phase phase : Phase.values()) {
+            timers[phase.ordinal()] = Timer.builder("mancala.move")
+                            .description("time of each phase of a move")
+                            .tag("phase", phase.name().toLowerCase())
+                            .register(registry);
+        }
+        return timers;
+    }
+
+    /**
+     * This method will follow the boards held in memory by the repository, its boards at the start are all open
+     *
+     * @param boardRepository the board repository
+     */
+    public void monitor(
+                    final BoardRepository boardRepository
+    ) {
+        open.set(boardRepository.size());
+        Gauge.builder("mancala.boards.live", boardRepository, BoardRepository::size)
+                        .description("boards held in memory by the board repository")
+                        .register(registry);
+    }
+
+    /**
+     * This method will read the clock to start the first phase of a move when the move is sampled
+     *
+     * @return the start of the phase, zero when the move is not timed
+     */
+    public long start() {
+        if (phases == null || sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0)
+            return NOT_TIMED;
+        return System.nanoTime();
+    }
+
+    /**
+     * This method will end a phase of a move and start the next one with the same clock reading
+     *
+     * @param phase the ended phase
+     * @param start the start of the phase
+     * @return the start of the next phase, zero when the move is not timed
+     */
+    public long lap(
+                    final Phase phase,
+                    final long start
+    ) {
+        if (start == NOT_TIMED)
+            return NOT_TIMED;
+
+        final long now = System.nanoTime();
+        phases[phase.ordinal()].record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * This method will count the created boards as open
+     *
+     * @param boards the amount of created boards
+     */
+    public void created(
+                    final int boards
+    ) {
+        open.addAndGet(boards);
+    }
+
+    /**
+     * This method will move a board from open to finished
+     */
+    public void finished() {
+        open.decrementAndGet();
+        finished.incrementAndGet();
+    }
+
+    /**
+     * This method will count a rejected request by its message key, as player.board.interval.invalid
+     * The counter of a key is looked up in the registry once and kept, so a rejection is only an increment
+     *
+     * @param result the result of the request
+     * @param <T>    the type of the result
+     * @return the same result
+     */
+    public <T> Try<T> count(
+                    final Try<T> result
+    ) {
+        return result.onFailure(error -> {
+            if (error instanceof MancalaException)
+                errorsOf(error.getMessage()).increment();
+        });
+    }
+
+    private Counter errorsOf(
+                    final String key
+    ) {
+        final Counter counter = errors.get(key);
+        return counter != null
+                        ? counter
+                        : errors.computeIfAbsent(key, missing -> registry.counter("mancala.errors", "key", missing));
+    }
+}
@@ -1,79 +1,131 @@
 package com.game.mancala.model;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.Optional;
+import java.util.Arrays;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import com.codepoetics.protonpack.Indexed;
-import com.codepoetics.protonpack.StreamUtils;
 import com.game.mancala.exception.MancalaException;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+/**
+ * This class is a board of a match, its whole state and version are one snapshot replaced by each move
+ * The moves are serialized by the lock of the repository, or swapped without it by comparing the snapshot they were
+ * computed from, so a reader sees the state and the version of the same move
+ * The moves swapped without the lock are published in the order of their versions, one publication at a time
+ */
 @Getter
-@AllArgsConstructor
 public class Board {
-    private final UUID id = UUID.randomUUID();
-    private final Integer boardSizePerPlayer;
-    private final List<AtomicInteger> board;
-    private final AtomicReference<PlayerKind> currentPlayer;
-    private final AtomicBoolean isOpen;
-    private final AtomicReference<PlayerKind> winner;
+    private static final Snapshot PUBLISHING = new Snapshot(null, -1);
+
+    private final UUID id;
+    private final int boardSizePerPlayer;
+
+    @Getter(AccessLevel.NONE)
+    private final BoardShape shape;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<Snapshot> snapshot;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<Snapshot> published;
 
     public Board(
-                    final Integer boardSizePerPlayer,
-                    final Integer stonesPerField
+                    final int boardSizePerPlayer,
+                    final int stonesPerField
     ) {
-        this.currentPlayer = new AtomicReference<>(PlayerKind.random());
-        this.board = buildGameBoard(boardSizePerPlayer, stonesPerField);
-        this.boardSizePerPlayer = boardSizePerPlayer + 1;
-        this.isOpen = new AtomicBoolean(true);
-        this.winner = new AtomicReference<>();
+        this(UUID.randomUUID(), boardSizePerPlayer, stonesPerField);
     }
 
     /**
-     * This method will create a board for each player
+     * This constructor will create a new board with a given ID, as one owned by this node of the cluster
      *
-     * @param boardSizePerPlayer the size of the player board
+     * @param id                 the board ID
+     * @param boardSizePerPlayer the amount of the pits of each player
      * @param stonesPerField     the amount of the stones in each pit
-     * @return a list of pits with stones
      */
-    private List<AtomicInteger> buildGameBoard(
-                    final Integer boardSizePerPlayer,
-                    final Integer stonesPerField
+    public Board(
+                    final UUID id,
+                    final int boardSizePerPlayer,
+                    final int stonesPerField
+    ) {
+        this(id, PackedBoard.of(boardSizePerPlayer + 1, buildGameBoard(boardSizePerPlayer, stonesPerField),
+                        PlayerKind.random(), true, null));
+    }
+
+    /**
+     * This constructor will restore an open board from a stored state, keeping its ID
+     *
+     * @param id                 the board ID
+     * @param boardSizePerPlayer the size of the player board including its collector
+     * @param board              the pits of the board
+     * @param currentPlayer      the player to move
+     */
+    public Board(
+                    final UUID id,
+                    final int boardSizePerPlayer,
+                    final int[] board,
+                    final PlayerKind currentPlayer
+    ) {
+        this(id, boardSizePerPlayer, board, currentPlayer, true, null);
+    }
+
+    /**
+     * This constructor will restore an open or finished board from a stored state, keeping its ID
+     *
+     * @param id                 the board ID
+     * @param boardSizePerPlayer the size of the player board including its collector
+     * @param board              the pits of the board
+     * @param currentPlayer      the player to move
+     * @param isOpen             false when the match is finished
+     * @param winner             the winner of a finished match
+     */
+    public Board(
+                    final UUID id,
+                    final int boardSizePerPlayer,
+                    final int[] board,
+                    final PlayerKind currentPlayer,
+                    final boolean isOpen,
+                    final PlayerKind winner
+    ) {
+        this(id, PackedBoard.of(boardSizePerPlayer, board, currentPlayer, isOpen, winner));
+    }
+
+    /**
+     * This constructor will restore a board from a packed state, keeping its ID
+     *
+     * @param id    the board ID
+     * @param state the packed state of the board
+     */
+    public Board(
+                    final UUID id,
+                    final PackedBoard state
     ) {
-        final Integer totalPlayers = PlayerKind.values().length;
-        return Stream.generate(() -> buildPlayerBoard(boardSizePerPlayer, stonesPerField))
-                        .limit(totalPlayers)
-                        .flatMap(List::stream)
-                        .collect(Collectors.toList());
+        this.id = id;
+        this.boardSizePerPlayer = state.getBoardSizePerPlayer();
+        this.shape = BoardShape.of(boardSizePerPlayer);
+        final Snapshot initial = new Snapshot(state, 0);
+        this.snapshot = new AtomicReference<>(initial);
+        this.published = new AtomicReference<>(initial);
     }
 
     /**
-     * This method will create a board for only one player.
-     * The first position of the list is for the collector
+     * This method will create a board for each player in a single array
+     * The first position of each player board is for the collector
      *
      * @param boardSizePerPlayer the size of the player board
      * @param stonesPerField     the amount of the stones in each pit
-     * @return a list of pits for only one player board
+     * @return an array of pits with stones
      */
-    private List<AtomicInteger> buildPlayerBoard(
-                    final Integer boardSizePerPlayer,
-                    final Integer stonesPerField
+    private static int[] buildGameBoard(
+                    final int boardSizePerPlayer,
+                    final int stonesPerField
     ) {
-        return Stream.of(
-                        Stream.of(new AtomicInteger(0)),
-                        Stream.generate(() -> new AtomicInteger(stonesPerField)).limit(boardSizePerPlayer)
-        ).flatMap(Function.identity()).collect(Collectors.toList());
+        final int[] pits = new int[(boardSizePerPlayer + 1) * PlayerKind.count()];
+        Arrays.fill(pits, stonesPerField);
+        for (int player = 0; player < PlayerKind.count(); player++)
+            pits[player * (boardSizePerPlayer + 1)] = 0;
+        return pits;
     }
 
     /**
@@ -86,137 +138,303 @@ public class Board {
      * @throws MancalaException
      */
     public Board update(
-                    final Integer targetIndex
+                    final int targetIndex
+    ) throws MancalaException {
+        validate(targetIndex);
+        return move(targetIndex);
+    }
+
+    /**
+     * This method will execute the pre-check rules of a move of the current player without updating the board
+     *
+     * @param targetIndex the target index to start updating the board
+     * @throws MancalaException
+     */
+    public void validate(
+                    final int targetIndex
     ) throws MancalaException {
-        final BoardPlayerCorner corner = new BoardPlayerCorner(currentPlayer.get(), boardSizePerPlayer);
+        validate(getState(), targetIndex);
+    }
 
-        if (!BoardRules.isIndexInTheInterval(targetIndex, corner.getStart(), corner.getEnd()))
+    /**
+     * This method will execute the pre-check rules of a move of the current player of a given state of this board
+     *
+     * @param state       a state of this board
+     * @param targetIndex the target index to start updating the board
+     * @throws MancalaException
+     */
+    public void validate(
+                    final PackedBoard state,
+                    final int targetIndex
+    ) throws MancalaException {
+        if (!shape.isPitOf(state.getCurrentPlayer(), targetIndex))
             throw MancalaException.invalid("player.board.interval");
 
-        if (BoardRules.isIndexWithStones(board, targetIndex, 0))
+        if (state.stones(targetIndex) == 0)
             throw MancalaException.invalid("player.board.field.zero");
+    }
 
-        final Integer actualStones = BoardRules.getStonesAndSetZero(board, targetIndex);
-        final Integer lastIndex = loopUpdateBoard(targetIndex, actualStones);
-
-        if (BoardRules.isIndexInTheInterval(lastIndex, corner.getStart(), corner.getEnd()) &&
-                        BoardRules.isIndexWithStones(board, lastIndex, 1)) {
-            BoardRules.transferStones(board, corner.getStart(), lastIndex);
-        }
-
-        if (BoardRules.doNotHaveOtherRound(currentPlayer.get(), lastIndex, boardSizePerPlayer)) {
-            currentPlayer.updateAndGet(PlayerKind::nextPlayer);
-        }
+    /**
+     * This method will update the board starting from a target index already validated
+     * Each move raises the version of the board by one
+     *
+     * @param targetIndex the target index to start updating the board
+     * @return the board itself
+     */
+    public Board move(
+                    final int targetIndex
+    ) {
+        final Snapshot current = snapshot.get();
+        set(new Snapshot(current.state.move(targetIndex), current.version + 1));
 
         return this;
     }
 
     /**
-     * This method will keep executing until run out the stones (stones <= 0)
-     * Each pit will be incremented in 1
+     * This method will update the board with each target index in order and then look for the winner only once
+     * A move after the match ended is rejected, so the winner found at the end is the same one found after each move.
+     * When a move is rejected the board is left untouched, the moves are played on its state before being set
      *
-     * @param currentIndex the current index in the board
-     * @param stonesLeft   the stones left to keep moving the cursor
-     * @return the last index in the board
+     * @param targetIndexes the target indexes of the moves
+     * @return the board itself
+     * @throws MancalaException with the position of the rejected move, as board.moves.2.player.board.field.zero
      */
-    private Integer loopUpdateBoard(
-                    final Integer currentIndex,
-                    final Integer stonesLeft
-    ) {
-        if (stonesLeft > 0) {
-            final Integer nextIndex = moveCursor(currentIndex - 1);
-            if (BoardRules.isOtherPlayerCollector(currentPlayer.get(), boardSizePerPlayer, nextIndex)) {
-                return loopUpdateBoard(nextIndex, stonesLeft);
-            } else {
-                board.get(nextIndex).incrementAndGet();
-                return loopUpdateBoard(nextIndex, stonesLeft - 1);
-            }
-        } else
-            return currentIndex;
+    public Board updateAll(
+                    final int[] targetIndexes
+    ) throws MancalaException {
+        final Snapshot current = snapshot.get();
+        set(new Snapshot(playAll(current.state, targetIndexes), current.version + targetIndexes.length));
+
+        return this;
     }
 
     /**
-     * This method is a helper to move the cursor through the board without worry about Range Index Exception
+     * This method will play the moves in order from a given state of this board and then look for the winner only
+     * once, without updating the board. A move after the match ended is rejected as by the other one
      *
-     * @param index the current index
-     * @return the new index
+     * @param state         a state of this board
+     * @param targetIndexes the target indexes of the moves
+     * @return the state after the moves
+     * @throws MancalaException with the position of the rejected move, as board.moves.2.player.board.field.zero
      */
-    private Integer moveCursor(
-                    final Integer index
-    ) {
-        if (index < 0)
-            return board.size() - 1;
-        else if (index >= board.size())
-            return 0;
-        else
-            return index;
+    public PackedBoard playAll(
+                    final PackedBoard state,
+                    final int[] targetIndexes
+    ) throws MancalaException {
+        PackedBoard current = state;
+        for (int move = 0; move < targetIndexes.length; move++) {
+            try {
+                if (move > 0 && current.isMatchEnded())
+                    throw MancalaException.invalid("board.open");
+                validate(current, targetIndexes[move]);
+                current = current.move(targetIndexes[move]);
+            } catch (final MancalaException.InvalidFailure e) {
+                throw MancalaException.invalid("board.moves." + move, e);
+            }
+        }
+
+        return current.processPossibleWinner();
     }
 
     /**
      * This method will execute a combination of the detecting if the game was finished and
      * then applying to the collector method to collect all remaining stones to the right collector field and
      * then defining the winner of the game
+     * The pits of each player board are tested at once in the packed state, so an open match costs two masks
      *
      * @return a updated board
      * @throws MancalaException
      */
     public Board processPossibleWinner() throws MancalaException {
-        if (isMatchEnded()) {
-            final List<Integer> collectedStones = collectAllRemainStones();
-            final PlayerKind winnerInBoard = findWinnerInBoard(collectedStones)
-                            .orElseThrow(() -> MancalaException.invalid("board.player.winner"));
-            winner.set(winnerInBoard);
-            isOpen.set(false);
-        }
+        final Snapshot current = snapshot.get();
+        set(new Snapshot(current.state.processPossibleWinner(), current.version));
 
         return this;
     }
 
     /**
-     * This method will look for the player board that run out of the stones to decides if the match was finished
+     * This method will unpack the pits of the board, changing the copy does not change the board
+     *
+     * @return a copy of the pits
+     */
+    public int[] getBoard() {
+        return getState().pits();
+    }
+
+    public PlayerKind getCurrentPlayer() {
+        return getState().getCurrentPlayer();
+    }
+
+    public boolean isOpen() {
+        return getState().isOpen();
+    }
+
+    /**
+     * This method is a helper to provide the winner of a finished match
+     *
+     * @return the winner or null while the match is open
+     */
+    public PlayerKind getWinner() {
+        return getState().getWinner();
+    }
+
+    /**
+     * This method is a helper to provide the packed state of the board, an immutable value to be stored or searched
+     *
+     * @return the packed state
+     */
+    public PackedBoard getState() {
+        return snapshot.get().state;
+    }
+
+    public long getVersion() {
+        return snapshot.get().version;
+    }
+
+    /**
+     * This method is a helper to provide the state and the version of the last move at once
+     *
+     * @return the current snapshot
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * This method will replace the snapshot a move was computed from by the snapshot after the move, without any
+     * lock. It fails when another move replaced the snapshot first, so the move is computed again from the new one
+     *
+     * @param expected the snapshot the move was computed from
+     * @param next     the snapshot after the move
+     * @return true when the snapshot was replaced
+     */
+    public boolean compareAndSet(
+                    final Snapshot expected,
+                    final Snapshot next
+    ) {
+        return snapshot.compareAndSet(expected, next);
+    }
+
+    /**
+     * This method will run the publication of a swapped move once every move before it is published, so the
+     * repository and the subscribers see the moves in the order of their versions
+     * The publication of the move before is short, so the move waits for it yielding its thread
+     *
+     * @param before      the snapshot replaced by the move
+     * @param after       the snapshot after the move
+     * @param publication the publication of the move
+     */
+    public void publish(
+                    final Snapshot before,
+                    final Snapshot after,
+                    final Runnable publication
+    ) {
+        while (!published.compareAndSet(before, PUBLISHING))
+            Thread.yield();
+        try {
+            publication.run();
+        } finally {
+            published.set(after);
+        }
+    }
+
+    /**
+     * This method will apply the function over the snapshot of the last published move while no move is published,
+     * so a new subscriber gets that board and then every move after it
+     *
+     * @param function the function to apply over the published snapshot
+     * @param <T>      the type of the result
+     * @return the result of the function
+     */
+    public <T> T whilePublished(
+                    final Function<Snapshot, T> function
+    ) {
+        Snapshot current = published.get();
+        while (current == PUBLISHING || !published.compareAndSet(current, PUBLISHING)) {
+            Thread.yield();
+            current = published.get();
+        }
+        try {
+            return function.apply(current);
+        } finally {
+            published.set(current);
+        }
+    }
+
+    /**
+     * This method will set the version of a board restored from a store, as the version is not part of its state
+     *
+     * @param version the version of the board
+     */
+    public void setVersion(
+                    final long version
+    ) {
+        set(new Snapshot(getState(), version));
+    }
+
+    /**
+     * This method will put a working board back to a packed state, so a benchmark replays the same position on
+     * every invocation
      *
-     * @return true if the match finished
+     * @param state the packed state of the same shape
      */
-    private Boolean isMatchEnded() {
-        final Predicate<AtomicInteger> isEqualsZero = (pit) -> pit.get() == 0;
-        return Stream.of(PlayerKind.values()).map(player -> {
-            final BoardPlayerCorner boardPlayerCorner = new BoardPlayerCorner(player, boardSizePerPlayer);
-            return board.subList(boardPlayerCorner.getStart() + 1, boardPlayerCorner.getEnd())
-                            .stream()
-                            .allMatch(isEqualsZero);
-        }).anyMatch(Predicate.isEqual(true));
+    void reset(
+                    final PackedBoard state
+    ) {
+        set(new Snapshot(state, getVersion()));
     }
 
     /**
-     * This method will collect all remaining stones and move all to its collector pit
+     * This method will hash the pits, the player to move and the winner with FNV-1a
+     * Two boards with the same hash are the same game state, so it detects a replayed board diverging from its log
      *
-     * @return a list of collectors with its collected stones
+     * @return the state hash
      */
-    private List<Integer> collectAllRemainStones() {
-        return Stream.of(PlayerKind.values()).map(player -> {
-            final BoardPlayerCorner corner = new BoardPlayerCorner(player, boardSizePerPlayer);
-            final Integer collectedStones = board.subList(corner.getStart() + 1, corner.getEnd()).stream()
-                            .map(pit -> pit.getAndSet(0))
-                            .reduce(0, (a, b) -> a + b);
-            return board.get(corner.getStart()).updateAndGet(stones -> stones + collectedStones);
-        }).collect(Collectors.toList());
+    public long stateHash() {
+        long hash = 0xcbf29ce484222325L;
+        final PackedBoard current = getState();
+        for (int index = 0; index < boardSizePerPlayer * PlayerKind.count(); index++)
+            hash = (hash ^ current.stones(index)) * 0x100000001b3L;
+        hash = (hash ^ current.getCurrentPlayer().getIndex()) * 0x100000001b3L;
+        final PlayerKind winnerInBoard = current.getWinner();
+        return (hash ^ (winnerInBoard == null ? -1 : winnerInBoard.getIndex())) * 0x100000001b3L;
     }
 
     /**
-     * This method will look in the collected stones list for the winner
+     * This method will replace the snapshot by a move under the lock of the repository, published at once as no
+     * move is swapped without the lock on the same board
      *
-     * @param collectedStones a list of collected stones for each player
-     * @return the winner as Optional
+     * @param next the snapshot after the move
      */
-    private Optional<PlayerKind> findWinnerInBoard(
-                    final List<Integer> collectedStones
+    private void set(
+                    final Snapshot next
     ) {
-        return StreamUtils.zipWithIndex(collectedStones.stream())
-                        .sorted(Comparator.comparing(Indexed::getValue))
-                        .reduce((first, second) -> second)
-                        .map(indexedPosition -> {
-                            final Long indexedAsLong = indexedPosition.getIndex();
-                            return PlayerKind.values()[indexedAsLong.intValue()];
-                        });
+        snapshot.set(next);
+        published.set(next);
+    }
+
+    /**
+     * This class holds the state of a board and its version after the same move
+     */
+    public static final class Snapshot {
+
+        private final PackedBoard state;
+        private final long version;
+
+        public Snapshot(
+                        final PackedBoard state,
+                        final long version
+        ) {
+            this.state = state;
+            this.version = version;
+        }
+
+        public PackedBoard getState() {
+            return state;
+        }
+
+        public long getVersion() {
+            return version;
+        }
     }
 }
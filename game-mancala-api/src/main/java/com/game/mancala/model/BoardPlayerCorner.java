@@ -7,8 +7,8 @@ import lombok.Setter;
 @Data
 @Setter(AccessLevel.NONE)
 class BoardPlayerCorner {
-    private final Integer start;
-    private final Integer end;
+    private final int start;
+    private final int end;
 
     /**
      * This constructor will create a board player corner to define the limits of the board for each player
@@ -18,7 +18,7 @@ class BoardPlayerCorner {
      */
     BoardPlayerCorner(
                     final PlayerKind player,
-                    final Integer boardSizePerPlayer
+                    final int boardSizePerPlayer
     ) {
         this.start = boardSizePerPlayer * player.getIndex();
         this.end = start + boardSizePerPlayer;
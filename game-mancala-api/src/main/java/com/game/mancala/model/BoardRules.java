@@ -1,11 +1,9 @@
 package com.game.mancala.model;
 
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+public final class BoardRules {
 
-class BoardRules {
+    private BoardRules() {
+    }
 
     /**
      * This method will check if the index is in the interval of the player board
@@ -15,10 +13,10 @@ class BoardRules {
      * @param endBoardIndex   the end index of the player board
      * @return true if the index is in the interval of start and end
      */
-    public static Boolean isIndexInTheInterval(
-                    final Integer index,
-                    final Integer startBoardIndex,
-                    final Integer endBoardIndex
+    public static boolean isIndexInTheInterval(
+                    final int index,
+                    final int startBoardIndex,
+                    final int endBoardIndex
     ) {
         return index > startBoardIndex && index < endBoardIndex;
     }
@@ -31,12 +29,12 @@ class BoardRules {
      * @param stones the stones to be compare to the board with index
      * @return true if the number in the board(index) is equals to stones
      */
-    public static Boolean isIndexWithStones(
-                    final List<AtomicInteger> board,
-                    final Integer index,
-                    final Integer stones
+    public static boolean isIndexWithStones(
+                    final int[] board,
+                    final int index,
+                    final int stones
     ) {
-        return board.get(index).get() == stones;
+        return board[index] == stones;
     }
 
     /**
@@ -46,63 +44,214 @@ class BoardRules {
      * @param index the current index
      * @return the old number
      */
-    public static Integer getStonesAndSetZero(
-                    final List<AtomicInteger> board,
-                    final Integer index
+    public static int getStonesAndSetZero(
+                    final int[] board,
+                    final int index
     ) {
-        return board.get(index).getAndSet(0);
+        final int stones = board[index];
+        board[index] = 0;
+        return stones;
     }
 
     /**
-     * This method will verify if the index stops in the its collector pit
+     * This method will verify if all pits between start and end (exclusive) run out of stones
      *
+     * @param board           the current board
+     * @param startBoardIndex the first index to check
+     * @param endBoardIndex   the end index (exclusive)
+     * @return true if there is no stone in the interval
+     */
+    public static boolean isIntervalEmpty(
+                    final int[] board,
+                    final int startBoardIndex,
+                    final int endBoardIndex
+    ) {
+        for (int index = startBoardIndex; index < endBoardIndex; index++) {
+            if (board[index] != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method will move all stones between start and end (exclusive) to the collector pit
+     *
+     * @param board           the current board
+     * @param collectorIndex  the collector index
+     * @param startBoardIndex the first index to collect
+     * @param endBoardIndex   the end index (exclusive)
+     * @return the stones in the collector pit after collecting
+     */
+    public static int collectInterval(
+                    final int[] board,
+                    final int collectorIndex,
+                    final int startBoardIndex,
+                    final int endBoardIndex
+    ) {
+        int collectedStones = 0;
+        for (int index = startBoardIndex; index < endBoardIndex; index++)
+            collectedStones += getStonesAndSetZero(board, index);
+        board[collectorIndex] += collectedStones;
+        return board[collectorIndex];
+    }
+
+    /**
+     * This method will sow the stones one by one through the pits before the target index, skipping the other
+     * player collector pit. The full laps around the board are computed at once, so each pit is touched only once
+     *
+     * @param board              the current board
      * @param player             the current player
-     * @param index              the current index
      * @param boardSizePerPlayer the size of the player board
-     * @return true if the index is in its collector pit
+     * @param targetIndex        the index where the stones were taken
+     * @param stones             the stones to sow
+     * @return the last index receiving a stone
      */
-    public static Boolean doNotHaveOtherRound(
+    public static int sowStones(
+                    final int[] board,
                     final PlayerKind player,
-                    final Integer index,
-                    final Integer boardSizePerPlayer
+                    final int boardSizePerPlayer,
+                    final int targetIndex,
+                    final int stones
     ) {
-        return index != boardSizePerPlayer * player.getIndex();
+        return sowStones(board, BoardShape.of(boardSizePerPlayer), player, targetIndex, stones);
     }
 
     /**
-     * This method is a helper to transfer all stones from pit to pit
+     * This method will sow the stones like the other sowing, following the next pits of the player in the rules
+     * tables of the board shape instead of checking each pit for the other player collector
      *
-     * @param board           the current board
-     * @param startBoardIndex the start index of the player
-     * @param index           the current index
+     * @param board       the current board
+     * @param shape       the board shape
+     * @param player      the current player
+     * @param targetIndex the index where the stones were taken
+     * @param stones      the stones to sow
+     * @return the last index receiving a stone
      */
-    public static void transferStones(
-                    final List<AtomicInteger> board,
-                    final Integer startBoardIndex,
-                    final Integer index
+    public static int sowStones(
+                    final int[] board,
+                    final BoardShape shape,
+                    final PlayerKind player,
+                    final int targetIndex,
+                    final int stones
     ) {
-        final Integer targetToLoseIndex = board.size() - index;
-        final Integer stonesToTransfer = board.get(targetToLoseIndex).getAndSet(0);
-        board.get(startBoardIndex).updateAndGet(stones -> stones + stonesToTransfer);
+        final int ringLength = shape.getRingLength();
+        final int laps = stones / ringLength;
+        final int remainder = stones % ringLength;
+        final int steps = laps > 0 ? ringLength : remainder;
+        final int[] nextPits = shape.nextPitsOf(player);
+
+        int index = targetIndex;
+        int lastIndex = targetIndex;
+        for (int step = 1; step <= steps; step++) {
+            index = nextPits[index];
+            board[index] += step <= remainder ? laps + 1 : laps;
+            if (step == remainder)
+                lastIndex = index;
+        }
+        return lastIndex;
     }
 
     /**
-     * This method will verify if the index stops in the other player collector pit
+     * This method will take the stones of the target index, sow them and capture the stones of the opposite pit
+     * when the last stone lands in an empty pit of the player. It does not validate the move
+     *
+     * @param board              the current board
+     * @param player             the current player
+     * @param boardSizePerPlayer the size of the player board
+     * @param targetIndex        the index to take the stones from
+     * @return the last index receiving a stone
+     */
+    public static int moveStones(
+                    final int[] board,
+                    final PlayerKind player,
+                    final int boardSizePerPlayer,
+                    final int targetIndex
+    ) {
+        final BoardShape shape = BoardShape.of(boardSizePerPlayer);
+        final int stones = getStonesAndSetZero(board, targetIndex);
+        final int lastIndex = sowStones(board, shape, player, targetIndex, stones);
+
+        if (shape.isPitOf(player, lastIndex) && isIndexWithStones(board, lastIndex, 1))
+            transferStones(board, shape, shape.collectorOf(player), lastIndex);
+        return lastIndex;
+    }
+
+    /**
+     * This method will look for the player board that run out of the stones to decides if the match was finished
+     *
+     * @param board              the current board
+     * @param boardSizePerPlayer the size of the player board
+     * @return true if the match finished
+     */
+    public static boolean isMatchEnded(
+                    final int[] board,
+                    final int boardSizePerPlayer
+    ) {
+        for (int start = 0; start < board.length; start += boardSizePerPlayer) {
+            if (isIntervalEmpty(board, start + 1, start + boardSizePerPlayer))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method will collect all remaining stones and move all to its collector pit
+     * The winner is the player with more collected stones, when it is a tie the last player wins
+     *
+     * @param board              the current board
+     * @param boardSizePerPlayer the size of the player board
+     * @return the winner
+     */
+    public static PlayerKind collectAllRemainStones(
+                    final int[] board,
+                    final int boardSizePerPlayer
+    ) {
+        int winnerIndex = 0;
+        int winnerStones = Integer.MIN_VALUE;
+        for (int player = 0; player < PlayerKind.count(); player++) {
+            final int start = boardSizePerPlayer * player;
+            final int collectedStones = collectInterval(board, start, start + 1, start + boardSizePerPlayer);
+            if (collectedStones >= winnerStones) {
+                winnerIndex = player;
+                winnerStones = collectedStones;
+            }
+        }
+        return PlayerKind.of(winnerIndex);
+    }
+
+    /**
+     * This method will verify if the index stops in the its collector pit
      *
      * @param player             the current player
-     * @param boardSizePerPlayer the board size of the player
      * @param index              the current index
-     * @return true if the index stops in the other player collector pit
+     * @param boardSizePerPlayer the size of the player board
+     * @return true if the index is in its collector pit
      */
-    public static Boolean isOtherPlayerCollector(
+    public static boolean doNotHaveOtherRound(
                     final PlayerKind player,
-                    final Integer boardSizePerPlayer,
-                    final Integer index
+                    final int index,
+                    final int boardSizePerPlayer
+    ) {
+        return index != boardSizePerPlayer * player.getIndex();
+    }
+
+    /**
+     * This method is a helper to capture the stones of the pit opposite to the index into the collector
+     *
+     * @param board     the current board
+     * @param shape     the board shape
+     * @param collector the collector index of the player
+     * @param index     the current index
+     * @return the captured stones
+     */
+    private static int transferStones(
+                    final int[] board,
+                    final BoardShape shape,
+                    final int collector,
+                    final int index
     ) {
-        return Stream.of(PlayerKind.values())
-                        .filter(e -> !e.equals(player))
-                        .map(otherPlayer -> {
-                            return boardSizePerPlayer * otherPlayer.getIndex() == index;
-                        }).anyMatch(Predicate.isEqual(true));
+        final int stones = getStonesAndSetZero(board, shape.oppositeOf(index));
+        board[collector] += stones;
+        return stones;
     }
 }
@@ -0,0 +1,243 @@
+package com.game.mancala.model;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * This class holds the rules tables of a board shape: the collector and the limits of each player board, the next
+ * pit of the sowing of each player, already skipping the other player collector, and the opposite pit of each pit
+ * A shape only depends on the size of the player board, so it is built once and shared by every board of that size
+ * A shape fitting a packed board also holds the masks of its moves: the pits sown by each lap and by each remainder
+ * of the stones of each pit, the pit of the last stone and the pits of each player board
+ */
+@Getter
+public final class BoardShape {
+
+    private static final int CACHED_SIZES = 32;
+    private static final int MIN_SIZE = 2;
+    /**
+     * The sizes of the player board served by the API, from 2 to 6 pits plus the collector
+     */
+    private static final int MIN_SERVED_SIZE = 3;
+    private static final int MAX_SERVED_SIZE = 7;
+    private static final AtomicReferenceArray<BoardShape> SHAPES = new AtomicReferenceArray<>(CACHED_SIZES);
+
+    static {
+        for (int boardSizePerPlayer = MIN_SERVED_SIZE; boardSizePerPlayer <= MAX_SERVED_SIZE; boardSizePerPlayer++)
+            SHAPES.set(boardSizePerPlayer, new BoardShape(boardSizePerPlayer));
+    }
+
+    private final int boardSizePerPlayer;
+    private final int ringLength;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] collectors;
+    @Getter(AccessLevel.NONE)
+    private final BoardPlayerCorner[] corners;
+    @Getter(AccessLevel.NONE)
+    private final int[][] nextPits;
+    @Getter(AccessLevel.NONE)
+    private final int[] oppositePits;
+    @Getter(AccessLevel.NONE)
+    private final long[][] lapMasks;
+    @Getter(AccessLevel.NONE)
+    private final long[][][] sowMasks;
+    @Getter(AccessLevel.NONE)
+    private final int[][] lastPits;
+    @Getter(AccessLevel.NONE)
+    private final long[][] sideMasks;
+
+    private BoardShape(
+                    final int boardSizePerPlayer
+    ) {
+        final int length = boardSizePerPlayer * PlayerKind.count();
+        this.boardSizePerPlayer = boardSizePerPlayer;
+        this.ringLength = length - (PlayerKind.count() - 1);
+        this.collectors = new int[PlayerKind.count()];
+        this.corners = new BoardPlayerCorner[PlayerKind.count()];
+        this.nextPits = new int[PlayerKind.count()][length];
+        this.oppositePits = new int[length];
+
+        for (int player = 0; player < PlayerKind.count(); player++) {
+            collectors[player] = boardSizePerPlayer * player;
+            corners[player] = new BoardPlayerCorner(PlayerKind.of(player), boardSizePerPlayer);
+            for (int index = 0; index < length; index++) {
+                int next = index == 0 ? length - 1 : index - 1;
+                if (next % boardSizePerPlayer == 0 && next != collectors[player])
+                    next = next == 0 ? length - 1 : next - 1;
+                nextPits[player][index] = next;
+            }
+        }
+        for (int index = 1; index < length; index++)
+            oppositePits[index] = length - index;
+
+        if (length > PackedBoard.MAX_PITS) {
+            this.lapMasks = null;
+            this.sowMasks = null;
+            this.lastPits = null;
+            this.sideMasks = null;
+            return;
+        }
+        this.lapMasks = new long[PlayerKind.count()][2];
+        this.sowMasks = new long[PlayerKind.count()][2][length * ringLength];
+        this.lastPits = new int[PlayerKind.count()][length * ringLength];
+        this.sideMasks = new long[PlayerKind.count()][2];
+        for (int player = 0; player < PlayerKind.count(); player++) {
+            for (int index = 0; index < length; index++) {
+                if (index != collectors[PlayerKind.count() - 1 - player])
+                    addMask(lapMasks[player], index, 1);
+                if (isPitOf(PlayerKind.of(player), index))
+                    addMask(sideMasks[player], index, 0xFF);
+            }
+            for (int target = 0; target < length; target++) {
+                final long[] sown = new long[2];
+                int last = target;
+                for (int remainder = 0; remainder < ringLength; remainder++) {
+                    sowMasks[player][0][target * ringLength + remainder] = sown[0];
+                    sowMasks[player][1][target * ringLength + remainder] = sown[1];
+                    lastPits[player][target * ringLength + remainder] = last;
+                    last = nextPits[player][last];
+                    addMask(sown, last, 1);
+                }
+            }
+        }
+    }
+
+    private static void addMask(
+                    final long[] mask,
+                    final int index,
+                    final long value
+    ) {
+        mask[index < PackedBoard.LOW_PITS ? 0 : 1] |= value << PackedBoard.shiftOf(index);
+    }
+
+    /**
+     * This method will provide the shape of a size of the player board, built with the class for the sizes served by
+     * the API so the first move of a board does not build its tables. The other sizes are built by their first board
+     * and shared after it
+     *
+     * @param boardSizePerPlayer the size of the player board including its collector
+     * @return the board shape
+     */
+    public static BoardShape of(
+                    final int boardSizePerPlayer
+    ) {
+        if (boardSizePerPlayer < MIN_SIZE || boardSizePerPlayer >= CACHED_SIZES)
+            return new BoardShape(boardSizePerPlayer);
+
+        final BoardShape shape = SHAPES.get(boardSizePerPlayer);
+        if (shape != null)
+            return shape;
+
+        SHAPES.compareAndSet(boardSizePerPlayer, null, new BoardShape(boardSizePerPlayer));
+        return SHAPES.get(boardSizePerPlayer);
+    }
+
+    /**
+     * This method is a helper to provide the collector index of a player
+     *
+     * @param player the player
+     * @return the collector index
+     */
+    public int collectorOf(
+                    final PlayerKind player
+    ) {
+        return collectors[player.getIndex()];
+    }
+
+    /**
+     * This method will check if the index is a pit of the player board, not its collector
+     *
+     * @param player the player
+     * @param index  the index
+     * @return true if the index is a pit of the player
+     */
+    public boolean isPitOf(
+                    final PlayerKind player,
+                    final int index
+    ) {
+        final BoardPlayerCorner corner = corners[player.getIndex()];
+        return BoardRules.isIndexInTheInterval(index, corner.getStart(), corner.getEnd());
+    }
+
+    /**
+     * This method will provide the next pit of the sowing of a player, skipping the other player collector
+     *
+     * @param player the sowing player
+     * @return the next index indexed by the current index, owned by the shape
+     */
+    int[] nextPitsOf(
+                    final PlayerKind player
+    ) {
+        return nextPits[player.getIndex()];
+    }
+
+    /**
+     * This method is a helper to provide the pit in front of a pit, the one captured when the last stone of a move
+     * lands in an empty pit
+     *
+     * @param index the pit index
+     * @return the opposite pit index
+     */
+    public int oppositeOf(
+                    final int index
+    ) {
+        return oppositePits[index];
+    }
+
+    /**
+     * This method is a helper to provide the mask adding one stone to each pit sown by a player, one lap of stones
+     *
+     * @param player the player index
+     * @param word   the low or the high long of a packed board
+     * @return the mask
+     */
+    long lapMaskOf(
+                    final int player,
+                    final int word
+    ) {
+        return lapMasks[player][word];
+    }
+
+    /**
+     * This method is a helper to provide the masks adding one stone to each pit sown by a remainder of stones
+     *
+     * @param player the player index
+     * @param word   the low or the high long of a packed board
+     * @return the masks indexed by the target index times the ring length plus the remainder, owned by the shape
+     */
+    long[] sowMasksOf(
+                    final int player,
+                    final int word
+    ) {
+        return sowMasks[player][word];
+    }
+
+    /**
+     * This method is a helper to provide the pit of the last stone sown by a remainder of stones
+     *
+     * @param player the player index
+     * @return the pits indexed like the sow masks, owned by the shape
+     */
+    int[] lastPitsOf(
+                    final int player
+    ) {
+        return lastPits[player];
+    }
+
+    /**
+     * This method is a helper to provide the mask of the pits of a player board, not its collector
+     *
+     * @param player the player index
+     * @param word   the low or the high long of a packed board
+     * @return the mask
+     */
+    long sideMaskOf(
+                    final int player,
+                    final int word
+    ) {
+        return sideMasks[player][word];
+    }
+}
@@ -7,6 +7,8 @@ import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
@@ -29,6 +31,26 @@ public class BoardWrapper {
         private Integer stonesPerPit;
     }
 
+    @Data
+    @NoArgsConstructor
+    @Setter(AccessLevel.NONE)
+    public static class Batch {
+        @Min(2)
+        @Max(6)
+        @NotNull
+        private Integer boardSize;
+
+        @Min(1)
+        @Max(6)
+        @NotNull
+        private Integer stonesPerPit;
+
+        @Min(1)
+        @Max(10000)
+        @NotNull
+        private Integer count;
+    }
+
     @Builder
     @Data
     @Setter(AccessLevel.NONE)
@@ -38,6 +60,40 @@ public class BoardWrapper {
         private final Integer boardSizePerPlayer;
         private final Boolean isOpen;
         private final PlayerKind winner;
+        private final Long version;
         private final List<Integer> board;
+        @JsonIgnore
+        private final PackedBoard state;
+    }
+
+    @Builder
+    @Data
+    @Setter(AccessLevel.NONE)
+    public static class Delta {
+        private final UUID id;
+        private final List<Integer> pits;
+        private final List<Integer> stones;
+        private final PlayerKind currentPlayer;
+        private final Boolean isOpen;
+        private final PlayerKind winner;
+        private final Long version;
+    }
+
+    @Builder
+    @Data
+    @Setter(AccessLevel.NONE)
+    public static class Outcome {
+        private final UUID id;
+        private final Boolean solved;
+        private final PlayerKind winner;
+    }
+
+    @Builder
+    @Data
+    @Setter(AccessLevel.NONE)
+    public static class Rejection {
+        private final Integer status;
+        private final String error;
+        private final String message;
     }
 }
@@ -0,0 +1,287 @@
+package com.game.mancala.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is the whole state of a board packed in two longs: one byte per pit, up to {@link #MAX_PITS} pits,
+ * followed by the player to move, the open flag, the winner and the size of the player board
+ * A pit never holds more than the stones of the board, so a move adds the sown stones to every pit at once with the
+ * masks of the rules tables of the board shape, no carry crossing from one pit to the next (SWAR)
+ * The state is immutable, a move answers a new state, so copying, comparing and hashing a board is two longs
+ */
+public final class PackedBoard {
+
+    public static final int MAX_PITS = 14;
+    public static final int MAX_STONES = 0xFF;
+
+    static final int LOW_PITS = Long.BYTES;
+
+    private static final long PIT_MASK = 0xFF;
+    private static final long BYTE_SUM = 0x0101010101010101L;
+    private static final int PLAYER_SHIFT = 56;
+    private static final int OPEN_SHIFT = 57;
+    private static final int WINNER_SHIFT = 58;
+    private static final int SIZE_SHIFT = 60;
+    private static final long PLAYER_BIT = 1L << PLAYER_SHIFT;
+    private static final long OPEN_BIT = 1L << OPEN_SHIFT;
+    private static final long WINNER_BITS = 3L << WINNER_SHIFT;
+
+    private final long low;
+    private final long high;
+
+    private PackedBoard(
+                    final long low,
+                    final long high
+    ) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * This method will pack a board
+     *
+     * @param boardSizePerPlayer the size of the player board including its collector
+     * @param board              the pits of the board
+     * @param currentPlayer      the player to move
+     * @param isOpen             false when the match is finished
+     * @param winner             the winner of a finished match, may be null
+     * @return the packed board
+     * @throws IllegalArgumentException when the board has more pits or stones than a packed board holds
+     */
+    public static PackedBoard of(
+                    final int boardSizePerPlayer,
+                    final int[] board,
+                    final PlayerKind currentPlayer,
+                    final boolean isOpen,
+                    final PlayerKind winner
+    ) {
+        if (board.length > MAX_PITS || board.length != boardSizePerPlayer * PlayerKind.count())
+            throw new IllegalArgumentException("a packed board holds up to " + MAX_PITS + " pits");
+
+        long low = 0;
+        long high = (long) boardSizePerPlayer << SIZE_SHIFT
+                        | (long) currentPlayer.getIndex() << PLAYER_SHIFT
+                        | (isOpen ? OPEN_BIT : 0)
+                        | (long) (winner == null ? 0 : winner.getIndex() + 1) << WINNER_SHIFT;
+        int total = 0;
+        for (int index = 0; index < board.length; index++) {
+            total += board[index];
+            if (board[index] < 0 || total > MAX_STONES)
+                throw new IllegalArgumentException("a packed board holds up to " + MAX_STONES + " stones");
+            if (index < LOW_PITS)
+                low |= (long) board[index] << shiftOf(index);
+            else
+                high |= (long) board[index] << shiftOf(index);
+        }
+        return new PackedBoard(low, high);
+    }
+
+    /**
+     * This method will rebuild a packed board from its two longs, as written by a store
+     *
+     * @param low  the low long
+     * @param high the high long
+     * @return the packed board
+     */
+    public static PackedBoard of(
+                    final long low,
+                    final long high
+    ) {
+        return new PackedBoard(low, high);
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public int getBoardSizePerPlayer() {
+        return (int) (high >>> SIZE_SHIFT);
+    }
+
+    public PlayerKind getCurrentPlayer() {
+        return PlayerKind.of((int) (high >>> PLAYER_SHIFT) & 1);
+    }
+
+    public boolean isOpen() {
+        return (high & OPEN_BIT) != 0;
+    }
+
+    /**
+     * This method is a helper to provide the winner of a finished match
+     *
+     * @return the winner or null while the match is open
+     */
+    public PlayerKind getWinner() {
+        final int winner = (int) ((high & WINNER_BITS) >>> WINNER_SHIFT);
+        return winner == 0 ? null : PlayerKind.of(winner - 1);
+    }
+
+    /**
+     * This method is a helper to provide the stones of a pit
+     *
+     * @param index the pit index
+     * @return the stones of the pit
+     */
+    public int stones(
+                    final int index
+    ) {
+        return pitOf(low, high, index);
+    }
+
+    /**
+     * This method will unpack the pits to a new array
+     *
+     * @return the pits of the board
+     */
+    public int[] pits() {
+        final int[] pits = new int[getBoardSizePerPlayer() * PlayerKind.count()];
+        for (int index = 0; index < pits.length; index++)
+            pits[index] = pitOf(low, high, index);
+        return pits;
+    }
+
+    /**
+     * This method will take the stones of the target index, sow them and capture the stones of the opposite pit
+     * when the last stone lands in an empty pit of the player, like the rules of the pits arrays. The player to
+     * move changes unless the last stone lands in the player collector. It does not validate the move
+     *
+     * @param targetIndex the index to take the stones from
+     * @return the board after the move
+     */
+    public PackedBoard move(
+                    final int targetIndex
+    ) {
+        final BoardShape shape = BoardShape.of(getBoardSizePerPlayer());
+        final int player = (int) (high >>> PLAYER_SHIFT) & 1;
+        final int ringLength = shape.getRingLength();
+        final int stones = pitOf(low, high, targetIndex);
+        final int laps = stones / ringLength;
+        final int sow = targetIndex * ringLength + stones % ringLength;
+
+        long nextLow = low;
+        long nextHigh = high;
+        if (targetIndex < LOW_PITS)
+            nextLow &= ~(PIT_MASK << shiftOf(targetIndex));
+        else
+            nextHigh &= ~(PIT_MASK << shiftOf(targetIndex));
+        nextLow += laps * shape.lapMaskOf(player, 0) + shape.sowMasksOf(player, 0)[sow];
+        nextHigh += laps * shape.lapMaskOf(player, 1) + shape.sowMasksOf(player, 1)[sow];
+
+        final int lastIndex = shape.lastPitsOf(player)[sow];
+        final int collector = shape.getBoardSizePerPlayer() * player;
+        if (shape.isPitOf(PlayerKind.of(player), lastIndex) && pitOf(nextLow, nextHigh, lastIndex) == 1) {
+            final int opposite = shape.oppositeOf(lastIndex);
+            final long captured = pitOf(nextLow, nextHigh, opposite);
+            if (opposite < LOW_PITS)
+                nextLow &= ~(PIT_MASK << shiftOf(opposite));
+            else
+                nextHigh &= ~(PIT_MASK << shiftOf(opposite));
+            if (collector < LOW_PITS)
+                nextLow += captured << shiftOf(collector);
+            else
+                nextHigh += captured << shiftOf(collector);
+        }
+        if (lastIndex != collector)
+            nextHigh ^= PLAYER_BIT;
+        return new PackedBoard(nextLow, nextHigh);
+    }
+
+    /**
+     * This method will check if a player board run out of stones, testing the bytes of each player board at once
+     *
+     * @return true if the match ended
+     */
+    public boolean isMatchEnded() {
+        final BoardShape shape = BoardShape.of(getBoardSizePerPlayer());
+        for (int player = 0; player < PlayerKind.count(); player++) {
+            if ((low & shape.sideMaskOf(player, 0)) == 0 && (high & shape.sideMaskOf(player, 1)) == 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method will close an ended match, moving the stones of each player board to its collector and picking
+     * the winner by the collectors. When it is a tie the last player wins
+     *
+     * @return the finished board or the same board while the match is not ended
+     */
+    public PackedBoard processPossibleWinner() {
+        if (!isMatchEnded())
+            return this;
+
+        final BoardShape shape = BoardShape.of(getBoardSizePerPlayer());
+        long nextLow = low;
+        long nextHigh = high & ~(OPEN_BIT | WINNER_BITS);
+        int winner = 0;
+        int winnerStones = Integer.MIN_VALUE;
+        for (int player = 0; player < PlayerKind.count(); player++) {
+            final long sideLow = shape.sideMaskOf(player, 0);
+            final long sideHigh = shape.sideMaskOf(player, 1);
+            final long stones = byteSum(nextLow & sideLow) + byteSum(nextHigh & sideHigh);
+            nextLow &= ~sideLow;
+            nextHigh &= ~sideHigh;
+
+            final int collector = shape.getBoardSizePerPlayer() * player;
+            if (collector < LOW_PITS)
+                nextLow += stones << shiftOf(collector);
+            else
+                nextHigh += stones << shiftOf(collector);
+            final int collected = pitOf(nextLow, nextHigh, collector);
+            if (collected >= winnerStones) {
+                winner = player;
+                winnerStones = collected;
+            }
+        }
+        return new PackedBoard(nextLow, nextHigh | (long) (winner + 1) << WINNER_SHIFT);
+    }
+
+    @Override
+    public boolean equals(
+                    final Object other
+    ) {
+        if (this == other)
+            return true;
+        if (!(other instanceof PackedBoard))
+            return false;
+        final PackedBoard board = (PackedBoard) other;
+        return low == board.low && high == board.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low * 31 + high);
+    }
+
+    @Override
+    public String toString() {
+        return "PackedBoard(" + getCurrentPlayer() + ", " + Arrays.toString(pits()) + ")";
+    }
+
+    static int shiftOf(
+                    final int index
+    ) {
+        return (index & (LOW_PITS - 1)) << 3;
+    }
+
+    private static int pitOf(
+                    final long low,
+                    final long high,
+                    final int index
+    ) {
+        return (int) ((index < LOW_PITS ? low : high) >>> shiftOf(index) & PIT_MASK);
+    }
+
+    /**
+     * This method will add the bytes of a long with one multiplication, the sum fits a byte
+     */
+    private static long byteSum(
+                    final long bytes
+    ) {
+        return bytes * BYTE_SUM >>> 56;
+    }
+}
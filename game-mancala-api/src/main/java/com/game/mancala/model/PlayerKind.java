@@ -10,6 +10,7 @@ import lombok.Getter;
 public enum PlayerKind {
     PLAYER_1(0),
     PLAYER_2(1);
+    private static final PlayerKind[] PLAYERS = PlayerKind.values();
     private int index;
 
     /**
@@ -18,9 +19,29 @@ public enum PlayerKind {
      * @return a randomized player
      */
     public static PlayerKind random() {
-        final PlayerKind[] players = PlayerKind.values();
-        final int randomPlayerIndex = ThreadLocalRandom.current().nextInt(0, players.length);
-        return players[randomPlayerIndex];
+        final int randomPlayerIndex = ThreadLocalRandom.current().nextInt(0, PLAYERS.length);
+        return PLAYERS[randomPlayerIndex];
+    }
+
+    /**
+     * This method is a helper to provide the player by its index without copying the values array
+     *
+     * @param index the player index
+     * @return the player
+     */
+    public static PlayerKind of(
+                    final int index
+    ) {
+        return PLAYERS[index];
+    }
+
+    /**
+     * This method is a helper to provide the amount of players without copying the values array
+     *
+     * @return the amount of players
+     */
+    public static int count() {
+        return PLAYERS.length;
     }
 
     /**
@@ -33,8 +54,8 @@ public enum PlayerKind {
                     final PlayerKind currentPlayer
     ) {
         final int nextPlayerIndex = currentPlayer.getIndex() + 1;
-        if (nextPlayerIndex < PlayerKind.values().length)
-            return PlayerKind.values()[nextPlayerIndex];
+        if (nextPlayerIndex < PLAYERS.length)
+            return PLAYERS[nextPlayerIndex];
         return PlayerKind.PLAYER_1;
     }
 }
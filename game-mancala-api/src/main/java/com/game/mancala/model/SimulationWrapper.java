@@ -0,0 +1,54 @@
+package com.game.mancala.model;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+public class SimulationWrapper {
+    public enum Policy {
+        RANDOM,
+        GREEDY
+    }
+
+    @Data
+    @NoArgsConstructor
+    @Setter(AccessLevel.NONE)
+    public static class Create {
+        @Valid
+        @NotNull
+        private BoardWrapper.Create board;
+
+        @Min(1)
+        @Max(10_000_000)
+        @NotNull
+        private Long games;
+
+        @NotNull
+        private Policy policy = Policy.RANDOM;
+
+        private Long seed;
+    }
+
+    @Builder
+    @Data
+    @Setter(AccessLevel.NONE)
+    public static class Result {
+        private final Long games;
+        private final Double firstPlayerWinRate;
+        private final Double firstPlayerLossRate;
+        private final Double drawRate;
+        private final Double averageGameLength;
+        private final Map<PlayerKind, List<Long>> storeHistograms;
+        private final Long elapsedMillis;
+    }
+}
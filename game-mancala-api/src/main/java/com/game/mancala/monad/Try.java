@@ -123,7 +123,8 @@ public abstract class Try<T> {
     public abstract T get() throws Throwable;
 
     /**
-     * Gets the value T on Success or throws the cause of the failure wrapped into a RuntimeException
+     * Gets the value T on Success or throws the cause of the failure, wrapped into a RuntimeException when it is a
+     * checked exception
      *
      * @return T
      * @throws RuntimeException
@@ -353,6 +354,8 @@ class Failure<T> extends Try<T> {
 
     @Override
     public T getUnchecked() {
+        if (e instanceof RuntimeException)
+            throw (RuntimeException) e;
         throw new RuntimeException(e);
     }
 
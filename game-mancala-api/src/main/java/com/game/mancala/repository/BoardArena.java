@@ -0,0 +1,271 @@
+package com.game.mancala.repository;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import com.game.mancala.model.PackedBoard;
+
+/**
+ * This class keeps boards out of the heap in fixed size slots of a direct buffer: the two longs of the board ID,
+ * the two longs of its packed state, its version and the link to the next finished board
+ * An open addressing index out of the heap maps the two longs of an ID to its slot, probing the next buckets on a
+ * collision and shifting them back on a removal, so the index never holds deleted buckets
+ * The finished boards are chained in the order they finished and the oldest one is recycled when every slot is used
+ * The arena does not lock: the index and the used slots are guarded by the caller, each slot by its board lock and
+ * the chain of the finished boards by the arena itself
+ */
+class BoardArena {
+
+    static final int NONE = -1;
+    static final int SLOT_BYTES = 48;
+
+    private static final int MOST_SIGNIFICANT = 0;
+    private static final int LEAST_SIGNIFICANT = 8;
+    private static final int LOW = 16;
+    private static final int HIGH = 24;
+    private static final int VERSION = 32;
+    private static final int NEXT = 40;
+
+    private final ByteBuffer slots;
+    private final ByteBuffer index;
+    private final int capacity;
+    private final int buckets;
+    private int used;
+    private int size;
+    private int finishedHead;
+    private int finishedTail;
+
+    /**
+     * This constructor will allocate the slots and an index of a power of two buckets, at least twice the slots
+     *
+     * @param capacity the maximum amount of boards
+     */
+    BoardArena(
+                    final int capacity
+    ) {
+        if (capacity < 1 || capacity > Integer.MAX_VALUE / SLOT_BYTES)
+            throw new IllegalArgumentException("the board arena holds up to " + Integer.MAX_VALUE / SLOT_BYTES
+                            + " boards");
+
+        this.capacity = capacity;
+        this.buckets = Integer.highestOneBit(capacity) << 2;
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        this.index = ByteBuffer.allocateDirect(buckets * Integer.BYTES);
+        this.finishedHead = NONE;
+        this.finishedTail = NONE;
+    }
+
+    /**
+     * This method is a helper to provide the amount of the indexed boards, open and finished
+     *
+     * @return the amount of the boards
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * This method is a helper to provide the bytes taken out of the heap by the slots and the index
+     *
+     * @return the amount of the bytes
+     */
+    long bytes() {
+        return (long) slots.capacity() + index.capacity();
+    }
+
+    /**
+     * This method will look for the slot of a board through the index
+     *
+     * @param id the board ID
+     * @return the slot or {@link #NONE}
+     */
+    int find(
+                    final UUID id
+    ) {
+        final int bucket = bucketOf(id);
+        return bucket == NONE ? NONE : index.getInt(bucket * Integer.BYTES) - 1;
+    }
+
+    /**
+     * This method will hand out a slot never used before
+     *
+     * @return the slot or {@link #NONE} when every slot was used
+     */
+    int allocate() {
+        return used == capacity ? NONE : used++;
+    }
+
+    /**
+     * This method will write a board into a slot and index it
+     *
+     * @param slot    the slot, not indexed
+     * @param id      the board ID, not indexed
+     * @param state   the packed state of the board
+     * @param version the version of the board
+     */
+    void put(
+                    final int slot,
+                    final UUID id,
+                    final PackedBoard state,
+                    final long version
+    ) {
+        final int offset = slot * SLOT_BYTES;
+        slots.putLong(offset + MOST_SIGNIFICANT, id.getMostSignificantBits());
+        slots.putLong(offset + LEAST_SIGNIFICANT, id.getLeastSignificantBits());
+        slots.putInt(offset + NEXT, NONE);
+        write(slot, state, version);
+
+        int bucket = homeOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        while (index.getInt(bucket * Integer.BYTES) != 0)
+            bucket = (bucket + 1) & (buckets - 1);
+        index.putInt(bucket * Integer.BYTES, slot + 1);
+        size++;
+    }
+
+    /**
+     * This method will remove a board from the index, shifting back the next buckets probed past it
+     *
+     * @param id the board ID
+     */
+    void remove(
+                    final UUID id
+    ) {
+        int hole = bucketOf(id);
+        if (hole == NONE)
+            return;
+
+        int bucket = (hole + 1) & (buckets - 1);
+        int entry;
+        while ((entry = index.getInt(bucket * Integer.BYTES)) != 0) {
+            final int offset = (entry - 1) * SLOT_BYTES;
+            final int home = homeOf(slots.getLong(offset + MOST_SIGNIFICANT),
+                            slots.getLong(offset + LEAST_SIGNIFICANT));
+            if (((bucket - home) & (buckets - 1)) >= ((bucket - hole) & (buckets - 1))) {
+                index.putInt(hole * Integer.BYTES, entry);
+                hole = bucket;
+            }
+            bucket = (bucket + 1) & (buckets - 1);
+        }
+        index.putInt(hole * Integer.BYTES, 0);
+        size--;
+    }
+
+    /**
+     * This method will check the board held by a slot, as a slot found before its board was recycled holds another one
+     *
+     * @param slot the slot
+     * @param id   the board ID
+     * @return true if the slot holds the board
+     */
+    boolean holds(
+                    final int slot,
+                    final UUID id
+    ) {
+        final int offset = slot * SLOT_BYTES;
+        return slots.getLong(offset + MOST_SIGNIFICANT) == id.getMostSignificantBits()
+                        && slots.getLong(offset + LEAST_SIGNIFICANT) == id.getLeastSignificantBits();
+    }
+
+    /**
+     * This method is a helper to provide the ID of the board held by a slot
+     *
+     * @param slot the slot
+     * @return the board ID
+     */
+    UUID idOf(
+                    final int slot
+    ) {
+        final int offset = slot * SLOT_BYTES;
+        return new UUID(slots.getLong(offset + MOST_SIGNIFICANT), slots.getLong(offset + LEAST_SIGNIFICANT));
+    }
+
+    PackedBoard stateOf(
+                    final int slot
+    ) {
+        final int offset = slot * SLOT_BYTES;
+        return PackedBoard.of(slots.getLong(offset + LOW), slots.getLong(offset + HIGH));
+    }
+
+    long versionOf(
+                    final int slot
+    ) {
+        return slots.getLong(slot * SLOT_BYTES + VERSION);
+    }
+
+    /**
+     * This method will write the state and the version of the board held by a slot
+     *
+     * @param slot    the slot
+     * @param state   the packed state of the board
+     * @param version the version of the board
+     */
+    void write(
+                    final int slot,
+                    final PackedBoard state,
+                    final long version
+    ) {
+        final int offset = slot * SLOT_BYTES;
+        slots.putLong(offset + LOW, state.getLow());
+        slots.putLong(offset + HIGH, state.getHigh());
+        slots.putLong(offset + VERSION, version);
+    }
+
+    /**
+     * This method will chain a finished board after the boards finished before it
+     *
+     * @param slot the slot of the finished board
+     */
+    synchronized void finished(
+                    final int slot
+    ) {
+        if (finishedTail == NONE)
+            finishedHead = slot;
+        else
+            slots.putInt(finishedTail * SLOT_BYTES + NEXT, slot);
+        finishedTail = slot;
+    }
+
+    /**
+     * This method will take the board finished first out of the chain, to recycle its slot
+     *
+     * @return the slot or {@link #NONE} when no board finished
+     */
+    synchronized int oldestFinished() {
+        final int slot = finishedHead;
+        if (slot != NONE) {
+            finishedHead = slots.getInt(slot * SLOT_BYTES + NEXT);
+            if (finishedHead == NONE)
+                finishedTail = NONE;
+        }
+        return slot;
+    }
+
+    private int bucketOf(
+                    final UUID id
+    ) {
+        final long mostSignificant = id.getMostSignificantBits();
+        final long leastSignificant = id.getLeastSignificantBits();
+        int bucket = homeOf(mostSignificant, leastSignificant);
+        int entry;
+        while ((entry = index.getInt(bucket * Integer.BYTES)) != 0) {
+            final int offset = (entry - 1) * SLOT_BYTES;
+            if (slots.getLong(offset + MOST_SIGNIFICANT) == mostSignificant
+                            && slots.getLong(offset + LEAST_SIGNIFICANT) == leastSignificant)
+                return bucket;
+            bucket = (bucket + 1) & (buckets - 1);
+        }
+        return NONE;
+    }
+
+    /**
+     * This method will mix the two longs of an ID to its first bucket, as the IDs are not always random
+     */
+    private int homeOf(
+                    final long mostSignificant,
+                    final long leastSignificant
+    ) {
+        long hash = (mostSignificant ^ Long.rotateLeft(leastSignificant, 32)) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 29;
+        return (int) hash & (buckets - 1);
+    }
+}
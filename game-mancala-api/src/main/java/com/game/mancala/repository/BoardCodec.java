@@ -0,0 +1,79 @@
+package com.game.mancala.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import com.game.mancala.model.Board;
+import com.game.mancala.model.PackedBoard;
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This class encodes a board without its ID, as written by the cold store and sent between the nodes of a cluster
+ * A board is its size, the player to move, the open flag, the winner, one byte per pit and its version
+ */
+public final class BoardCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte NO_WINNER = -1;
+    private static final int HEADER_BYTES = 6;
+
+    private BoardCodec() {
+    }
+
+    /**
+     * This method will encode the state and the version of the same move of the board
+     *
+     * @param board the board to be encoded
+     * @return the encoded board
+     */
+    public static byte[] encode(
+                    final Board board
+    ) {
+        final Board.Snapshot snapshot = board.snapshot();
+        final PackedBoard state = snapshot.getState();
+        final int[] pits = state.pits();
+        final PlayerKind winner = state.getWinner();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + pits.length + Long.BYTES);
+        buffer.put(VERSION)
+                        .put((byte) board.getBoardSizePerPlayer())
+                        .put((byte) state.getCurrentPlayer().getIndex())
+                        .put((byte) (state.isOpen() ? 1 : 0))
+                        .put(winner == null ? NO_WINNER : (byte) winner.getIndex())
+                        .put((byte) pits.length);
+        for (final int stones : pits)
+            buffer.put((byte) stones);
+        buffer.putLong(snapshot.getVersion());
+        return buffer.array();
+    }
+
+    /**
+     * This method will decode a board encoded by the other one
+     *
+     * @param id     the board ID
+     * @param buffer the encoded board
+     * @return the board
+     * @throws IOException when the version of the encoding is unknown
+     */
+    public static Board decode(
+                    final UUID id,
+                    final ByteBuffer buffer
+    ) throws IOException {
+        final byte version = buffer.get();
+        if (version != VERSION)
+            throw new IOException("unknown board version of " + id);
+
+        final int boardSizePerPlayer = buffer.get();
+        final PlayerKind currentPlayer = PlayerKind.of(buffer.get());
+        final boolean isOpen = buffer.get() == 1;
+        final byte winner = buffer.get();
+        final int[] pits = new int[buffer.get()];
+        for (int index = 0; index < pits.length; index++)
+            pits[index] = buffer.get() & 0xFF;
+
+        final Board board = new Board(id, boardSizePerPlayer, pits, currentPlayer, isOpen,
+                        winner == NO_WINNER ? null : PlayerKind.of(winner));
+        board.setVersion(buffer.getLong());
+        return board;
+    }
+}
@@ -0,0 +1,121 @@
+package com.game.mancala.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.game.mancala.model.Board;
+import com.game.mancala.monad.Try;
+import com.game.mancala.monad.TryMapFunction;
+
+public interface BoardRepository {
+
+    /**
+     * This method will store a new board making it visible for the next lookups
+     *
+     * @param board the board to be stored
+     * @return the stored board
+     */
+    Board save(Board board);
+
+    /**
+     * This method will store many new boards at once, they become visible as they are stored
+     *
+     * @param boards the boards to be stored
+     * @return the stored boards
+     */
+    default List<Board> saveAll(List<Board> boards) {
+        boards.forEach(this::save);
+        return boards;
+    }
+
+    /**
+     * This method will provide the amount of boards held in memory
+     *
+     * @return the amount of boards
+     */
+    long size();
+
+    /**
+     * This method will look for a board by ID without taking the lock of the board
+     *
+     * @param id the board ID
+     * @return a possible board
+     */
+    Optional<Board> findOne(UUID id);
+
+    /**
+     * This method will look for many boards by ID at once without taking their locks, an unknown board is left out
+     *
+     * @param ids the board IDs
+     * @return the found boards in the order of their IDs
+     */
+    default List<Board> findAll(List<UUID> ids) {
+        final List<Board> boards = new ArrayList<>(ids.size());
+        for (final UUID id : ids)
+            findOne(id).ifPresent(boards::add);
+        return boards;
+    }
+
+    /**
+     * This method will look for a board by ID and apply the function while holding the lock of the board,
+     * so all the reads and writes of the same board are serialized
+     *
+     * @param id       the board ID
+     * @param function the function to apply over the board
+     * @param <T>      the type of the result
+     * @return the result of the function as a try or a not found failure
+     */
+    <T> Try<T> withLock(UUID id, TryMapFunction<Board, T> function);
+
+    /**
+     * This method will apply the function over many boards at once, each one while holding its lock
+     * An unknown board or a failed function is left out
+     *
+     * @param ids      the board IDs
+     * @param function the function to apply over each board
+     * @param <T>      the type of the results
+     * @return the results of the function in the order of the IDs
+     */
+    default <T> List<T> withLockAll(List<UUID> ids, TryMapFunction<Board, T> function) {
+        final List<T> results = new ArrayList<>(ids.size());
+        for (final UUID id : ids)
+            withLock(id, function).onSuccess(results::add);
+        return results;
+    }
+
+    /**
+     * This method will tell if the boards are moved without their lock, by swapping their snapshot
+     * A repository keeping the boards in place needs no lock for a move, the moves are then recorded in the order of
+     * their versions but not while holding the board lock. A repository copying the boards in and out of its store
+     * keeps the moves under the lock
+     *
+     * @return true when the boards are moved without their lock
+     */
+    default boolean isLockFree() {
+        return false;
+    }
+
+    /**
+     * This method will record a move already applied to a board, it must be called while holding the board lock or
+     * while publishing the move of a lock free repository
+     * The in memory repository has nothing to record, a persistent one makes the move durable before the lock
+     * function result is returned
+     *
+     * @param board the moved board
+     * @param pit   the pit of the move
+     */
+    default void moved(Board board, int pit) {
+    }
+
+    /**
+     * This method will record the moves of a batch already applied to a board as a single change, it must be called
+     * while holding the board lock or while publishing the moves of a lock free repository
+     *
+     * @param board the moved board
+     * @param pits  the pits of the moves in order
+     */
+    default void moved(Board board, int[] pits) {
+    }
+}
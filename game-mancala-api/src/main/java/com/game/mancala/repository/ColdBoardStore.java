@@ -0,0 +1,71 @@
+package com.game.mancala.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.game.mancala.model.Board;
+
+/**
+ * This class keeps the boards out of the heap, one small file per board spread through 256 directories
+ * A board file is the board encoded by the board codec
+ */
+class ColdBoardStore {
+
+    private final Path directory;
+
+    ColdBoardStore(
+                    final Path directory
+    ) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * This method will write the board replacing its previous file at once, so a reader never sees half a board
+     * The caller must hold the board lock
+     *
+     * @param board the board to be written
+     * @throws IOException when the file can not be written
+     */
+    void write(
+                    final Board board
+    ) throws IOException {
+        final Path file = pathOf(board.getId());
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.createDirectories(file.getParent());
+        Files.write(temporary, BoardCodec.encode(board));
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * This method will read a board back to the heap
+     *
+     * @param id the board ID
+     * @return a possible board
+     * @throws IOException when the file can not be read
+     */
+    Optional<Board> read(
+                    final UUID id
+    ) throws IOException {
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(pathOf(id)));
+        } catch (final NoSuchFileException e) {
+            return Optional.empty();
+        }
+
+        return Optional.of(BoardCodec.decode(id, buffer));
+    }
+
+    private Path pathOf(
+                    final UUID id
+    ) {
+        final String name = id.toString();
+        return directory.resolve(name.substring(0, 2)).resolve(name + ".board");
+    }
+}
@@ -0,0 +1,129 @@
+package com.game.mancala.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Repository;
+
+import com.game.mancala.exception.MancalaException;
+import com.game.mancala.model.Board;
+import com.game.mancala.monad.Try;
+import com.game.mancala.monad.TryMapFunction;
+
+@Repository
+public class InMemoryBoardRepository implements BoardRepository {
+
+    private final ConcurrentHashMap<UUID, Board> boards;
+    private final StripedLocks<ReentrantLock> locks;
+
+    public InMemoryBoardRepository() {
+        this.boards = new ConcurrentHashMap<>();
+        this.locks = new StripedLocks<>(ReentrantLock::new);
+    }
+
+    /**
+     * This constructor will create the boards map and a power of two amount of locks
+     * Each board is guarded by one of the locks, so two boards only contend when they share the same stripe
+     *
+     * @param concurrencyLevel the minimum amount of stripes
+     */
+    public InMemoryBoardRepository(
+                    final int concurrencyLevel
+    ) {
+        this.boards = new ConcurrentHashMap<>();
+        this.locks = new StripedLocks<>(concurrencyLevel, ReentrantLock::new);
+    }
+
+    @Override
+    public Board save(
+                    final Board board
+    ) {
+        boards.put(board.getId(), board);
+        return board;
+    }
+
+    @Override
+    public List<Board> saveAll(
+                    final List<Board> boards
+    ) {
+        for (final Board board : boards)
+            this.boards.put(board.getId(), board);
+        return boards;
+    }
+
+    @Override
+    public long size() {
+        return boards.size();
+    }
+
+    @Override
+    public Optional<Board> findOne(
+                    final UUID id
+    ) {
+        return Optional.ofNullable(boards.get(id));
+    }
+
+    @Override
+    public <T> Try<T> withLock(
+                    final UUID id,
+                    final TryMapFunction<Board, T> function
+    ) {
+        final Board board = boards.get(id);
+        if (board == null)
+            return Try.failure(MancalaException.notFound("board"));
+
+        final ReentrantLock lock = locks.of(id);
+        lock.lock();
+        try {
+            return Try.successful(board).map(function);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isLockFree() {
+        return true;
+    }
+
+    /**
+     * This method will hand a board over, applying the function while holding the lock of the board and removing
+     * the board when the function succeeds. A board kept by a failed function stays in the repository
+     *
+     * @param id       the board ID
+     * @param function the function to apply over the board before removing it
+     * @param <T>      the type of the result
+     * @return the result of the function as a try or a not found failure
+     */
+    public <T> Try<T> remove(
+                    final UUID id,
+                    final TryMapFunction<Board, T> function
+    ) {
+        final ReentrantLock lock = locks.of(id);
+        lock.lock();
+        try {
+            final Board board = boards.get(id);
+            if (board == null)
+                return Try.failure(MancalaException.notFound("board"));
+
+            return Try.successful(board)
+                            .map(function)
+                            .onSuccess(result -> boards.remove(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method will provide the IDs of all the boards, the view follows the boards created while iterating it
+     *
+     * @return the board IDs
+     */
+    public Set<UUID> ids() {
+        return boards.keySet();
+    }
+}
@@ -0,0 +1,239 @@
+package com.game.mancala.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import com.game.mancala.journal.BoardJournal;
+import com.game.mancala.journal.BoardSnapshot;
+import com.game.mancala.journal.JournalRecovery;
+import com.game.mancala.model.Board;
+import com.game.mancala.monad.Try;
+import com.game.mancala.monad.TryMapFunction;
+
+/**
+ * This repository keeps the boards in memory and writes every creation and move to a journal
+ * On startup it rebuilds the open boards from the latest snapshot and the journal, then it writes a new snapshot
+ * periodically so the journal stays short
+ * A creation is journaled and made visible holding the read side of the rotation lock, so a snapshot rotating the
+ * journal never deletes the creation of a board it does not copy
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = "mancala.journal.enabled", havingValue = "true")
+public class JournaledBoardRepository implements BoardRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournaledBoardRepository.class);
+
+    private static final long NO_SEQUENCE = -1;
+    private static final ThreadLocal<long[]> PENDING_SEQUENCE =
+                    ThreadLocal.withInitial(() -> new long[] {NO_SEQUENCE});
+
+    private final InMemoryBoardRepository boards;
+    private final Path directory;
+    private final BoardJournal journal;
+    private final ScheduledExecutorService snapshots;
+    private final ReadWriteLock rotation = new ReentrantReadWriteLock();
+
+    public JournaledBoardRepository(
+                    final InMemoryBoardRepository boards,
+                    @Value("${mancala.journal.directory:journal}") final String directory,
+                    @Value("${mancala.journal.segment-bytes:67108864}") final long segmentBytes,
+                    @Value("${mancala.journal.snapshot-interval-ms:60000}") final long snapshotIntervalMs
+    ) throws IOException {
+        this.boards = boards;
+        this.directory = Files.createDirectories(Paths.get(directory));
+
+        final long start = System.nanoTime();
+        final JournalRecovery recovery = JournalRecovery.recover(this.directory);
+        recovery.getBoards().values().forEach(boards::save);
+        LOGGER.info("board journal recovered {} boards replaying {} moves in {} ms", recovery.getBoards().size(),
+                        recovery.getReplayedMoves(), (System.nanoTime() - start) / 1_000_000);
+
+        this.journal = new BoardJournal(this.directory, recovery.getNextSegment(), recovery.getNextSequence(),
+                        segmentBytes);
+        this.snapshots = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "board-journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshots.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMs, snapshotIntervalMs,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method will journal the board before making it visible, so no move can be journaled before its creation
+     *
+     * @param board the board to be stored
+     * @return the stored board, once its creation is durable
+     */
+    @Override
+    public Board save(
+                    final Board board
+    ) {
+        final long sequence;
+        rotation.readLock().lock();
+        try {
+            sequence = journal.appendCreate(board);
+            boards.save(board);
+        } finally {
+            rotation.readLock().unlock();
+        }
+        journal.awaitDurable(sequence);
+        return board;
+    }
+
+    /**
+     * This method will journal the boards before making them visible and wait once for all of them to be durable,
+     * so the whole batch shares a group commit
+     *
+     * @param boards the boards to be stored
+     * @return the stored boards, once their creation is durable
+     */
+    @Override
+    public List<Board> saveAll(
+                    final List<Board> boards
+    ) {
+        long sequence = NO_SEQUENCE;
+        rotation.readLock().lock();
+        try {
+            for (final Board board : boards)
+                sequence = journal.appendCreate(board);
+            this.boards.saveAll(boards);
+        } finally {
+            rotation.readLock().unlock();
+        }
+        if (sequence != NO_SEQUENCE)
+            journal.awaitDurable(sequence);
+        return boards;
+    }
+
+    @Override
+    public long size() {
+        return boards.size();
+    }
+
+    @Override
+    public Optional<Board> findOne(
+                    final UUID id
+    ) {
+        return boards.findOne(id);
+    }
+
+    /**
+     * This method will apply the function holding the board lock and then wait for its moves to be durable
+     * The wait happens after releasing the lock, so the next move of the board joins the same group commit
+     *
+     * @param id       the board ID
+     * @param function the function to apply over the board
+     * @param <T>      the type of the result
+     * @return the result of the function as a try or a not found failure
+     */
+    @Override
+    public <T> Try<T> withLock(
+                    final UUID id,
+                    final TryMapFunction<Board, T> function
+    ) {
+        final Try<T> result = boards.withLock(id, function);
+        final long[] pending = PENDING_SEQUENCE.get();
+        if (pending[0] == NO_SEQUENCE)
+            return result;
+
+        final long sequence = pending[0];
+        pending[0] = NO_SEQUENCE;
+        try {
+            journal.awaitDurable(sequence);
+            return result;
+        } catch (final UncheckedIOException e) {
+            return Try.failure(e);
+        }
+    }
+
+    @Override
+    public void moved(
+                    final Board board,
+                    final int pit
+    ) {
+        PENDING_SEQUENCE.get()[0] = journal.appendMove(board, pit);
+    }
+
+    @Override
+    public void moved(
+                    final Board board,
+                    final int[] pits
+    ) {
+        PENDING_SEQUENCE.get()[0] = journal.appendMoves(board, pits);
+    }
+
+    /**
+     * This method will write a snapshot of the open boards and delete the journal replaced by it
+     * The journal moves to a new segment first, then each board is copied holding its lock with the sequence of
+     * its next record, so the records of the new segments older than the copy are skipped by the replay
+     * The rotation waits for the creations in flight, so every board created in the old segments is copied
+     *
+     * @return the amount of boards in the snapshot
+     * @throws IOException when the snapshot can not be written
+     */
+    public int snapshot() throws IOException {
+        final int segment;
+        rotation.writeLock().lock();
+        try {
+            segment = journal.rotate();
+        } finally {
+            rotation.writeLock().unlock();
+        }
+        try (BoardSnapshot snapshot = new BoardSnapshot(directory, segment)) {
+            for (final UUID id : boards.ids()) {
+                boards.withLock(id, board -> {
+                    if (board.isOpen())
+                        snapshot.add(board, journal.nextSequence());
+                    return board;
+                });
+                snapshot.flushIfFull();
+            }
+            return snapshot.commit();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            final long start = System.nanoTime();
+            final int count = snapshot();
+            LOGGER.info("board snapshot of {} open boards written in {} ms", count,
+                            (System.nanoTime() - start) / 1_000_000);
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.error("board snapshot failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        snapshots.shutdown();
+        try {
+            snapshots.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+        journal.close();
+    }
+}
@@ -0,0 +1,247 @@
+package com.game.mancala.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import com.game.mancala.exception.MancalaException;
+import com.game.mancala.model.Board;
+import com.game.mancala.model.PackedBoard;
+import com.game.mancala.monad.Try;
+import com.game.mancala.monad.TryMapFunction;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This repository keeps the boards out of the heap in the slots of a board arena, so millions of open boards cost
+ * the garbage collector nothing between two moves
+ * A board is read from its slot as a short lived board holding its packed state, moved under the board lock and
+ * written back to its slot. A board is looked up without its lock, copying its slot again when a move wrote it
+ * A finished board stays readable until its slot is recycled by a new board once every slot was used
+ * The index is guarded by a read write lock taken before and never while holding a board lock
+ */
+@Primary
+@Repository
+@ConditionalOnExpression("${mancala.storage.off-heap.enabled:false} and !${mancala.storage.tiered.enabled:false}"
+                + " and !${mancala.journal.enabled:false}")
+public class OffHeapBoardRepository implements BoardRepository {
+
+    private final BoardArena arena;
+    private final StripedLocks<StampedLock> locks;
+    private final ReentrantReadWriteLock indexLock;
+
+    @Autowired
+    public OffHeapBoardRepository(
+                    final MeterRegistry registry,
+                    @Value("${mancala.storage.off-heap.max-boards:1000000}") final int maxBoards
+    ) {
+        this(maxBoards);
+        Gauge.builder("mancala.boards.off.heap.bytes", arena, BoardArena::bytes)
+                        .description("bytes of the board slots and their index out of the heap")
+                        .register(registry);
+    }
+
+    /**
+     * This constructor will allocate the arena of the boards out of the heap
+     *
+     * @param maxBoards the maximum amount of open and finished boards
+     */
+    public OffHeapBoardRepository(
+                    final int maxBoards
+    ) {
+        this.arena = new BoardArena(maxBoards);
+        this.locks = new StripedLocks<>(StampedLock::new);
+        this.indexLock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * This method will write a new board to a free slot, recycling the slot of the board finished first when every
+     * slot was used. A board already stored is written to its slot
+     *
+     * @param board the board to be stored
+     * @return the stored board
+     * @throws IllegalStateException when every slot holds an open board
+     */
+    @Override
+    public Board save(
+                    final Board board
+    ) {
+        final UUID id = board.getId();
+        indexLock.writeLock().lock();
+        try {
+            final int stored = arena.find(id);
+            final int free = stored != BoardArena.NONE ? stored : arena.allocate();
+            final int slot = free == BoardArena.NONE ? recycle() : free;
+            final StampedLock lock = locks.of(id);
+            final long stamp = lock.writeLock();
+            try {
+                if (slot == stored) {
+                    write(slot, board);
+                    return board;
+                }
+                arena.put(slot, id, board.getState(), board.getVersion());
+                if (!board.isOpen())
+                    arena.finished(slot);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            return board;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method will take the slot of the board finished first out of the index, holding its board lock so a move
+     * or a read of that board ends before its slot is reused. The caller holds the index write lock
+     *
+     * @return the recycled slot
+     * @throws IllegalStateException when no board finished
+     */
+    private int recycle() {
+        final int slot = arena.oldestFinished();
+        if (slot == BoardArena.NONE)
+            throw new IllegalStateException("the board arena is full of open boards, "
+                            + "raise mancala.storage.off-heap.max-boards");
+
+        final UUID finished = arena.idOf(slot);
+        final StampedLock lock = locks.of(finished);
+        final long stamp = lock.writeLock();
+        try {
+            arena.remove(finished);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return slot;
+    }
+
+    @Override
+    public long size() {
+        indexLock.readLock().lock();
+        try {
+            return arena.size();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method will read a board from its slot without its lock, as a sequence lock: the two longs and the version
+     * are copied and only kept when no move wrote a board of the same stripe meanwhile, otherwise they are copied
+     * again under the read lock of the stripe. The index read lock keeps the slot to the board while it is copied
+     *
+     * @param id the board ID
+     * @return a possible board, a copy of the stored one
+     */
+    @Override
+    public Optional<Board> findOne(
+                    final UUID id
+    ) {
+        indexLock.readLock().lock();
+        try {
+            final int slot = arena.find(id);
+            if (slot == BoardArena.NONE)
+                return Optional.empty();
+
+            final StampedLock lock = locks.of(id);
+            final long optimistic = lock.tryOptimisticRead();
+            if (optimistic != 0) {
+                final PackedBoard state = arena.stateOf(slot);
+                final long version = arena.versionOf(slot);
+                if (lock.validate(optimistic))
+                    return Optional.of(read(id, state, version));
+            }
+
+            final long stamp = lock.readLock();
+            try {
+                return Optional.of(read(slot, id));
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method will read a board from its slot holding its lock, apply the function and write the board back
+     * A board finished by the function is chained to the finished boards to be recycled
+     *
+     * @param id       the board ID
+     * @param function the function to apply over the board
+     * @param <T>      the type of the result
+     * @return the result of the function as a try or a not found failure
+     */
+    @Override
+    public <T> Try<T> withLock(
+                    final UUID id,
+                    final TryMapFunction<Board, T> function
+    ) {
+        final int slot = slotOf(id);
+        if (slot == BoardArena.NONE)
+            return Try.failure(MancalaException.notFound("board"));
+
+        final StampedLock lock = locks.of(id);
+        final long stamp = lock.writeLock();
+        try {
+            if (!arena.holds(slot, id))
+                return Try.failure(MancalaException.notFound("board"));
+
+            final Board board = read(slot, id);
+            final PackedBoard before = board.getState();
+            final long versionBefore = board.getVersion();
+            final Try<T> result = Try.successful(board).map(function);
+            if (board.getState() != before || board.getVersion() != versionBefore) {
+                write(slot, board);
+                if (before.isOpen() && !board.isOpen())
+                    arena.finished(slot);
+            }
+            return result;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int slotOf(
+                    final UUID id
+    ) {
+        indexLock.readLock().lock();
+        try {
+            return arena.find(id);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private Board read(
+                    final int slot,
+                    final UUID id
+    ) {
+        return read(id, arena.stateOf(slot), arena.versionOf(slot));
+    }
+
+    private static Board read(
+                    final UUID id,
+                    final PackedBoard state,
+                    final long version
+    ) {
+        final Board board = new Board(id, state);
+        board.setVersion(version);
+        return board;
+    }
+
+    private void write(
+                    final int slot,
+                    final Board board
+    ) {
+        arena.write(slot, board.getState(), board.getVersion());
+    }
+}
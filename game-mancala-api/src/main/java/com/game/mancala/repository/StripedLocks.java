@@ -0,0 +1,53 @@
+package com.game.mancala.repository;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * This class holds a power of two amount of locks shared by the boards
+ * Each board is guarded by one of the locks, so two boards only contend when they share the same stripe
+ *
+ * @param <L> the type of the locks
+ */
+class StripedLocks<L> {
+
+    private static final int STRIPES_PER_CORE = 4;
+
+    private final Object[] stripes;
+
+    StripedLocks(
+                    final Supplier<L> lock
+    ) {
+        this(Runtime.getRuntime().availableProcessors() * STRIPES_PER_CORE, lock);
+    }
+
+    /**
+     * This constructor will round the amount of locks up to a power of two
+     *
+     * @param concurrencyLevel the minimum amount of stripes
+     * @param lock             the factory of the locks
+     */
+    StripedLocks(
+                    final int concurrencyLevel,
+                    final Supplier<L> lock
+    ) {
+        final int size = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        this.stripes = new Object[size];
+        for (int index = 0; index < size; index++)
+            stripes[index] = lock.get();
+    }
+
+    /**
+     * This method will pick the lock of the board spreading the hash bits to reduce collisions in the stripes
+     *
+     * @param id the board ID
+     * @return the lock of the board
+     */
+    @SuppressWarnings("unchecked")
+    L of(
+                    final UUID id
+    ) {
+        final int hash = id.hashCode();
+        return (L) stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,266 @@
+package com.game.mancala.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import com.game.mancala.exception.MancalaException;
+import com.game.mancala.model.Board;
+import com.game.mancala.monad.Try;
+import com.game.mancala.monad.TryMapFunction;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * This repository keeps the active boards in a size and idle time bounded cache (W-TinyLFU eviction)
+ * Evicted and finished boards spill to the cold store on disk and are faulted back in by the next move
+ * A spilling board stays reachable in memory until its file is written, so a lookup never misses a board
+ */
+@Primary
+@Repository
+@ConditionalOnExpression("${mancala.storage.tiered.enabled:false} and !${mancala.journal.enabled:false}")
+public class TieredBoardRepository implements BoardRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TieredBoardRepository.class);
+
+    private final Cache<UUID, Board> hot;
+    private final Map<UUID, Board> spilling;
+    private final ColdBoardStore cold;
+    private final StripedLocks<ReentrantLock> locks;
+    private final ExecutorService spiller;
+    private final Timer faultIn;
+    private final Counter spilled;
+
+    public TieredBoardRepository(
+                    final MeterRegistry registry,
+                    @Value("${mancala.storage.tiered.directory:boards}") final String directory,
+                    @Value("${mancala.storage.tiered.max-boards:100000}") final long maxBoards,
+                    @Value("${mancala.storage.tiered.idle-ms:600000}") final long idleMs
+    ) throws IOException {
+        this.spilling = new ConcurrentHashMap<>();
+        this.cold = new ColdBoardStore(Paths.get(directory));
+        this.locks = new StripedLocks<>(ReentrantLock::new);
+        this.spiller = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "board-spiller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hot = Caffeine.newBuilder()
+                        .maximumSize(maxBoards)
+                        .expireAfterAccess(idleMs, TimeUnit.MILLISECONDS)
+                        .recordStats()
+                        .writer(new SpillingWriter())
+                        .build();
+
+        CaffeineCacheMetrics.monitor(registry, hot, "boards");
+        registry.gaugeMapSize("mancala.boards.spilling", Tags.empty(), spilling);
+        this.faultIn = Timer.builder("mancala.boards.fault.in")
+                        .description("time to read a board back from the cold store")
+                        .register(registry);
+        this.spilled = Counter.builder("mancala.boards.spilled")
+                        .description("boards written to the cold store")
+                        .register(registry);
+    }
+
+    @Override
+    public Board save(
+                    final Board board
+    ) {
+        hot.put(board.getId(), board);
+        return board;
+    }
+
+    @Override
+    public List<Board> saveAll(
+                    final List<Board> boards
+    ) {
+        final Map<UUID, Board> byId = new HashMap<>(boards.size() * 2);
+        for (final Board board : boards)
+            byId.put(board.getId(), board);
+        hot.putAll(byId);
+        return boards;
+    }
+
+    /**
+     * This method will provide the amount of boards in the hot cache and the ones waiting to be spilled
+     *
+     * @return the amount of boards, estimated by the cache
+     */
+    @Override
+    public long size() {
+        return hot.estimatedSize() + spilling.size();
+    }
+
+    /**
+     * This method will look for a board in the hot cache and the spilling boards only, never waiting for the disk
+     * A board in the cold store is answered as unknown, it is faulted back in by the next move under its lock
+     *
+     * @param id the board ID
+     * @return a possible board
+     */
+    @Override
+    public Optional<Board> findOne(
+                    final UUID id
+    ) {
+        final Board board = hot.asMap().get(id);
+        return board != null ? Optional.of(board) : Optional.ofNullable(spilling.get(id));
+    }
+
+    /**
+     * This method will fault the board in holding its lock and apply the function
+     * A board finished by the function leaves the hot cache right away
+     *
+     * @param id       the board ID
+     * @param function the function to apply over the board
+     * @param <T>      the type of the result
+     * @return the result of the function as a try or a not found failure
+     */
+    @Override
+    public <T> Try<T> withLock(
+                    final UUID id,
+                    final TryMapFunction<Board, T> function
+    ) {
+        final ReentrantLock lock = locks.of(id);
+        lock.lock();
+        try {
+            final Board board = lookup(id);
+            if (board == null)
+                return Try.failure(MancalaException.notFound("board"));
+
+            final Try<T> result = Try.successful(board).map(function);
+            if (!board.isOpen())
+                hot.invalidate(id);
+            return result;
+        } catch (final IOException e) {
+            return Try.failure(new UncheckedIOException(e));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method will look for the board in the hot cache, then in the spilling boards and then in the cold store
+     * An open board found out of the hot cache is moved back to it. The caller must hold the board lock
+     * A miss first runs the pending cache maintenance, since an expired board is hidden by the cache before it is
+     * handed to the spiller
+     *
+     * @param id the board ID
+     * @return the board or null
+     * @throws IOException when the cold store can not be read
+     */
+    private Board lookup(
+                    final UUID id
+    ) throws IOException {
+        final Board hotBoard = hot.getIfPresent(id);
+        if (hotBoard != null)
+            return hotBoard;
+
+        hot.cleanUp();
+        Board board = spilling.get(id);
+        if (board == null) {
+            final long start = System.nanoTime();
+            board = cold.read(id).orElse(null);
+            faultIn.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (board != null && board.isOpen()) {
+            spilling.remove(id, board);
+            hot.put(id, board);
+        }
+        return board;
+    }
+
+    /**
+     * This method will write a spilling board to the cold store holding its lock, so the file holds its last move
+     * A board faulted back to the hot cache in the meantime is not spilling anymore and is not written
+     *
+     * @param board the spilling board
+     */
+    private void write(
+                    final Board board
+    ) {
+        final UUID id = board.getId();
+        final ReentrantLock lock = locks.of(id);
+        lock.lock();
+        try {
+            if (spilling.get(id) != board)
+                return;
+
+            cold.write(board);
+            spilled.increment();
+            spilling.remove(id, board);
+        } catch (final IOException e) {
+            LOGGER.error("board {} could not be spilled, keeping it in memory", id, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method will spill all the hot boards and wait for them to be written, so the games survive a restart
+     */
+    @PreDestroy
+    public void close() {
+        hot.invalidateAll();
+        spiller.shutdown();
+        try {
+            spiller.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This class hands every board leaving the hot cache to the spiller while the cache still holds the entry lock,
+     * so there is no moment in which the board is in no tier
+     */
+    private class SpillingWriter implements CacheWriter<UUID, Board> {
+
+        @Override
+        public void write(
+                        final UUID id,
+                        final Board board
+        ) {
+        }
+
+        @Override
+        public void delete(
+                        final UUID id,
+                        final Board board,
+                        final RemovalCause cause
+        ) {
+            if (cause == RemovalCause.REPLACED || board == null)
+                return;
+
+            spilling.put(id, board);
+            spiller.execute(() -> TieredBoardRepository.this.write(board));
+        }
+    }
+}
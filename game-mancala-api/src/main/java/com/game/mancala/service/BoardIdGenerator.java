@@ -0,0 +1,17 @@
+package com.game.mancala.service;
+
+import java.util.UUID;
+
+/**
+ * This interface creates the IDs of the new boards, a cluster only creates the IDs of the boards it owns
+ */
+@FunctionalInterface
+public interface BoardIdGenerator {
+
+    /**
+     * This method will create the ID of a new board
+     *
+     * @return the board ID
+     */
+    UUID next();
+}
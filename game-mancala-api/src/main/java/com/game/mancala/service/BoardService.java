@@ -1,30 +1,82 @@
 package com.game.mancala.service;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.game.mancala.ai.BoardAiService;
+import com.game.mancala.endgame.EndgameDatabase;
+import com.game.mancala.event.BoardEventService;
 import com.game.mancala.exception.MancalaException;
+import com.game.mancala.metrics.BoardMetrics;
 import com.game.mancala.model.Board;
 import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.model.PackedBoard;
+import com.game.mancala.model.PlayerKind;
 import com.game.mancala.monad.Try;
+import com.game.mancala.repository.BoardRepository;
+
+import reactor.core.publisher.Flux;
 
 @Service
 public class BoardService {
 
-    private final HashMap<UUID, Board> boards;
+    static final int MAX_MOVES = 256;
+    static final int BATCH_CHUNK = 256;
+
+    private final BoardRepository boardRepository;
+    private final BoardAiService boardAiService;
+    private final EndgameDatabase endgameDatabase;
+    private final BoardEventService boardEventService;
+    private final BoardMetrics boardMetrics;
+    private final BoardIdGenerator boardIdGenerator;
 
-    public BoardService() {
-        this.boards = new HashMap<>();
+    public BoardService(
+                    final BoardRepository boardRepository,
+                    final BoardAiService boardAiService,
+                    final EndgameDatabase endgameDatabase,
+                    final BoardEventService boardEventService,
+                    final BoardMetrics boardMetrics
+    ) {
+        this(boardRepository, boardAiService, endgameDatabase, boardEventService, boardMetrics, Optional.empty());
     }
 
     /**
-     * This method will create a new board and add it to the boards hash map
+     * This constructor will create the board IDs with the generator of the cluster when there is one,
+     * otherwise with random IDs
+     */
+    @Autowired
+    public BoardService(
+                    final BoardRepository boardRepository,
+                    final BoardAiService boardAiService,
+                    final EndgameDatabase endgameDatabase,
+                    final BoardEventService boardEventService,
+                    final BoardMetrics boardMetrics,
+                    final Optional<BoardIdGenerator> boardIdGenerator
+    ) {
+        this.boardRepository = boardRepository;
+        this.boardAiService = boardAiService;
+        this.endgameDatabase = endgameDatabase;
+        this.boardEventService = boardEventService;
+        this.boardMetrics = boardMetrics;
+        this.boardIdGenerator = boardIdGenerator.orElse(UUID::randomUUID);
+        boardMetrics.monitor(boardRepository);
+    }
+
+    /**
+     * This method will create a new board and add it to the board repository
      *
      * @param input a board create object
      * @return a board result
@@ -32,13 +84,48 @@ public class BoardService {
     public BoardWrapper.Result create(
                     final BoardWrapper.Create input
     ) {
-        final Board board = new Board(input.getBoardSize(), input.getStonesPerPit());
-        boards.put(board.getId(), board);
+        final Board board = new Board(boardIdGenerator.next(), input.getBoardSize(), input.getStonesPerPit());
+        boardRepository.save(board);
+        boardMetrics.created(1);
         return toBoardResult(board);
     }
 
+    /**
+     * This method will create many boards, storing them in chunks as the stream is consumed
+     * So a streamed response writes the first boards while the next ones are not created yet
+     *
+     * @param input a board batch object
+     * @return the board results, lazily created
+     */
+    public Stream<BoardWrapper.Result> createAll(
+                    final BoardWrapper.Batch input
+    ) {
+        final int count = input.getCount();
+        return IntStream.range(0, (count + BATCH_CHUNK - 1) / BATCH_CHUNK)
+                        .mapToObj(chunk -> createChunk(input, Math.min(BATCH_CHUNK, count - chunk * BATCH_CHUNK)))
+                        .flatMap(List::stream);
+    }
+
+    /**
+     * This method will look for many boards by ID, reading them in chunks as the stream is consumed
+     * An unknown board is left out, so the results may be fewer than the IDs, and it is not a rejected request
+     *
+     * @param ids the board IDs
+     * @return the board results, lazily read
+     */
+    public Stream<BoardWrapper.Result> getAll(
+                    final List<UUID> ids
+    ) {
+        final int count = ids.size();
+        return IntStream.range(0, (count + BATCH_CHUNK - 1) / BATCH_CHUNK)
+                        .mapToObj(chunk -> getChunk(ids.subList(chunk * BATCH_CHUNK,
+                                        Math.min(count, (chunk + 1) * BATCH_CHUNK))))
+                        .flatMap(List::stream);
+    }
+
     /**
      * This method will look for a board by ID
+     * The board is read under its lock to not expose a half updated board
      *
      * @param id the board ID
      * @return a board result as a try
@@ -46,12 +133,26 @@ public class BoardService {
     public Try<BoardWrapper.Result> get(
                     final UUID id
     ) {
-        return getOne(id).map(this::toBoardResult);
+        return boardMetrics.count(boardRepository.withLock(id, this::toBoardResult));
     }
 
     /**
-     * This method will retrieve a board from the board hash map
-     * Verify if the match still open and update the board
+     * This method will look for the version of a board without its lock, to answer a client holding the board
+     * already without reading the whole board
+     *
+     * @param id the board ID
+     * @return the board version, empty for an unknown board
+     */
+    public Optional<Long> version(
+                    final UUID id
+    ) {
+        return boardRepository.findOne(id).map(board -> board.getVersion());
+    }
+
+    /**
+     * This method will retrieve a board from the board repository
+     * Verify if the match still open and update the board while holding the board lock
+     * Each phase of the move is timed, the lookup includes the wait for the board lock
      *
      * @param id          the board ID
      * @param targetIndex the index to start updating the board
@@ -61,12 +162,366 @@ public class BoardService {
                     final UUID id,
                     final Integer targetIndex
     ) {
-        return getOne(id).map(board -> {
-            if (board.getIsOpen().get())
-                return board.update(targetIndex);
-            else
+        return update(id, targetIndex, null);
+    }
+
+    /**
+     * This method will update a board as the other one when the board is still at one of the expected versions
+     * A stale move is rejected before waiting for the board lock and checked again holding it
+     * The boards of a lock free repository are moved without their lock, checking the move against the snapshot it
+     * replaces
+     *
+     * @param id               the board ID
+     * @param targetIndex      the index to start updating the board
+     * @param expectedVersions the versions of the board known by the client, null to move at any version
+     * @return the board result or a board.version.conflict failure as a try
+     */
+    public Try<BoardWrapper.Result> update(
+                    final UUID id,
+                    final Integer targetIndex,
+                    final long[] expectedVersions
+    ) {
+        if (isStale(id, expectedVersions))
+            return boardMetrics.count(Try.failure(MancalaException.conflict("board.version")));
+
+        final long start = boardMetrics.start();
+        if (boardRepository.isLockFree())
+            return boardMetrics.count(swap(id, targetIndex, expectedVersions, start));
+
+        return boardMetrics.count(boardRepository.withLock(id, board -> {
+            final long lookedUp = boardMetrics.lap(BoardMetrics.Phase.LOOKUP, start);
+            checkVersion(board.getVersion(), expectedVersions);
+            if (!board.isOpen())
+                throw MancalaException.invalid("board.open");
+
+            board.validate(targetIndex);
+            return play(board, targetIndex, boardMetrics.lap(BoardMetrics.Phase.VALIDATION, lookedUp));
+        }));
+    }
+
+    /**
+     * This method will retrieve a board from the board repository and play the moves in order while holding the
+     * board lock once. The moves are applied all or none, the first rejected move leaves the board untouched
+     *
+     * @param id   the board ID
+     * @param pits the pits of the moves in order
+     * @return the board result after the last move as a try
+     */
+    public Try<BoardWrapper.Result> updateAll(
+                    final UUID id,
+                    final int[] pits
+    ) {
+        return updateAll(id, pits, null);
+    }
+
+    /**
+     * This method will play the moves as the other one when the board is still at one of the expected versions
+     *
+     * @param id               the board ID
+     * @param pits             the pits of the moves in order
+     * @param expectedVersions the versions of the board known by the client, null to move at any version
+     * @return the board result after the last move or a board.version.conflict failure as a try
+     */
+    public Try<BoardWrapper.Result> updateAll(
+                    final UUID id,
+                    final int[] pits,
+                    final long[] expectedVersions
+    ) {
+        if (pits.length == 0 || pits.length > MAX_MOVES)
+            return boardMetrics.count(Try.failure(MancalaException.invalid("board.moves.size")));
+        if (isStale(id, expectedVersions))
+            return boardMetrics.count(Try.failure(MancalaException.conflict("board.version")));
+        if (boardRepository.isLockFree())
+            return boardMetrics.count(swap(id, expectedVersions, pits.length,
+                            (board, state) -> board.playAll(state, pits), board -> boardRepository.moved(board, pits),
+                            boardMetrics.start()));
+
+        return boardMetrics.count(boardRepository.withLock(id, board -> {
+            checkVersion(board.getVersion(), expectedVersions);
+            if (!board.isOpen())
                 throw MancalaException.invalid("board.open");
-        }).map(Board::processPossibleWinner).map(this::toBoardResult);
+
+            final Board.Snapshot before = board.snapshot();
+            board.updateAll(pits);
+            if (!board.isOpen())
+                boardMetrics.finished();
+            boardRepository.moved(board, pits);
+            boardEventService.moved(id, before.getState(), board.snapshot(), () -> toBoardResult(board));
+            return toBoardResult(board);
+        }));
+    }
+
+    /**
+     * This method will retrieve a board from the board repository and play the move searched by the computer
+     * for the current player. The position is read under the board lock and searched out of it, so a long search
+     * holds no lock, and the move is played under the lock only when the board did not move meanwhile
+     *
+     * @param id     the board ID
+     * @param depth  the max depth to search
+     * @param timeMs the time budget of the search in milliseconds
+     * @return the board result or a board.version.conflict failure as a try
+     */
+    public Try<BoardWrapper.Result> aiMove(
+                    final UUID id,
+                    final Integer depth,
+                    final Long timeMs
+    ) {
+        return boardMetrics.count(boardRepository.withLock(id, board -> {
+            if (!board.isOpen())
+                throw MancalaException.invalid("board.open");
+
+            return new Position(board.getState(), board.getVersion());
+        }).flatMap(position -> {
+            final int move = boardAiService.bestMove(id, position.state, depth, timeMs).getMove();
+            if (boardRepository.isLockFree())
+                return swap(id, move, new long[] {position.version}, boardMetrics.start());
+
+            return boardRepository.withLock(id, board -> {
+                if (board.getVersion() != position.version)
+                    throw MancalaException.conflict("board.version");
+                board.validate(move);
+                return play(board, move, boardMetrics.start());
+            });
+        }));
+    }
+
+    /**
+     * This method will subscribe to the moves of a board, the full board is sent first and then a delta per move
+     * The full board is the one of the last published move, so no delta is missed by a move still being published
+     *
+     * @param id the board ID
+     * @return the event stream as a try
+     */
+    public Try<SseEmitter> subscribe(
+                    final UUID id
+    ) {
+        return boardMetrics.count(boardRepository.withLock(id, board -> board.whilePublished(
+                        published -> boardEventService.subscribe(toBoardResult(board, published)))));
+    }
+
+    /**
+     * This method will subscribe to the moves of a board as the other one, for a client of the reactive stack
+     *
+     * @param id the board ID
+     * @return the event stream as a try
+     */
+    public Try<Flux<ServerSentEvent<String>>> stream(
+                    final UUID id
+    ) {
+        return boardMetrics.count(boardRepository.withLock(id, board -> board.whilePublished(
+                        published -> boardEventService.stream(toBoardResult(board, published)))));
+    }
+
+    /**
+     * This method will look for the winner of a board with perfect play from both players
+     * A finished board is always solved, an open board is solved when the endgame database holds its configuration
+     *
+     * @param id the board ID
+     * @return the board outcome as a try
+     */
+    public Try<BoardWrapper.Outcome> outcome(
+                    final UUID id
+    ) {
+        return boardMetrics.count(boardRepository.withLock(id, board -> {
+            final Optional<PlayerKind> winner = board.isOpen()
+                            ? endgameDatabase.winner(board.getBoard(), board.getBoardSizePerPlayer(),
+                                            board.getCurrentPlayer())
+                            : Optional.of(board.getWinner());
+
+            return BoardWrapper.Outcome.builder()
+                            .id(board.getId())
+                            .solved(winner.isPresent())
+                            .winner(winner.orElse(null))
+                            .build();
+        }));
+    }
+
+    /**
+     * This method will play the move on the board, record it in the board repository and push it to the subscribers
+     * The caller must hold the board lock and validate the move
+     *
+     * @param board the current board
+     * @param pit   the pit to start the move
+     * @param start the start of the sowing phase
+     * @return a board result object
+     */
+    private BoardWrapper.Result play(
+                    final Board board,
+                    final int pit,
+                    final long start
+    ) {
+        final Board.Snapshot before = board.snapshot();
+        board.move(pit);
+        final long sown = boardMetrics.lap(BoardMetrics.Phase.SOWING, start);
+
+        board.processPossibleWinner();
+        if (!board.isOpen())
+            boardMetrics.finished();
+        final long processed = boardMetrics.lap(BoardMetrics.Phase.WINNER, sown);
+
+        boardRepository.moved(board, pit);
+        boardEventService.moved(board.getId(), before.getState(), board.snapshot(), () -> toBoardResult(board));
+        final long recorded = boardMetrics.lap(BoardMetrics.Phase.RECORDING, processed);
+
+        final BoardWrapper.Result result = toBoardResult(board);
+        boardMetrics.lap(BoardMetrics.Phase.MAPPING, recorded);
+        return result;
+    }
+
+    /**
+     * This method will play a move on a board of a lock free repository as the other one
+     *
+     * @param id               the board ID
+     * @param pit              the pit to start the move
+     * @param expectedVersions the versions of the board known by the client, null to move at any version
+     * @param start            the start of the lookup phase
+     * @return the board result as a try
+     */
+    private Try<BoardWrapper.Result> swap(
+                    final UUID id,
+                    final int pit,
+                    final long[] expectedVersions,
+                    final long start
+    ) {
+        return swap(id, expectedVersions, 1, (board, state) -> {
+            board.validate(state, pit);
+            return state.move(pit).processPossibleWinner();
+        }, board -> boardRepository.moved(board, pit), start);
+    }
+
+    /**
+     * This method will play moves on a board of a lock free repository without its lock
+     * The moves are played from a snapshot of the board and swapped in when no other move replaced the snapshot
+     * first, otherwise they are checked and played again from the new snapshot. A swapped move is then recorded and
+     * pushed to the subscribers once every move before it is published, so both see the moves in the order of their
+     * versions
+     *
+     * @param id               the board ID
+     * @param expectedVersions the versions of the board known by the client, null to move at any version
+     * @param moves            the amount of the moves, added to the version of the board
+     * @param play             the moves played from a state of the board, rejecting an invalid move
+     * @param record           the record of the moves in the board repository
+     * @param start            the start of the lookup phase
+     * @return the board result after the moves as a try
+     */
+    private Try<BoardWrapper.Result> swap(
+                    final UUID id,
+                    final long[] expectedVersions,
+                    final int moves,
+                    final BiFunction<Board, PackedBoard, PackedBoard> play,
+                    final Consumer<Board> record,
+                    final long start
+    ) {
+        final Optional<Board> found = boardRepository.findOne(id);
+        if (!found.isPresent())
+            return Try.failure(MancalaException.notFound("board"));
+
+        final Board board = found.get();
+        final long lookedUp = boardMetrics.lap(BoardMetrics.Phase.LOOKUP, start);
+        return Try.ofFailable(() -> {
+            while (true) {
+                final Board.Snapshot before = board.snapshot();
+                checkVersion(before.getVersion(), expectedVersions);
+                if (!before.getState().isOpen())
+                    throw MancalaException.invalid("board.open");
+
+                final Board.Snapshot after = new Board.Snapshot(play.apply(board, before.getState()),
+                                before.getVersion() + moves);
+                if (!board.compareAndSet(before, after))
+                    continue;
+
+                board.publish(before, after, () -> {
+                    record.accept(board);
+                    boardEventService.moved(id, before.getState(), after, () -> toBoardResult(board, after));
+                });
+                final long recorded = boardMetrics.lap(BoardMetrics.Phase.RECORDING, lookedUp);
+                if (!after.getState().isOpen())
+                    boardMetrics.finished();
+
+                final BoardWrapper.Result result = toBoardResult(board, after);
+                boardMetrics.lap(BoardMetrics.Phase.MAPPING, recorded);
+                return result;
+            }
+        });
+    }
+
+    /**
+     * This method will read the version of a board without its lock, so a stale move is rejected without waiting
+     * for it. A batch of moves rejected while it is read may turn a move into a conflict, the client reads the
+     * board again as for any other conflict
+     *
+     * @param id               the board ID
+     * @param expectedVersions the versions of the board known by the client, null to move at any version
+     * @return true when the board is at none of the expected versions
+     */
+    private boolean isStale(
+                    final UUID id,
+                    final long[] expectedVersions
+    ) {
+        return expectedVersions != null && boardRepository.findOne(id)
+                        .map(board -> !isExpected(board.getVersion(), expectedVersions))
+                        .orElse(false);
+    }
+
+    private static void checkVersion(
+                    final long version,
+                    final long[] expectedVersions
+    ) {
+        if (expectedVersions != null && !isExpected(version, expectedVersions))
+            throw MancalaException.conflict("board.version");
+    }
+
+    private static boolean isExpected(
+                    final long version,
+                    final long[] expectedVersions
+    ) {
+        for (final long expectedVersion : expectedVersions)
+            if (version == expectedVersion)
+                return true;
+        return false;
+    }
+
+    /**
+     * This method is a helper to create and store a chunk of boards with a single call to the board repository
+     *
+     * @param input the board batch object
+     * @param size  the amount of boards of the chunk
+     * @return the board results of the chunk
+     */
+    private List<BoardWrapper.Result> createChunk(
+                    final BoardWrapper.Batch input,
+                    final int size
+    ) {
+        final List<Board> boards = new ArrayList<>(size);
+        for (int index = 0; index < size; index++)
+            boards.add(new Board(boardIdGenerator.next(), input.getBoardSize(), input.getStonesPerPit()));
+        boardRepository.saveAll(boards);
+        boardMetrics.created(size);
+
+        final List<BoardWrapper.Result> results = new ArrayList<>(size);
+        for (final Board board : boards)
+            results.add(toBoardResult(board));
+        return results;
+    }
+
+    /**
+     * This method will read a chunk of boards at once, each one under its lock unless the repository moves them
+     * without it, then a board is read from a single snapshot
+     *
+     * @param ids the board IDs of the chunk
+     * @return the board results of the chunk
+     */
+    private List<BoardWrapper.Result> getChunk(
+                    final List<UUID> ids
+    ) {
+        if (!boardRepository.isLockFree())
+            return boardRepository.withLockAll(ids, this::toBoardResult);
+
+        final List<Board> boards = boardRepository.findAll(ids);
+        final List<BoardWrapper.Result> results = new ArrayList<>(boards.size());
+        for (final Board board : boards)
+            results.add(toBoardResult(board));
+        return results;
     }
 
     /**
@@ -75,35 +530,54 @@ public class BoardService {
      * @param board the current board
      * @return a board result object
      */
-    private BoardWrapper.Result toBoardResult(
+    BoardWrapper.Result toBoardResult(
                     final Board board
     ) {
-        final List<Integer> boardAsInteger = board.getBoard().stream()
-                        .map(AtomicInteger::get)
+        return toBoardResult(board, board.snapshot());
+    }
+
+    /**
+     * This method is a helper to parse a snapshot of a board to a board result object
+     *
+     * @param board    the board of the snapshot
+     * @param snapshot the state and the version of the board to parse
+     * @return a board result object
+     */
+    private static BoardWrapper.Result toBoardResult(
+                    final Board board,
+                    final Board.Snapshot snapshot
+    ) {
+        final PackedBoard state = snapshot.getState();
+        final List<Integer> boardAsInteger = Arrays.stream(state.pits())
+                        .boxed()
                         .collect(Collectors.toList());
 
         return BoardWrapper.Result.builder()
                         .id(board.getId())
                         .board(boardAsInteger)
-                        .currentPlayer(board.getCurrentPlayer().get())
+                        .currentPlayer(state.getCurrentPlayer())
                         .boardSizePerPlayer(board.getBoardSizePerPlayer())
-                        .isOpen(board.getIsOpen().get())
-                        .winner(board.getWinner().get())
+                        .isOpen(state.isOpen())
+                        .winner(state.getWinner())
+                        .version(snapshot.getVersion())
+                        .state(state)
                         .build();
     }
 
     /**
-     * This is a private method to retrieve a possible board by ID
-     *
-     * @param id the board ID
-     * @return a board as a try
+     * This class holds the position of a board read for a search and the version it was read at
      */
-    private Try<Board> getOne(
-                    UUID id
-    ) {
-        return Try.ofFailable(() -> {
-            return Optional.ofNullable(boards.get(id))
-                            .orElseThrow(() -> MancalaException.notFound("board"));
-        });
+    private static final class Position {
+
+        private final PackedBoard state;
+        private final long version;
+
+        private Position(
+                        final PackedBoard state,
+                        final long version
+        ) {
+            this.state = state;
+            this.version = version;
+        }
     }
 }
@@ -0,0 +1,184 @@
+package com.game.mancala.simulation;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import com.game.mancala.model.BoardRules;
+import com.game.mancala.model.PlayerKind;
+import com.game.mancala.model.SimulationWrapper;
+
+/**
+ * This class plays many games with a move policy on primitive copies of the board
+ * The games are split in chunks of a fixed amount of games played in parallel, each chunk owns a random split from
+ * the seed and its own statistics, so the playouts do not share any state until the chunks are merged. The chunks do
+ * not depend on the cores, so a seed gives the same statistics on every machine
+ */
+public class MonteCarloSimulator {
+
+    static final int GAMES_PER_CHUNK = 4096;
+
+    private static final double GREEDY_EXPLORATION = 0.1;
+
+    private final int boardSizePerPlayer;
+    private final int stonesPerPit;
+    private final int totalStones;
+    private final int ringLength;
+    private final SimulationWrapper.Policy policy;
+
+    public MonteCarloSimulator(
+                    final int boardSize,
+                    final int stonesPerPit,
+                    final SimulationWrapper.Policy policy
+    ) {
+        this.boardSizePerPlayer = boardSize + 1;
+        this.stonesPerPit = stonesPerPit;
+        this.totalStones = boardSize * stonesPerPit * PlayerKind.count();
+        this.ringLength = boardSizePerPlayer * PlayerKind.count() - (PlayerKind.count() - 1);
+        this.policy = policy;
+    }
+
+    /**
+     * This method will play the games in parallel chunks
+     *
+     * @param games the amount of games
+     * @param seed  the seed of the random moves
+     * @return the merged statistics of all games
+     */
+    PlayoutStatistics simulate(
+                    final long games,
+                    final long seed
+    ) {
+        final int chunks = (int) ((games + GAMES_PER_CHUNK - 1) / GAMES_PER_CHUNK);
+        final SplittableRandom root = new SplittableRandom(seed);
+        final SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++)
+            randoms[chunk] = root.split();
+
+        return IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> playChunk(Math.min(GAMES_PER_CHUNK,
+                                        games - (long) chunk * GAMES_PER_CHUNK), randoms[chunk]))
+                        .reduce(PlayoutStatistics::merge)
+                        .orElseGet(() -> new PlayoutStatistics(totalStones));
+    }
+
+    /**
+     * This method will play the games of one chunk reusing the same pits array
+     *
+     * @param games  the amount of games of the chunk
+     * @param random the random of the chunk
+     * @return the statistics of the chunk
+     */
+    private PlayoutStatistics playChunk(
+                    final long games,
+                    final SplittableRandom random
+    ) {
+        final PlayoutStatistics statistics = new PlayoutStatistics(totalStones);
+        final int[] pits = new int[boardSizePerPlayer * PlayerKind.count()];
+        final int[] scratch = new int[pits.length];
+        for (long game = 0; game < games; game++)
+            playout(pits, scratch, random, statistics);
+        return statistics;
+    }
+
+    /**
+     * This method will play one game from the initial board until there is a winner
+     *
+     * @param pits       the pits of the game
+     * @param scratch    the pits used by the greedy policy to try the moves
+     * @param random     the random of the chunk
+     * @param statistics the statistics receiving the outcome
+     */
+    private void playout(
+                    final int[] pits,
+                    final int[] scratch,
+                    final SplittableRandom random,
+                    final PlayoutStatistics statistics
+    ) {
+        for (int index = 0; index < pits.length; index++)
+            pits[index] = index % boardSizePerPlayer == 0 ? 0 : stonesPerPit;
+
+        final PlayerKind firstPlayer = PlayerKind.of(random.nextInt(PlayerKind.count()));
+        PlayerKind player = firstPlayer;
+        long moves = 0;
+        while (!BoardRules.isMatchEnded(pits, boardSizePerPlayer)) {
+            final int move = policy == SimulationWrapper.Policy.GREEDY
+                            ? greedyMove(pits, scratch, player, random)
+                            : randomMove(pits, player, random);
+            final int lastIndex = BoardRules.moveStones(pits, player, boardSizePerPlayer, move);
+            if (BoardRules.doNotHaveOtherRound(player, lastIndex, boardSizePerPlayer))
+                player = PlayerKind.nextPlayer(player);
+            moves++;
+        }
+
+        final PlayerKind winner = BoardRules.collectAllRemainStones(pits, boardSizePerPlayer);
+        statistics.games++;
+        statistics.moves += moves;
+        if (pits[0] == pits[boardSizePerPlayer])
+            statistics.draws++;
+        else if (winner == firstPlayer)
+            statistics.firstPlayerWins++;
+        for (int other = 0; other < PlayerKind.count(); other++)
+            statistics.storeHistograms[other][pits[boardSizePerPlayer * other]]++;
+    }
+
+    /**
+     * This method will pick a pit with stones of the player, each one as likely as the others
+     * The pits with stones are counted first and the chosen one is found by a second pass, without allocating
+     *
+     * @return the index of the pit
+     */
+    int randomMove(
+                    final int[] pits,
+                    final PlayerKind player,
+                    final SplittableRandom random
+    ) {
+        final int start = boardSizePerPlayer * player.getIndex() + 1;
+        final int end = start + boardSizePerPlayer - 1;
+        int playable = 0;
+        for (int index = start; index < end; index++)
+            if (pits[index] > 0)
+                playable++;
+
+        int chosen = random.nextInt(playable);
+        int index = start;
+        while (pits[index] == 0 || chosen-- > 0)
+            index++;
+        return index;
+    }
+
+    /**
+     * This method will pick the move giving another round to the player, otherwise the move that adds more stones
+     * to the player collector, the closest to the collector on a tie
+     * A small share of the moves is random (epsilon-greedy), otherwise every game would be the same
+     *
+     * @return the index of the pit
+     */
+    private int greedyMove(
+                    final int[] pits,
+                    final int[] scratch,
+                    final PlayerKind player,
+                    final SplittableRandom random
+    ) {
+        if (random.nextDouble() < GREEDY_EXPLORATION)
+            return randomMove(pits, player, random);
+
+        final int collector = boardSizePerPlayer * player.getIndex();
+        int bestMove = -1;
+        int bestGain = -1;
+        for (int index = collector + 1; index < collector + boardSizePerPlayer; index++) {
+            if (pits[index] == 0)
+                continue;
+            if (pits[index] % ringLength == index - collector)
+                return index;
+
+            System.arraycopy(pits, 0, scratch, 0, pits.length);
+            BoardRules.moveStones(scratch, player, boardSizePerPlayer, index);
+            final int gain = scratch[collector] - pits[collector];
+            if (gain > bestGain) {
+                bestGain = gain;
+                bestMove = index;
+            }
+        }
+        return bestMove;
+    }
+}
@@ -0,0 +1,41 @@
+package com.game.mancala.simulation;
+
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This class accumulates the outcome of the playouts of one thread, so the threads do not share any counter
+ * A game ending with the same stones in both collectors is a draw, though the rules give it to the last player
+ */
+class PlayoutStatistics {
+    long games;
+    long firstPlayerWins;
+    long draws;
+    long moves;
+    final long[][] storeHistograms;
+
+    PlayoutStatistics(
+                    final int totalStones
+    ) {
+        this.storeHistograms = new long[PlayerKind.count()][totalStones + 1];
+    }
+
+    /**
+     * This method will add the outcome of another thread
+     *
+     * @param other the statistics of the other thread
+     * @return the statistics itself
+     */
+    PlayoutStatistics merge(
+                    final PlayoutStatistics other
+    ) {
+        games += other.games;
+        firstPlayerWins += other.firstPlayerWins;
+        draws += other.draws;
+        moves += other.moves;
+        for (int player = 0; player < storeHistograms.length; player++) {
+            for (int stones = 0; stones < storeHistograms[player].length; stones++)
+                storeHistograms[player][stones] += other.storeHistograms[player][stones];
+        }
+        return this;
+    }
+}
@@ -0,0 +1,52 @@
+package com.game.mancala.simulation;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.game.mancala.model.PlayerKind;
+import com.game.mancala.model.SimulationWrapper;
+
+@Service
+public class SimulationService {
+
+    /**
+     * This method will play the games of the simulation using all the cores
+     * The same seed and configuration give the same statistics, a simulation without seed gets a random one
+     *
+     * @param input a simulation create object
+     * @return a simulation result
+     */
+    public SimulationWrapper.Result simulate(
+                    final SimulationWrapper.Create input
+    ) {
+        final long start = System.nanoTime();
+        final long seed = input.getSeed() != null ? input.getSeed() : ThreadLocalRandom.current().nextLong();
+        final MonteCarloSimulator simulator = new MonteCarloSimulator(input.getBoard().getBoardSize(),
+                        input.getBoard().getStonesPerPit(), input.getPolicy());
+        final PlayoutStatistics statistics = simulator.simulate(input.getGames(), seed);
+
+        final Map<PlayerKind, List<Long>> storeHistograms = new EnumMap<>(PlayerKind.class);
+        for (final PlayerKind player : PlayerKind.values()) {
+            storeHistograms.put(player, Arrays.stream(statistics.storeHistograms[player.getIndex()])
+                            .boxed()
+                            .collect(Collectors.toList()));
+        }
+
+        return SimulationWrapper.Result.builder()
+                        .games(statistics.games)
+                        .firstPlayerWinRate((double) statistics.firstPlayerWins / statistics.games)
+                        .firstPlayerLossRate((double) (statistics.games - statistics.firstPlayerWins
+                                        - statistics.draws) / statistics.games)
+                        .drawRate((double) statistics.draws / statistics.games)
+                        .averageGameLength((double) statistics.moves / statistics.games)
+                        .storeHistograms(storeHistograms)
+                        .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                        .build();
+    }
+}
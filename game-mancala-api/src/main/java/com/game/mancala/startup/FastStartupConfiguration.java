@@ -0,0 +1,44 @@
+package com.game.mancala.startup;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.game.mancala.GameMancalaApplication;
+import com.game.mancala.model.BoardShape;
+
+/**
+ * This configuration starts the application serving the first board sooner: the beans not needed to start are
+ * created by their first request, the JMX beans are not exported and the rules tables of the board shapes served by
+ * the API are built before the server starts. Pair it with the class data sharing archive of the {@code appCds} task
+ * to skip loading and verifying the classes again
+ */
+@Configuration
+@Profile(GameMancalaApplication.FAST_STARTUP_PROFILE)
+public class FastStartupConfiguration {
+
+    private static final int USUAL_BOARD_SIZE_PER_PLAYER = 7;
+
+    /**
+     * This method is static so the post processor is created before the configuration itself
+     *
+     * @return the post processor marking the beans lazy
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitializationPostProcessor() {
+        return new LazyInitializationPostProcessor();
+    }
+
+    /**
+     * This method will build the rules tables of the board shapes once every eager bean is created, instead of by the
+     * first board created. Asking the shape of the usual board of six pits builds the shapes of every served size
+     *
+     * @return the initializer of the board shapes
+     */
+    @Bean
+    public static SmartInitializingSingleton boardShapesInitializer() {
+        return () -> BoardShape.of(USUAL_BOARD_SIZE_PER_PLAYER);
+    }
+}
@@ -0,0 +1,70 @@
+package com.game.mancala.startup;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+
+import com.game.mancala.cluster.ClusterNode;
+import com.game.mancala.repository.BoardRepository;
+
+/**
+ * This post processor marks the bean definitions of the application lazy, so a bean is only created by the first
+ * request needing it instead of before the server starts
+ * The beans of the framework infrastructure, the lifecycles and the beans with work to do at startup stay eager:
+ * the repositories restore their boards, the cluster node joins the ring and the board shapes are built before the
+ * first request
+ * The type of a bean is read from its class or factory method name, so no bean is created to be checked
+ */
+class LazyInitializationPostProcessor implements BeanFactoryPostProcessor {
+
+    private static final List<Class<?>> EAGER_TYPES = Arrays.asList(SmartLifecycle.class, BoardRepository.class,
+                    ClusterNode.class, BeanFactoryPostProcessor.class, SmartInitializingSingleton.class);
+
+    @Override
+    public void postProcessBeanFactory(
+                    final ConfigurableListableBeanFactory beanFactory
+    ) {
+        for (final String name : beanFactory.getBeanDefinitionNames()) {
+            final BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.isLazyInit() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE)
+                continue;
+
+            final Class<?> type = typeOf(definition, beanFactory.getBeanClassLoader());
+            if (type != null && EAGER_TYPES.stream().anyMatch(eager -> eager.isAssignableFrom(type)))
+                continue;
+
+            definition.setLazyInit(true);
+        }
+    }
+
+    /**
+     * This method will resolve the type of a bean from its definition without creating it
+     *
+     * @param definition  the bean definition
+     * @param classLoader the class loader of the bean factory
+     * @return the bean type or null when the definition does not name it
+     */
+    private static Class<?> typeOf(
+                    final BeanDefinition definition,
+                    final ClassLoader classLoader
+    ) {
+        String className = definition.getBeanClassName();
+        if (definition instanceof AnnotatedBeanDefinition) {
+            final MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+            if (factoryMethod != null)
+                className = factoryMethod.getReturnTypeName();
+        }
+        if (className == null || !ClassUtils.isPresent(className, classLoader))
+            return null;
+
+        return ClassUtils.resolveClassName(className, classLoader);
+    }
+}
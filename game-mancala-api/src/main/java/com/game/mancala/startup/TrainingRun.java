@@ -0,0 +1,102 @@
+package com.game.mancala.startup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.model.PlayerKind;
+
+/**
+ * This listener plays a board against the started application and stops it, so a run dumping the class data
+ * sharing archive at its exit has loaded the classes of the requests and not only the classes of the startup
+ * The board starts with a random player, so the move is the first pit of the player read from the created board
+ */
+@Component
+@ConditionalOnProperty(name = "mancala.startup.training-run", havingValue = "true")
+public class TrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingRun.class);
+
+    private static final int TIMEOUT_MS = 10000;
+
+    private final ObjectMapper objectMapper;
+
+    public TrainingRun(
+                    final ObjectMapper objectMapper
+    ) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onApplicationEvent(
+                    final ApplicationReadyEvent event
+    ) {
+        final ConfigurableApplicationContext context = event.getApplicationContext();
+        final String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + "/board";
+        int exitCode = 0;
+        try {
+            final JsonNode board = objectMapper.readTree(send("POST", baseUrl,
+                            "{\"boardSize\": 6, \"stonesPerPit\": 6}"));
+            final String id = board.get("id").asText();
+            final int pit = board.get("boardSizePerPlayer").asInt()
+                            * PlayerKind.valueOf(board.get("currentPlayer").asText()).getIndex() + 1;
+            send("PUT", baseUrl + "/" + id + "/target/" + pit, null);
+            send("GET", baseUrl + "/" + id, null);
+            LOGGER.info("training run played board {}, stopping the application", id);
+        } catch (final IOException e) {
+            LOGGER.error("training run failed", e);
+            exitCode = 1;
+        }
+
+        final int failed = exitCode;
+        System.exit(SpringApplication.exit(context, () -> failed));
+    }
+
+    private static byte[] send(
+                    final String method,
+                    final String url,
+                    final String body
+    ) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setRequestProperty("Accept", MediaType.APPLICATION_JSON_VALUE);
+            if (body != null) {
+                final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                connection.setDoOutput(true);
+                connection.setFixedLengthStreamingMode(bytes.length);
+                connection.setRequestProperty("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+                try (OutputStream output = connection.getOutputStream()) {
+                    output.write(bytes);
+                }
+            }
+            if (connection.getResponseCode() / 100 != 2)
+                throw new IOException(method + " " + url + " answered " + connection.getResponseCode());
+
+            try (InputStream input = connection.getInputStream()) {
+                return StreamUtils.copyToByteArray(input);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.game.mancala.thread;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.coyote.AbstractProtocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This configuration runs every request of Tomcat on its own virtual thread, so a request waiting for the journal
+ * or a client holds no platform thread. The boards are locked with reentrant locks, which unmount a waiting
+ * virtual thread instead of pinning its carrier
+ */
+@Configuration
+@ConditionalOnProperty(name = "mancala.threads.virtual", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadCustomizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            final ExecutorService executor = VirtualThreads.newExecutor("http-virtual-").orElse(null);
+            if (executor == null || !(connector.getProtocolHandler() instanceof AbstractProtocol)) {
+                LOGGER.warn("virtual threads are not supported by this runtime, keeping the platform thread pool");
+                return;
+            }
+
+            ((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(executor);
+            LOGGER.info("requests of the {} connector run on virtual threads", connector.getProtocol());
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package com.game.mancala.thread;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class creates executors starting one virtual thread per task when the runtime supports them
+ * The application is built for Java 8, so the virtual thread builder is looked up by reflection through its
+ * public interface
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * This method will create an executor of named virtual threads
+     *
+     * @param prefix the prefix of the thread names
+     * @return the executor, empty when the runtime has no virtual threads
+     */
+    public static Optional<ExecutorService> newExecutor(
+                    final String prefix
+    ) {
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Method name = builderType.getMethod("name", String.class, long.class);
+            final Method factory = builderType.getMethod("factory");
+            final Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+
+            final Object builder = name.invoke(Thread.class.getMethod("ofVirtual").invoke(null), prefix, 0L);
+            return Optional.of((ExecutorService) newExecutor.invoke(null, factory.invoke(builder)));
+        } catch (final ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
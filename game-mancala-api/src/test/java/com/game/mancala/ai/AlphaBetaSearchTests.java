@@ -0,0 +1,63 @@
+package com.game.mancala.ai;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.game.mancala.model.PlayerKind;
+
+public class AlphaBetaSearchTests {
+
+    private static final int BOARD_SIZE = 4;
+    private static final int DEPTH = 8;
+    private static final long TIME_MS = 60_000;
+
+    @Test
+    public void anExtraTurnIsTakenFirst() {
+        final int[] board = new int[]{0, 1, 0, 2, 0, 2, 2, 2};
+
+        final SearchResult result = search(board, PlayerKind.PLAYER_1);
+
+        assertEquals(1, result.getMove());
+    }
+
+    @Test
+    public void aWinningCaptureIsPlayed() {
+        final int[] board = new int[]{5, 2, 0, 1, 5, 0, 8, 0};
+
+        final SearchResult result = search(board, PlayerKind.PLAYER_1);
+
+        assertEquals(3, result.getMove());
+        assertTrue(String.valueOf(result.getScore()), result.getScore() >= AlphaBetaSearch.WIN);
+        assertEquals(1, result.getDepth());
+    }
+
+    @Test
+    public void aForcedEndOfGameIsScoredExactly() {
+        final int[] board = new int[]{3, 0, 0, 1, 2, 0, 0, 1};
+
+        final SearchResult result = search(board, PlayerKind.PLAYER_1);
+
+        assertEquals(3, result.getMove());
+        assertEquals(-AlphaBetaSearch.WIN - 1, result.getScore());
+        assertEquals(2, result.getDepth());
+    }
+
+    @Test
+    public void thePositionIsNotModified() {
+        final int[] board = new int[]{0, 1, 0, 2, 0, 2, 2, 2};
+
+        search(board, PlayerKind.PLAYER_1);
+
+        assertArrayEquals(new int[]{0, 1, 0, 2, 0, 2, 2, 2}, board);
+    }
+
+    private static SearchResult search(
+                    final int[] board,
+                    final PlayerKind player
+    ) {
+        return new AlphaBetaSearch(new TranspositionTable(12), BOARD_SIZE).search(board, player, DEPTH, TIME_MS);
+    }
+}
@@ -0,0 +1,101 @@
+package com.game.mancala.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.game.mancala.model.PackedBoard;
+import com.game.mancala.model.PlayerKind;
+
+public class ParallelSearchTests {
+
+    private static final int THREADS = 4;
+    private static final int POSITIONS = 20;
+    private static final long NO_TIME_LIMIT_MS = TimeUnit.HOURS.toMillis(1);
+
+    private final ForkJoinPool pool = new ForkJoinPool(THREADS - 1);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void theParallelSearchScoresAsTheSingleThreadSearch() throws Exception {
+        final SplittableRandom random = new SplittableRandom(20180622L);
+        for (int position = 0; position < POSITIONS; position++) {
+            final int boardSizePerPlayer = 4 + position % 2;
+            final PackedBoard state = randomPosition(random, boardSizePerPlayer);
+            final int[] board = state.pits();
+
+            final SearchResult single = new AlphaBetaSearch(new TranspositionTable(16), boardSizePerPlayer)
+                            .search(board, state.getCurrentPlayer(), AlphaBetaSearch.MAX_DEPTH, NO_TIME_LIMIT_MS);
+            final SearchResult parallel = new ParallelSearch(pool, new TranspositionTable(16), THREADS)
+                            .search(board, boardSizePerPlayer, state.getCurrentPlayer(), AlphaBetaSearch.MAX_DEPTH,
+                                            NO_TIME_LIMIT_MS);
+
+            final String scenario = state.toString();
+            assertTrue(scenario, Math.abs(single.getScore()) >= AlphaBetaSearch.WIN / 2);
+            assertEquals(scenario, single.getScore(), parallel.getScore());
+            assertTrue(scenario, pool.awaitQuiescence(1, TimeUnit.SECONDS));
+            assertEquals(scenario, 0, pool.getActiveThreadCount());
+            assertEquals(scenario, 0, pool.getQueuedSubmissionCount());
+        }
+    }
+
+    @Test
+    public void aStoppedSearchReturnsTheLastCompletedDepth() throws Exception {
+        final PackedBoard state = PackedBoard.of(7, new int[]{0, 4, 4, 4, 4, 4, 4, 0, 4, 4, 4, 4, 4, 4},
+                        PlayerKind.PLAYER_1, true, null);
+        final AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(16), 7, 1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<SearchResult> result = executor.submit(() -> search.search(state.pits(),
+                            state.getCurrentPlayer(), AlphaBetaSearch.MAX_DEPTH, NO_TIME_LIMIT_MS));
+            Thread.sleep(100);
+            search.stop();
+
+            final SearchResult stopped = result.get(5, TimeUnit.SECONDS);
+            assertTrue(stopped.getDepth() >= 1);
+            assertTrue(stopped.getMove() > 0 && stopped.getMove() < 7);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * This method will play random moves from a board of two stones per pit, so the search solves the position
+     */
+    private static PackedBoard randomPosition(
+                    final SplittableRandom random,
+                    final int boardSizePerPlayer
+    ) {
+        final int[] pits = new int[boardSizePerPlayer * PlayerKind.count()];
+        for (int index = 0; index < pits.length; index++)
+            pits[index] = index % boardSizePerPlayer == 0 ? 0 : 2;
+        PackedBoard state = PackedBoard.of(boardSizePerPlayer, pits, PlayerKind.of(random.nextInt(2)), true, null);
+
+        final int moves = random.nextInt(4);
+        for (int move = 0; move < moves; move++) {
+            final int start = boardSizePerPlayer * state.getCurrentPlayer().getIndex();
+            final int[] current = state.pits();
+            int pit = start + 1 + random.nextInt(boardSizePerPlayer - 1);
+            while (current[pit] == 0)
+                pit = start + 1 + random.nextInt(boardSizePerPlayer - 1);
+            final PackedBoard next = state.move(pit).processPossibleWinner();
+            if (!next.isOpen())
+                break;
+            state = next;
+        }
+        return state;
+    }
+}
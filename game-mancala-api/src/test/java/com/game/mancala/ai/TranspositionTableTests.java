@@ -0,0 +1,69 @@
+package com.game.mancala.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import com.game.mancala.model.PlayerKind;
+
+public class TranspositionTableTests {
+
+    private static final int SIZE_BITS = 8;
+
+    @Test
+    public void anEntryIsProbedAsStored() {
+        final TranspositionTable table = new TranspositionTable(SIZE_BITS);
+        final long key = ZobristKeys.hash(new int[]{0, 3, 3, 3, 0, 3, 3, 3}, PlayerKind.PLAYER_1.getIndex());
+
+        table.store(key, 7, TranspositionTable.LOWER, -1234, 3);
+        final long entry = table.probe(key);
+
+        assertNotEquals(0, entry);
+        assertEquals(-1234, TranspositionTable.score(entry));
+        assertEquals(3, TranspositionTable.move(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.flag(entry));
+    }
+
+    @Test
+    public void anEntryWithoutMoveIsProbedWithoutMove() {
+        final TranspositionTable table = new TranspositionTable(SIZE_BITS);
+
+        table.store(42L, 1, TranspositionTable.EXACT, AlphaBetaSearch.WIN, -1);
+        final long entry = table.probe(42L);
+
+        assertEquals(-1, TranspositionTable.move(entry));
+        assertEquals(AlphaBetaSearch.WIN, TranspositionTable.score(entry));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.flag(entry));
+    }
+
+    @Test
+    public void aForeignKeyOfTheSameSlotIsAMiss() {
+        final TranspositionTable table = new TranspositionTable(SIZE_BITS);
+        final long key = ZobristKeys.hash(new int[]{0, 3, 3, 3, 0, 3, 3, 3}, PlayerKind.PLAYER_1.getIndex());
+        final long foreign = key ^ (1L << (SIZE_BITS + 4));
+
+        table.store(key, 5, TranspositionTable.EXACT, 10, 2);
+
+        assertEquals(0, table.probe(foreign));
+        assertEquals(0, new TranspositionTable(SIZE_BITS).probe(key));
+    }
+
+    @Test
+    public void aDeeperEntryIsKept() {
+        final TranspositionTable table = new TranspositionTable(SIZE_BITS);
+
+        table.store(42L, 6, TranspositionTable.EXACT, 10, 2);
+        table.store(42L, 3, TranspositionTable.UPPER, -5, 1);
+
+        assertEquals(6, TranspositionTable.depth(table.probe(42L)));
+        assertEquals(10, TranspositionTable.score(table.probe(42L)));
+
+        table.store(42L, 9, TranspositionTable.UPPER, -5, 1);
+        assertEquals(9, TranspositionTable.depth(table.probe(42L)));
+
+        table.clear();
+        assertEquals(0, table.probe(42L));
+    }
+}
@@ -0,0 +1,385 @@
+package com.game.mancala.api;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.model.BoardWrapper;
+import com.game.mancala.model.PackedBoard;
+import com.game.mancala.model.PlayerKind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "mancala.metrics.phases.sample-rate=1")
+@AutoConfigureMockMvc
+public class BoardApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    public void boardIsJsonByDefault() throws Exception {
+        final UUID id = create();
+
+        mockMvc.perform(get("/board/{id}", id).accept(MediaType.ALL))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                        .andExpect(jsonPath("$.id").value(id.toString()));
+    }
+
+    @Test
+    public void boardIsBinaryWhenAsked() throws Exception {
+        final UUID id = create();
+
+        final byte[] body = mockMvc.perform(get("/board/{id}", id).accept(BoardBinaryMessageConverter.MEDIA_TYPE))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(BoardBinaryMessageConverter.MEDIA_TYPE))
+                        .andExpect(header().longValue("Content-Length", 40))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        final BoardWrapper.Result result = BoardBinaryMessageConverter.decode(body);
+        assertEquals(id, result.getId());
+        assertEquals(Integer.valueOf(5), result.getBoardSizePerPlayer());
+        assertEquals(Arrays.asList(0, 3, 3, 3, 3, 0, 3, 3, 3, 3), result.getBoard());
+        assertEquals(true, result.getIsOpen());
+        assertEquals(Long.valueOf(0), result.getVersion());
+    }
+
+    @Test
+    public void movesArePushedAsDeltas() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final boolean firstPlayer = "PLAYER_1".equals(board.get("currentPlayer").asText());
+        final int pit = firstPlayer ? 1 : 6;
+        final MvcResult events = mockMvc.perform(get("/board/{id}/events", id))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        mockMvc.perform(put("/board/{id}/target/{index}", id, pit))
+                        .andExpect(status().isOk());
+
+        final String stream = awaitEvent(events, "event:move");
+        assertTrue(stream.startsWith("event:board\ndata:{\"id\":\"" + id));
+        assertTrue(stream.contains(firstPlayer
+                        ? "\"pits\":[0,1,8,9],\"stones\":[1,0,4,4]"
+                        : "\"pits\":[3,4,5,6],\"stones\":[4,4,1,0]"));
+    }
+
+    @Test
+    public void movesAreAppliedInOrder() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final boolean firstPlayer = "PLAYER_1".equals(board.get("currentPlayer").asText());
+        final String moves = firstPlayer ? "[3, 1]" : "[8, 6]";
+
+        mockMvc.perform(post("/board/{id}/moves", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(moves))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.board", is(firstPlayer
+                                        ? Arrays.asList(2, 0, 4, 0, 3, 0, 3, 4, 4, 4)
+                                        : Arrays.asList(0, 3, 4, 4, 4, 2, 0, 4, 0, 3))));
+    }
+
+    @Test
+    public void rejectedMoveLeavesTheBoardUntouched() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final boolean firstPlayer = "PLAYER_1".equals(board.get("currentPlayer").asText());
+        final String moves = firstPlayer ? "[3, 3]" : "[8, 8]";
+
+        mockMvc.perform(post("/board/{id}/moves", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(moves))
+                        .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/board/{id}", id))
+                        .andExpect(jsonPath("$.board", is(Arrays.asList(0, 3, 3, 3, 3, 0, 3, 3, 3, 3))))
+                        .andExpect(jsonPath("$.currentPlayer").value(board.get("currentPlayer").asText()));
+    }
+
+    @Test
+    public void boardsAreCreatedAndReadInBulk() throws Exception {
+        final JsonNode created = streamed(mockMvc.perform(post("/board/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"boardSize\": 4, \"stonesPerPit\": 3, \"count\": 300}"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn());
+        assertEquals(300, created.size());
+
+        final String first = created.get(0).get("id").asText();
+        final String last = created.get(299).get("id").asText();
+        final double notFound = notFound();
+        final JsonNode read = streamed(mockMvc.perform(get("/board")
+                        .param("ids", first + "," + UUID.randomUUID() + "," + last))
+                        .andExpect(request().asyncStarted())
+                        .andReturn());
+        assertEquals(2, read.size());
+        assertEquals(first, read.get(0).get("id").asText());
+        assertEquals(last, read.get(1).get("id").asText());
+        assertEquals(created.get(299), read.get(1));
+        assertEquals(notFound, notFound(), 0);
+    }
+
+    @Test
+    public void movesAndRejectionsAreMeasured() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final boolean firstPlayer = "PLAYER_1".equals(board.get("currentPlayer").asText());
+
+        mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 1 : 6))
+                        .andExpect(status().isOk());
+        mockMvc.perform(put("/board/{id}/target/{index}", id, 0))
+                        .andExpect(status().isBadRequest());
+
+        final String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        for (final String phase : new String[]{"lookup", "validation", "sowing", "winner", "recording", "mapping"})
+            assertTrue(phase, metrics.contains("mancala_move_seconds_count{phase=\"" + phase + "\",}"));
+        assertTrue(metrics.contains("mancala_errors_total{key=\"player.board.interval.invalid\",}"));
+        assertTrue(metrics.contains("mancala_boards_open "));
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket{exception=\"None\",method=\"PUT\""));
+    }
+
+    @Test
+    public void movesAreConditionalOnTheBoardVersion() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final boolean firstPlayer = "PLAYER_1".equals(board.get("currentPlayer").asText());
+        assertEquals(0, board.get("version").asLong());
+
+        mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 3 : 8).header("If-Match", "\"0\""))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"1\""))
+                        .andExpect(jsonPath("$.version", is(1)));
+        mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 1 : 6).header("If-Match", "\"0\""))
+                        .andExpect(status().isConflict())
+                        .andExpect(jsonPath("$.message", is("board.version.conflict")));
+
+        mockMvc.perform(get("/board/{id}", id).header("If-None-Match", "\"1\""))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string("ETag", "\"1\""))
+                        .andExpect(content().string(""));
+        mockMvc.perform(get("/board/{id}", id).header("If-None-Match", "\"0\""))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"1\""))
+                        .andExpect(jsonPath("$.version", is(1)));
+    }
+
+    @Test
+    public void movesMatchTheStrongTagsOnly() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final boolean firstPlayer = "PLAYER_1".equals(board.get("currentPlayer").asText());
+
+        mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 3 : 8).header("If-Match", "W/\"0\""))
+                        .andExpect(status().isConflict())
+                        .andExpect(jsonPath("$.message", is("board.version.conflict")));
+        mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 3 : 8).header("If-Match", "\"x\""))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message", is("board.version.invalid")));
+
+        mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 3 : 8)
+                        .header("If-Match", "\"7\", W/\"0\", \"0-bin\""))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"1\""))
+                        .andExpect(jsonPath("$.version", is(1)));
+        mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 1 : 6).header("If-Match", "*"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"2\""))
+                        .andExpect(jsonPath("$.version", is(2)));
+    }
+
+    @Test
+    public void eachRepresentationHasItsOwnTag() throws Exception {
+        final UUID id = create();
+
+        mockMvc.perform(get("/board/{id}", id))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"0\""))
+                        .andExpect(header().string("Vary", "Accept"));
+        mockMvc.perform(get("/board/{id}", id).accept(BoardBinaryMessageConverter.MEDIA_TYPE))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"0-bin\""))
+                        .andExpect(header().string("Vary", "Accept"));
+
+        mockMvc.perform(get("/board/{id}", id).accept(BoardBinaryMessageConverter.MEDIA_TYPE)
+                        .header("If-None-Match", "\"0\""))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentType(BoardBinaryMessageConverter.MEDIA_TYPE));
+        mockMvc.perform(get("/board/{id}", id).accept(BoardBinaryMessageConverter.MEDIA_TYPE)
+                        .header("If-None-Match", "W/\"0-bin\""))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string("ETag", "\"0-bin\""))
+                        .andExpect(header().string("Vary", "Accept"));
+        mockMvc.perform(get("/board/{id}", id).header("If-None-Match", "\"0-bin\""))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    @Test
+    public void theComputerPlaysOneLegalMove() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final PlayerKind player = PlayerKind.valueOf(board.get("currentPlayer").asText());
+        final int[] pits = objectMapper.treeToValue(board.get("board"), int[].class);
+        final int boardSizePerPlayer = board.get("boardSizePerPlayer").asInt();
+
+        final List<List<Integer>> legal = new ArrayList<>();
+        final int start = boardSizePerPlayer * player.getIndex();
+        for (int pit = start + 1; pit < start + boardSizePerPlayer; pit++) {
+            final int[] moved = PackedBoard.of(boardSizePerPlayer, pits, player, true, null).move(pit)
+                            .processPossibleWinner().pits();
+            legal.add(Arrays.stream(moved).boxed().collect(Collectors.toList()));
+        }
+
+        final JsonNode played = objectMapper.readTree(mockMvc.perform(post("/board/{id}/ai-move", id)
+                        .param("depth", "6")
+                        .param("timeMs", "500"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("ETag", "\"1\""))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString());
+        assertEquals(1, played.get("version").asLong());
+        assertTrue(played.get("board").toString(),
+                        legal.contains(Arrays.asList(objectMapper.treeToValue(played.get("board"), Integer[].class))));
+    }
+
+    @Test
+    public void theComputerRejectsAnInvalidSearch() throws Exception {
+        final UUID id = create();
+
+        for (final String depth : new String[]{"0", "65"}) {
+            mockMvc.perform(post("/board/{id}/ai-move", id).param("depth", depth))
+                            .andExpect(status().isBadRequest())
+                            .andExpect(jsonPath("$.message").value("board.ai.depth.invalid"));
+        }
+        for (final String timeMs : new String[]{"0", "10001"}) {
+            mockMvc.perform(post("/board/{id}/ai-move", id).param("timeMs", timeMs))
+                            .andExpect(status().isBadRequest())
+                            .andExpect(jsonPath("$.message").value("board.ai.time.invalid"));
+        }
+        mockMvc.perform(post("/board/{id}/ai-move", id).param("depth", "deep"))
+                        .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/board/{id}", id))
+                        .andExpect(jsonPath("$.version", is(0)))
+                        .andExpect(jsonPath("$.board", is(Arrays.asList(0, 3, 3, 3, 3, 0, 3, 3, 3, 3))));
+    }
+
+    @Test
+    public void rejectionsCarryTheirMessageKey() throws Exception {
+        final JsonNode board = createBoard();
+        final UUID id = UUID.fromString(board.get("id").asText());
+        final boolean firstPlayer = "PLAYER_1".equals(board.get("currentPlayer").asText());
+
+        mockMvc.perform(get("/board/{id}", UUID.randomUUID()))
+                        .andExpect(status().isNotFound())
+                        .andExpect(jsonPath("$.status").value(404))
+                        .andExpect(jsonPath("$.message").value("board.not_found"));
+
+        for (int rejection = 0; rejection < 2; rejection++) {
+            mockMvc.perform(put("/board/{id}/target/{index}", id, firstPlayer ? 6 : 1))
+                            .andExpect(status().isBadRequest())
+                            .andExpect(jsonPath("$.status").value(400))
+                            .andExpect(jsonPath("$.error").value("Bad Request"))
+                            .andExpect(jsonPath("$.message").value("player.board.interval.invalid"));
+        }
+
+        mockMvc.perform(post("/board/{id}/moves", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(firstPlayer ? "[3, 3]" : "[8, 8]"))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.message").value("board.moves.1.player.board.field.zero.invalid"));
+    }
+
+    private JsonNode streamed(
+                    final MvcResult started
+    ) throws Exception {
+        final String body = mockMvc.perform(asyncDispatch(started))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        return objectMapper.readTree(body);
+    }
+
+    private static String awaitEvent(
+                    final MvcResult events,
+                    final String event
+    ) throws Exception {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String stream = events.getResponse().getContentAsString();
+        while (!(stream.contains(event) && stream.endsWith("\n\n")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stream = events.getResponse().getContentAsString();
+        }
+        assertTrue(stream.contains(event));
+        return stream;
+    }
+
+    private UUID create() throws Exception {
+        return UUID.fromString(createBoard().get("id").asText());
+    }
+
+    private JsonNode createBoard() throws Exception {
+        final String body = mockMvc.perform(post("/board")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"boardSize\": 4, \"stonesPerPit\": 3}"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        return objectMapper.readTree(body);
+    }
+
+    private double notFound() {
+        final Counter counter = registry.find("mancala.errors").tag("key", "board.not_found").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,169 @@
+package com.game.mancala.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import reactor.core.publisher.Flux;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "spring.main.web-application-type=reactive")
+public class ReactiveBoardApiTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    public void boardsAreServedByNetty() {
+        assertTrue(((ReactiveWebServerApplicationContext) applicationContext).getWebServer() instanceof NettyWebServer);
+    }
+
+    @Test
+    public void boardIsCreatedAndMovedOnTheReactiveStack() {
+        final JsonNode board = create();
+        final int pit = "PLAYER_1".equals(board.get("currentPlayer").asText()) ? 1 : 6;
+
+        final JsonNode moved = webTestClient.put()
+                        .uri("/board/{id}/target/{index}", board.get("id").asText(), pit)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody(JsonNode.class)
+                        .returnResult()
+                        .getResponseBody();
+
+        assertEquals(board.get("id"), moved.get("id"));
+        assertEquals(0, moved.get("board").get(pit).asInt());
+        assertTrue(moved.get("isOpen").asBoolean());
+    }
+
+    @Test
+    public void boardVersionsAreCheckedOnTheReactiveStack() {
+        final JsonNode board = create();
+        final String id = board.get("id").asText();
+        final int pit = "PLAYER_1".equals(board.get("currentPlayer").asText()) ? 1 : 6;
+
+        webTestClient.put()
+                        .uri("/board/{id}/target/{index}", id, pit)
+                        .header("If-Match", "\"1\"")
+                        .exchange()
+                        .expectStatus().isEqualTo(409)
+                        .expectBody().jsonPath("$.message").isEqualTo("board.version.conflict");
+        webTestClient.get()
+                        .uri("/board/{id}", id)
+                        .header("If-None-Match", "\"0\"")
+                        .exchange()
+                        .expectStatus().isNotModified()
+                        .expectHeader().valueEquals("ETag", "\"0\"");
+    }
+
+    @Test
+    public void boardsAreCreatedAndReadInBulkOnTheReactiveStack() {
+        final List<JsonNode> created = webTestClient.post()
+                        .uri("/board/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_STREAM_JSON)
+                        .syncBody("{\"boardSize\": 4, \"stonesPerPit\": 3, \"count\": 300}")
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBodyList(JsonNode.class)
+                        .returnResult()
+                        .getResponseBody();
+        assertEquals(300, created.size());
+
+        webTestClient.get()
+                        .uri("/board?ids={first},{last}", created.get(0).get("id").asText(),
+                                        created.get(299).get("id").asText())
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBodyList(JsonNode.class)
+                        .hasSize(2);
+    }
+
+    @Test
+    public void boardEventsAreStreamedOnTheReactiveStack() {
+        final JsonNode board = create();
+        final String id = board.get("id").asText();
+        final int pit = "PLAYER_1".equals(board.get("currentPlayer").asText()) ? 1 : 6;
+
+        final Flux<ServerSentEvent<String>> events = webTestClient.get()
+                        .uri("/board/{id}/events", id)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                        })
+                        .getResponseBody();
+        webTestClient.put()
+                        .uri("/board/{id}/target/{index}", id, pit)
+                        .exchange()
+                        .expectStatus().isOk();
+
+        final List<ServerSentEvent<String>> received = events.take(2).collectList().block(Duration.ofSeconds(10));
+        assertEquals("board", received.get(0).event());
+        assertEquals("move", received.get(1).event());
+        assertTrue(received.get(1).data().contains("\"version\":1"));
+    }
+
+    @Test
+    public void failuresKeepTheirStatus() {
+        final JsonNode board = create();
+        final int otherPlayerPit = "PLAYER_1".equals(board.get("currentPlayer").asText()) ? 6 : 1;
+
+        webTestClient.get()
+                        .uri("/board/{id}", UUID.randomUUID())
+                        .exchange()
+                        .expectStatus().isNotFound()
+                        .expectBody()
+                        .jsonPath("$.message").isEqualTo("board.not_found");
+
+        webTestClient.put()
+                        .uri("/board/{id}/target/{index}", board.get("id").asText(), otherPlayerPit)
+                        .exchange()
+                        .expectStatus().isBadRequest()
+                        .expectBody()
+                        .jsonPath("$.message").isEqualTo("player.board.interval.invalid");
+
+        webTestClient.post()
+                        .uri("/board")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .syncBody("{\"boardSize\": 9, \"stonesPerPit\": 3}")
+                        .exchange()
+                        .expectStatus().isBadRequest();
+    }
+
+    private JsonNode create() {
+        return webTestClient.post()
+                        .uri("/board")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .syncBody("{\"boardSize\": 4, \"stonesPerPit\": 3}")
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody(JsonNode.class)
+                        .returnResult()
+                        .getResponseBody();
+    }
+}
@@ -0,0 +1,57 @@
+package com.game.mancala.api;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "mancala.metrics.phases.sample-rate=1")
+@AutoConfigureMockMvc
+public class SimulationApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void gamesAreSimulated() throws Exception {
+        mockMvc.perform(post("/simulation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 3}, \"games\": 100, "
+                                        + "\"policy\": \"GREEDY\", \"seed\": 1}"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.games").value(100))
+                        .andExpect(jsonPath("$.storeHistograms.PLAYER_1.length()").value(4 * 3 * 2 + 1));
+    }
+
+    @Test
+    public void badConfigsAreRejected() throws Exception {
+        final String[] configs = new String[]{
+                        "{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 3}, \"games\": 0}",
+                        "{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 3}, \"games\": 10000001}",
+                        "{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 3}}",
+                        "{\"games\": 10}",
+                        "{\"board\": {\"boardSize\": 1, \"stonesPerPit\": 3}, \"games\": 10}",
+                        "{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 7}, \"games\": 10}",
+                        "{\"board\": {\"boardSize\": 4}, \"games\": 10}",
+                        "{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 3}, \"games\": 10, \"policy\": null}",
+                        "{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 3}, \"games\": 10, \"policy\": \"SMART\"}",
+                        "{\"board\": {\"boardSize\": 4, \"stonesPerPit\": 3}, \"games\": \"many\"}",
+        };
+
+        for (final String config : configs) {
+            mockMvc.perform(post("/simulation")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(config))
+                            .andExpect(status().isBadRequest());
+        }
+    }
+}
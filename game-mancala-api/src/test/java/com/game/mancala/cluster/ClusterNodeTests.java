@@ -0,0 +1,334 @@
+package com.game.mancala.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.GameMancalaApplication;
+import com.game.mancala.model.Board;
+import com.game.mancala.repository.BoardCodec;
+import com.game.mancala.repository.InMemoryBoardRepository;
+
+public class ClusterNodeTests {
+
+    private static final int BOARDS = 64;
+    private static final int MOVERS = 4;
+    private static final String SECRET = "cluster-secret";
+
+    private final TestRestTemplate rest = new TestRestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    private Path membersFile;
+    private String firstUrl;
+    private String secondUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        membersFile = Files.createTempFile("cluster", ".properties");
+        firstUrl = "http://localhost:" + freePort();
+        secondUrl = "http://localhost:" + freePort();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        Files.deleteIfExists(membersFile);
+    }
+
+    @Test
+    public void boardsMoveToAJoiningNodeWithoutDroppingMoves() throws Exception {
+        writeMembers("node-1=" + firstUrl + "\n", 1);
+        final InMemoryBoardRepository firstBoards = start("node-1", firstUrl);
+
+        final List<UUID> ids = new ArrayList<>();
+        for (int index = 0; index < BOARDS; index++)
+            ids.add(create(firstUrl));
+        assertEquals(BOARDS, firstBoards.size());
+
+        final AtomicBoolean moving = new AtomicBoolean(true);
+        final ExecutorService movers = Executors.newFixedThreadPool(MOVERS);
+        final List<Future<Integer>> played = new ArrayList<>();
+        for (int mover = 0; mover < MOVERS; mover++) {
+            final SplittableRandom random = new SplittableRandom(mover);
+            played.add(movers.submit(() -> {
+                int moves = 0;
+                while (moving.get()) {
+                    final UUID id = ids.get(random.nextInt(ids.size()));
+                    final int pit = 1 + random.nextInt(9);
+                    final ResponseEntity<String> response = rest.exchange(firstUrl + "/board/" + id + "/target/"
+                                    + pit, HttpMethod.PUT, null, String.class);
+                    assertTrue(response.getBody(), response.getStatusCode() == HttpStatus.OK
+                                    || response.getStatusCode() == HttpStatus.BAD_REQUEST
+                                    || response.getBody().contains("cluster.board.moving"));
+                    if (response.getStatusCode() == HttpStatus.OK)
+                        moves++;
+                }
+                return moves;
+            }));
+        }
+
+        writeMembers("node-1=" + firstUrl + "\nnode-2=" + secondUrl + "\n", 2);
+        final InMemoryBoardRepository secondBoards = start("node-2", secondUrl);
+        final HashRing ring = new HashRing(ClusterNode.readMembers(membersFile));
+        final long owned = ids.stream().filter(id -> "node-2".equals(ring.ownerOf(id))).count();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (firstBoards.size() != BOARDS - owned || secondBoards.size() != owned) {
+            assertTrue("boards were not handed over", System.nanoTime() < deadline);
+            Thread.sleep(50);
+        }
+        Thread.sleep(200);
+        moving.set(false);
+        movers.shutdown();
+
+        int moves = 0;
+        for (final Future<Integer> mover : played)
+            moves += mover.get();
+        assertTrue(moves > 0);
+        assertEquals(BOARDS, firstBoards.size() + secondBoards.size());
+
+        for (final UUID id : ids) {
+            final ResponseEntity<String> first = rest.getForEntity(firstUrl + "/board/" + id, String.class);
+            final ResponseEntity<String> second = rest.getForEntity(secondUrl + "/board/" + id, String.class);
+            assertEquals(HttpStatus.OK, first.getStatusCode());
+            assertEquals(first.getBody(), second.getBody());
+        }
+    }
+
+    @Test
+    public void boardsAreCreatedOnTheirOwner() throws Exception {
+        writeMembers("node-1=" + firstUrl + "\nnode-2=" + secondUrl + "\n", 1);
+        final InMemoryBoardRepository firstBoards = start("node-1", firstUrl);
+        final InMemoryBoardRepository secondBoards = start("node-2", secondUrl);
+        final HashRing ring = new HashRing(ClusterNode.readMembers(membersFile));
+
+        for (int index = 0; index < BOARDS; index++) {
+            final UUID id = create(index % 2 == 0 ? firstUrl : secondUrl);
+            assertTrue((index % 2 == 0 ? firstBoards : secondBoards).findOne(id).isPresent());
+            assertEquals(index % 2 == 0 ? "node-1" : "node-2", ring.ownerOf(id));
+        }
+    }
+
+    @Test
+    public void aBoardIsOnlyKeptWithTheSecretByItsOwnerAndNeverOlder() throws Exception {
+        writeMembers("node-1=" + firstUrl + "\nnode-2=" + secondUrl + "\n", 1);
+        final InMemoryBoardRepository firstBoards = start("node-1", firstUrl);
+        final HashRing ring = new HashRing(ClusterNode.readMembers(membersFile));
+        final UUID id = create(firstUrl);
+        rest.exchange(firstUrl + "/board/" + id + "/target/1", HttpMethod.PUT, null, String.class);
+        final Board held = firstBoards.findOne(id).get();
+        final String moved = rest.getForObject(firstUrl + "/board/" + id, String.class);
+
+        assertEquals(HttpStatus.FORBIDDEN, handOver(firstUrl, held, null).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, handOver(firstUrl, held, "wrong").getStatusCode());
+
+        final Board older = copy(held);
+        older.setVersion(held.getVersion() - 1);
+        assertEquals(HttpStatus.CONFLICT, handOver(firstUrl, older, SECRET).getStatusCode());
+        assertEquals(HttpStatus.NO_CONTENT, handOver(firstUrl, copy(held), SECRET).getStatusCode());
+        assertEquals(moved, rest.getForObject(firstUrl + "/board/" + id, String.class));
+
+        UUID foreign = UUID.randomUUID();
+        while (!"node-2".equals(ring.ownerOf(foreign)))
+            foreign = UUID.randomUUID();
+        final Board misdirected = BoardCodec.decode(foreign, ByteBuffer.wrap(BoardCodec.encode(held)));
+        assertEquals(ClusterNode.MISDIRECTED, handOver(firstUrl, misdirected, SECRET).getStatusCodeValue());
+        assertFalse(firstBoards.findOne(foreign).isPresent());
+    }
+
+    @Test
+    public void aComputerMoveIsForwardedForItsWholeSearch() throws Exception {
+        writeMembers("node-1=" + firstUrl + "\nnode-2=" + secondUrl + "\n", 1);
+        start("node-1", firstUrl, "--mancala.cluster.timeout-ms=300");
+        final InMemoryBoardRepository secondBoards = start("node-2", secondUrl, "--mancala.cluster.timeout-ms=300");
+        final UUID id = create(secondUrl, "{\"boardSize\": 6, \"stonesPerPit\": 6}");
+
+        final ResponseEntity<String> response = rest.postForEntity(firstUrl + "/board/" + id
+                        + "/ai-move?depth=64&timeMs=1000", null, String.class);
+        assertEquals(response.getBody(), HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, objectMapper.readTree(response.getBody()).get("version").asLong());
+        assertEquals(1, secondBoards.findOne(id).get().getVersion());
+    }
+
+    @Test
+    public void aReadOfManyBoardsIsServedByTheirSingleNodeOnly() throws Exception {
+        writeMembers("node-1=" + firstUrl + "\nnode-2=" + secondUrl + "\n", 1);
+        start("node-1", firstUrl);
+        start("node-2", secondUrl);
+        final UUID first = create(firstUrl);
+        final UUID second = create(secondUrl);
+        final UUID other = create(secondUrl);
+
+        final ResponseEntity<String> forwarded = rest.getForEntity(firstUrl + "/board?ids=" + second + "," + other,
+                        String.class);
+        assertEquals(forwarded.getBody(), HttpStatus.OK, forwarded.getStatusCode());
+        assertEquals(2, objectMapper.readTree(forwarded.getBody()).size());
+
+        final ResponseEntity<String> mixed = rest.getForEntity(firstUrl + "/board?ids=" + first + "," + second,
+                        String.class);
+        assertEquals(ClusterNode.MISDIRECTED, mixed.getStatusCodeValue());
+        assertTrue(mixed.getBody(), mixed.getBody().contains("cluster.boards.nodes"));
+    }
+
+    @Test
+    public void theHopsAreOnlyTakenFromTheOtherNodes() throws Exception {
+        writeMembers("node-1=" + firstUrl + "\nnode-2=" + secondUrl + "\n", 1);
+        start("node-1", firstUrl);
+        start("node-2", secondUrl);
+        final UUID id = create(secondUrl);
+
+        assertEquals(HttpStatus.OK, getWithHops(firstUrl + "/board/" + id, "3", null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, getWithHops(firstUrl + "/board/" + id, "-8", SECRET).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, getWithHops(firstUrl + "/board/" + id, "many", null).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, getWithHops(firstUrl + "/board/" + id, "3", SECRET).getStatusCode());
+    }
+
+    @Test
+    public void aBoardBeingHandedOverIsRefusedWithoutWaitingForItsNewOwner() throws Exception {
+        writeMembers("node-1=" + firstUrl + "\n", 1);
+        start("node-1", firstUrl);
+        try (ServerSocket stalled = new ServerSocket(0)) {
+            final String stalledUrl = "http://localhost:" + stalled.getLocalPort();
+            final Map<String, String> members = new LinkedHashMap<>();
+            members.put("node-1", firstUrl);
+            members.put("node-2", stalledUrl);
+            final HashRing ring = new HashRing(members);
+            UUID id = create(firstUrl);
+            while (!"node-2".equals(ring.ownerOf(id)))
+                id = create(firstUrl);
+
+            writeMembers("node-1=" + firstUrl + "\nnode-2=" + stalledUrl + "\n", 2);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            ResponseEntity<String> response;
+            do {
+                assertTrue("the board was not handed over", System.nanoTime() < deadline);
+                final long started = System.nanoTime();
+                response = rest.getForEntity(firstUrl + "/board/" + id, String.class);
+                assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2));
+            } while (response.getStatusCode() == HttpStatus.OK);
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+            assertTrue(response.getBody(), response.getBody().contains("cluster.board.moving"));
+        }
+    }
+
+    private ResponseEntity<String> getWithHops(
+                    final String url,
+                    final String hops,
+                    final String secret
+    ) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(ClusterNode.HOPS_HEADER, hops);
+        if (secret != null)
+            headers.set(ClusterNode.SECRET_HEADER, secret);
+        return rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private ResponseEntity<Void> handOver(
+                    final String url,
+                    final Board board,
+                    final String secret
+    ) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        if (secret != null)
+            headers.set(ClusterNode.SECRET_HEADER, secret);
+        return rest.exchange(url + "/cluster/boards/" + board.getId(), HttpMethod.PUT,
+                        new HttpEntity<>(BoardCodec.encode(board), headers), Void.class);
+    }
+
+    private static Board copy(
+                    final Board board
+    ) throws IOException {
+        return BoardCodec.decode(board.getId(), ByteBuffer.wrap(BoardCodec.encode(board)));
+    }
+
+    private InMemoryBoardRepository start(
+                    final String node,
+                    final String url,
+                    final String... properties
+    ) {
+        final List<String> args = new ArrayList<>(Arrays.asList(
+                        "--server.port=" + url.substring(url.lastIndexOf(':') + 1),
+                        "--spring.jmx.enabled=false",
+                        "--mancala.cluster.enabled=true",
+                        "--mancala.cluster.node=" + node,
+                        "--mancala.cluster.members-file=" + membersFile,
+                        "--mancala.cluster.refresh-ms=100",
+                        "--mancala.cluster.secret=" + SECRET));
+        args.addAll(Arrays.asList(properties));
+        final ConfigurableApplicationContext context = new SpringApplicationBuilder(GameMancalaApplication.class)
+                        .run(args.toArray(new String[0]));
+        nodes.add(context);
+        return context.getBean(InMemoryBoardRepository.class);
+    }
+
+    private UUID create(
+                    final String url
+    ) throws IOException {
+        return create(url, "{\"boardSize\": 4, \"stonesPerPit\": 3}");
+    }
+
+    private UUID create(
+                    final String url,
+                    final String board
+    ) throws IOException {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        final ResponseEntity<String> response = rest.postForEntity(url + "/board",
+                        new HttpEntity<>(board, headers), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return UUID.fromString(objectMapper.readTree(response.getBody()).get("id").asText());
+    }
+
+    /**
+     * This method will write the members file moving its modification time, as two writes may share one tick
+     */
+    private void writeMembers(
+                    final String members,
+                    final int version
+    ) throws IOException {
+        Files.write(membersFile, members.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(membersFile, FileTime.fromMillis(System.currentTimeMillis() + version * 1000L));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.game.mancala.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class HashRingTests {
+
+    private static final int BOARDS = 30000;
+
+    @Test
+    public void boardsAreSpreadOverTheNodes() {
+        final HashRing ring = new HashRing(members(3));
+        final Map<String, Integer> owned = new HashMap<>();
+        for (int index = 0; index < BOARDS; index++)
+            owned.merge(ring.ownerOf(UUID.randomUUID()), 1, Integer::sum);
+
+        assertEquals(3, owned.size());
+        for (final int boards : owned.values())
+            assertTrue("node owns " + boards, boards > BOARDS / 5 && boards < BOARDS / 2);
+    }
+
+    @Test
+    public void joiningNodeOnlyTakesBoardsOfTheOtherNodes() {
+        final HashRing before = new HashRing(members(3));
+        final HashRing after = new HashRing(members(4));
+        int moved = 0;
+        for (int index = 0; index < BOARDS; index++) {
+            final UUID id = UUID.randomUUID();
+            final String owner = after.ownerOf(id);
+            if (owner.equals(before.ownerOf(id)))
+                continue;
+
+            assertEquals("node-4", owner);
+            moved++;
+        }
+
+        assertTrue("moved " + moved, moved > BOARDS / 8 && moved < BOARDS / 3);
+    }
+
+    private static Map<String, String> members(
+                    final int nodes
+    ) {
+        final Map<String, String> members = new LinkedHashMap<>();
+        for (int node = 1; node <= nodes; node++)
+            members.put("node-" + node, "http://localhost:" + (9000 + node));
+        return members;
+    }
+}
@@ -0,0 +1,141 @@
+package com.game.mancala.endgame;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.game.mancala.model.Board;
+import com.game.mancala.model.BoardRules;
+import com.game.mancala.model.PlayerKind;
+
+public class EndgameGeneratorTests {
+
+    @Test
+    public void rankIsAPerfectHashOfThePits() {
+        final PositionIndex index = new PositionIndex(8, 9);
+        final int[] pits = new int[8];
+        final int[] unranked = new int[8];
+        index.unrank(0, pits);
+
+        long rank = 0;
+        do {
+            assertEquals(rank, index.rank(pits));
+            index.unrank(rank, unranked);
+            assertArrayEquals(pits, unranked);
+            rank++;
+        } while (index.next(pits));
+
+        assertEquals(index.count(), rank);
+    }
+
+    @Test
+    public void everyValueAgreesWithTheValuesOfItsMoves() {
+        for (int boardSize = 2; boardSize <= 3; boardSize++) {
+            final int totalStones = boardSize * 2 * PlayerKind.count();
+            final byte[] values = EndgameGenerator.solve(boardSize, totalStones);
+            assertConsistent(boardSize + 1, totalStones, values);
+        }
+    }
+
+    @Test
+    public void mappedTableAnswersTheGeneratedValues() throws Exception {
+        final Path directory = Files.createTempDirectory("endgame");
+        final Path file = EndgameGenerator.generate(2, 2, directory);
+        final byte[] values = EndgameGenerator.solve(2, 8);
+        final EndgameTable table = EndgameTable.map(file);
+        final PositionIndex index = new PositionIndex(6, 8);
+        final int[] pits = new int[6];
+        index.unrank(0, pits);
+
+        long rank = 0;
+        do {
+            for (final PlayerKind player : PlayerKind.values())
+                assertEquals(values[(int) (rank * 2 + player.getIndex())], table.value(pits, player));
+            rank++;
+        } while (index.next(pits));
+
+        final EndgameDatabase database = new EndgameDatabase(directory.toString());
+        final Board board = new Board(2, 2);
+        final PlayerKind player = board.getCurrentPlayer();
+        final Optional<PlayerKind> winner = database.winner(board.getBoard(), 3, player);
+        final int move = database.winningMove(board.getBoard(), 3, player);
+        assertEquals(winner.filter(player::equals).isPresent(), move != EndgameDatabase.NO_MOVE);
+        assertFalse(database.winner(new Board(3, 2).getBoard(), 4, player).isPresent());
+
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    /**
+     * This method will check that a won position has a move to a won position, a lost position only has moves to
+     * lost positions and a draw has no winning move but a move to another draw
+     *
+     * @param boardSizePerPlayer the size of the player board
+     * @param totalStones        the stones of the board
+     * @param values             the solved values
+     */
+    private void assertConsistent(
+                    final int boardSizePerPlayer,
+                    final int totalStones,
+                    final byte[] values
+    ) {
+        final PositionIndex index = new PositionIndex(boardSizePerPlayer * 2, totalStones);
+        final int[] pits = new int[boardSizePerPlayer * 2];
+        final int[] child = new int[pits.length];
+        index.unrank(0, pits);
+
+        long rank = 0;
+        do {
+            for (final PlayerKind player : PlayerKind.values()) {
+                final int value = values[(int) (rank * 2 + player.getIndex())];
+                assertNotEquals(EndgameTable.UNKNOWN, value);
+
+                if (BoardRules.isMatchEnded(pits, boardSizePerPlayer)) {
+                    System.arraycopy(pits, 0, child, 0, pits.length);
+                    assertEquals(BoardRules.collectAllRemainStones(child, boardSizePerPlayer).getIndex() + 1, value);
+                    continue;
+                }
+
+                boolean anyWon = false;
+                boolean anyDraw = false;
+                boolean allLost = true;
+                final int start = boardSizePerPlayer * player.getIndex();
+                for (int target = start + 1; target < start + boardSizePerPlayer; target++) {
+                    if (pits[target] == 0)
+                        continue;
+
+                    System.arraycopy(pits, 0, child, 0, pits.length);
+                    final int lastIndex = BoardRules.moveStones(child, player, boardSizePerPlayer, target);
+                    final int childValue;
+                    if (BoardRules.isMatchEnded(child, boardSizePerPlayer)) {
+                        childValue = BoardRules.collectAllRemainStones(child, boardSizePerPlayer).getIndex() + 1;
+                    } else {
+                        final PlayerKind next = BoardRules.doNotHaveOtherRound(player, lastIndex, boardSizePerPlayer)
+                                        ? PlayerKind.nextPlayer(player)
+                                        : player;
+                        childValue = values[(int) (index.rank(child) * 2 + next.getIndex())];
+                    }
+                    anyWon |= childValue == player.getIndex() + 1;
+                    anyDraw |= childValue == EndgameTable.DRAW;
+                    allLost &= childValue == PlayerKind.nextPlayer(player).getIndex() + 1;
+                }
+
+                if (value == player.getIndex() + 1)
+                    assertTrue(anyWon);
+                else if (value == EndgameTable.DRAW)
+                    assertTrue(!anyWon && anyDraw);
+                else
+                    assertTrue(allLost);
+            }
+            rank++;
+        } while (index.next(pits));
+    }
+}
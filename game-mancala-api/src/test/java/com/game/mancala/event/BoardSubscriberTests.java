@@ -0,0 +1,89 @@
+package com.game.mancala.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class BoardSubscriberTests {
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        sender.shutdownNow();
+    }
+
+    @Test
+    public void aStalledWriteExpiresOnceAndCompletesWhenItReturns() throws Exception {
+        final StalledEmitter emitter = new StalledEmitter();
+        final CountDownLatch released = new CountDownLatch(1);
+        final BoardSubscriber subscriber = new BoardSubscriber(emitter, 4, sender, released::countDown);
+
+        assertTrue(subscriber.offer("board", "{}"));
+        assertTrue(emitter.writing.await(5, TimeUnit.SECONDS));
+        assertFalse(subscriber.expire(System.nanoTime(), TimeUnit.SECONDS.toNanos(60)));
+        assertTrue(subscriber.expire(System.nanoTime(), 0));
+        assertFalse(subscriber.expire(System.nanoTime(), 0));
+        assertTrue(subscriber.isClosed());
+
+        emitter.stall.countDown();
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        assertEquals(1, emitter.sent.get());
+        assertEquals(1, emitter.completed.get());
+    }
+
+    @Test
+    public void anIdleClientNeverExpires() throws Exception {
+        final StalledEmitter emitter = new StalledEmitter();
+        emitter.stall.countDown();
+        final BoardSubscriber subscriber = new BoardSubscriber(emitter, 4, sender, () -> {
+        });
+
+        assertTrue(subscriber.offer("board", "{}"));
+        sender.submit(() -> {
+        }).get();
+        assertFalse(subscriber.expire(System.nanoTime(), 0));
+        assertFalse(subscriber.isClosed());
+        assertEquals(0, emitter.completed.get());
+    }
+
+    /**
+     * This class is an emitter whose writes wait until the client takes them again
+     */
+    private static class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch stall = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        @Override
+        public void send(
+                        final SseEventBuilder builder
+        ) throws IOException {
+            writing.countDown();
+            try {
+                stall.await();
+            } catch (final InterruptedException e) {
+                throw new IOException(e);
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.game.mancala.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class BoardRulesTests {
+
+    private static final int SAMPLES = 200_000;
+    private static final int MAX_STONES = 500;
+
+    @Test
+    public void sowStonesMatchesTheRecursiveSowingOnRandomBoards() {
+        final SplittableRandom random = new SplittableRandom(20180622L);
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            final int boardSizePerPlayer = random.nextInt(2, 7) + 1;
+            final int[] board = new int[boardSizePerPlayer * PlayerKind.count()];
+            for (int index = 0; index < board.length; index++)
+                board[index] = random.nextInt(8);
+
+            final PlayerKind player = PlayerKind.of(random.nextInt(PlayerKind.count()));
+            final int start = boardSizePerPlayer * player.getIndex();
+            final int targetIndex = start + 1 + random.nextInt(boardSizePerPlayer - 1);
+            final int stones = 1 + (random.nextBoolean() ? random.nextInt(12) : random.nextInt(MAX_STONES));
+            board[targetIndex] = 0;
+
+            final int[] expected = Arrays.copyOf(board, board.length);
+            final int expectedLastIndex = recursiveSowing(expected, player, boardSizePerPlayer, targetIndex, stones);
+            final int lastIndex = BoardRules.sowStones(board, player, boardSizePerPlayer, targetIndex, stones);
+
+            final String scenario = String.format("player %s, size %d, target %d, stones %d",
+                            player, boardSizePerPlayer, targetIndex, stones);
+            assertEquals(scenario, expectedLastIndex, lastIndex);
+            assertArrayEquals(scenario, expected, board);
+        }
+    }
+
+    @Test
+    public void sowStonesEndsInTheTargetAfterExactLaps() {
+        final int[] board = new int[]{0, 0, 0, 0, 0, 0, 0, 0};
+        final int ringLength = board.length - 1;
+
+        final int lastIndex = BoardRules.sowStones(board, PlayerKind.PLAYER_1, 4, 2, ringLength * 3);
+
+        assertEquals(2, lastIndex);
+        assertArrayEquals(new int[]{3, 3, 3, 3, 0, 3, 3, 3}, board);
+    }
+
+    /**
+     * This method is the previous sowing of the board, moving one stone per call, kept as the reference
+     *
+     * @return the last index in the board
+     */
+    private static int recursiveSowing(
+                    final int[] board,
+                    final PlayerKind player,
+                    final int boardSizePerPlayer,
+                    final int currentIndex,
+                    final int stonesLeft
+    ) {
+        if (stonesLeft > 0) {
+            final int nextIndex = currentIndex - 1 < 0 ? board.length - 1 : currentIndex - 1;
+            final boolean isOtherCollector = nextIndex % boardSizePerPlayer == 0 &&
+                            nextIndex != boardSizePerPlayer * player.getIndex();
+            if (isOtherCollector) {
+                return recursiveSowing(board, player, boardSizePerPlayer, nextIndex, stonesLeft);
+            } else {
+                board[nextIndex]++;
+                return recursiveSowing(board, player, boardSizePerPlayer, nextIndex, stonesLeft - 1);
+            }
+        } else
+            return currentIndex;
+    }
+}
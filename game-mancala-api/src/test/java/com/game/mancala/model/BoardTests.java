@@ -0,0 +1,128 @@
+package com.game.mancala.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class BoardTests {
+
+    private static final int MAX_STONES_PER_PIT = 3;
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    public void endOfMatchAgreesWithTheStreamsOnEverySmallBoard() {
+        for (int size = 2; size <= 4; size++) {
+            final int boardSizePerPlayer = size + 1;
+            final int pits = size * PlayerKind.count();
+            final int positions = (int) Math.pow(MAX_STONES_PER_PIT + 1, pits);
+            for (int position = 0; position < positions; position++) {
+                final int[] board = new int[boardSizePerPlayer * PlayerKind.count()];
+                int code = position;
+                for (int index = 0; index < board.length; index++) {
+                    if (index % boardSizePerPlayer == 0) {
+                        board[index] = index == 0 ? position % 2 : position % 3;
+                    } else {
+                        board[index] = code % (MAX_STONES_PER_PIT + 1);
+                        code /= MAX_STONES_PER_PIT + 1;
+                    }
+                }
+                assertEveryMove(board, boardSizePerPlayer);
+            }
+        }
+    }
+
+    @Test
+    public void endOfMatchAgreesWithTheStreamsWhenSowingLaps() {
+        final SplittableRandom random = new SplittableRandom(20180622L);
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            final int boardSizePerPlayer = random.nextInt(2, 7) + 1;
+            final int[] board = new int[boardSizePerPlayer * PlayerKind.count()];
+            for (int index = 0; index < board.length; index++)
+                board[index] = random.nextInt(4) == 0 ? 0 : random.nextInt(PackedBoard.MAX_STONES / board.length);
+            assertEveryMove(board, boardSizePerPlayer);
+        }
+    }
+
+    /**
+     * This method will play every valid move of both players on a copy of the board and compare it to the moves of
+     * the rules followed by the previous stream based detection of the end of the match
+     *
+     * @param board              the pits of the board
+     * @param boardSizePerPlayer the size of the player board
+     */
+    private static void assertEveryMove(
+                    final int[] board,
+                    final int boardSizePerPlayer
+    ) {
+        for (final PlayerKind player : PlayerKind.values()) {
+            final int start = boardSizePerPlayer * player.getIndex();
+            for (int target = start + 1; target < start + boardSizePerPlayer; target++) {
+                if (board[target] == 0)
+                    continue;
+
+                final Board moved = new Board(UUID.randomUUID(), boardSizePerPlayer, board.clone(), player)
+                                .update(target)
+                                .processPossibleWinner();
+
+                final int[] expected = board.clone();
+                final int lastIndex = BoardRules.moveStones(expected, player, boardSizePerPlayer, target);
+                final PlayerKind expectedPlayer = BoardRules.doNotHaveOtherRound(player, lastIndex,
+                                boardSizePerPlayer) ? PlayerKind.nextPlayer(player) : player;
+                final boolean ended = streamMatchEnded(expected, boardSizePerPlayer);
+                final PlayerKind expectedWinner = ended ? streamWinner(expected, boardSizePerPlayer) : null;
+
+                final String scenario = String.format("board %s, player %s, target %d", Arrays.toString(board),
+                                player, target);
+                assertArrayEquals(scenario, expected, moved.getBoard());
+                assertEquals(scenario, expectedPlayer, moved.getCurrentPlayer());
+                assertEquals(scenario, !ended, moved.isOpen());
+                assertEquals(scenario, expectedWinner, moved.getWinner());
+            }
+        }
+    }
+
+    /**
+     * This method is the previous detection of the end of the match, reading every pit after each move
+     */
+    private static boolean streamMatchEnded(
+                    final int[] board,
+                    final int boardSizePerPlayer
+    ) {
+        return IntStream.range(0, PlayerKind.count())
+                        .anyMatch(player -> Arrays.stream(board, player * boardSizePerPlayer + 1,
+                                        (player + 1) * boardSizePerPlayer).allMatch(stones -> stones == 0));
+    }
+
+    /**
+     * This method is the previous collecting of the remaining stones, sorting the collectors to pick the winner
+     */
+    private static PlayerKind streamWinner(
+                    final int[] board,
+                    final int boardSizePerPlayer
+    ) {
+        final List<Integer> collectedStones = IntStream.range(0, PlayerKind.count())
+                        .mapToObj(player -> {
+                            final int start = player * boardSizePerPlayer;
+                            board[start] += Arrays.stream(board, start + 1, start + boardSizePerPlayer).sum();
+                            Arrays.fill(board, start + 1, start + boardSizePerPlayer, 0);
+                            return board[start];
+                        })
+                        .collect(Collectors.toList());
+
+        return IntStream.range(0, collectedStones.size())
+                        .boxed()
+                        .sorted(Comparator.comparing(collectedStones::get))
+                        .reduce((first, second) -> second)
+                        .map(PlayerKind::of)
+                        .get();
+    }
+}
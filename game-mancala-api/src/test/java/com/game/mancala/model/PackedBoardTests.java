@@ -0,0 +1,82 @@
+package com.game.mancala.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class PackedBoardTests {
+
+    private static final int GAMES = 20_000;
+
+    @Test
+    public void packedMovesAgreeWithTheRulesOfThePitsArrays() {
+        final SplittableRandom random = new SplittableRandom(20180622L);
+        for (int game = 0; game < GAMES; game++) {
+            final int boardSizePerPlayer = random.nextInt(2, 7) + 1;
+            final int[] board = new int[boardSizePerPlayer * PlayerKind.count()];
+            for (int index = 0; index < board.length; index++)
+                board[index] = index % boardSizePerPlayer == 0 ? 0 : random.nextInt(1, 7);
+            PlayerKind player = PlayerKind.of(random.nextInt(PlayerKind.count()));
+            PackedBoard packed = PackedBoard.of(boardSizePerPlayer, board, player, true, null);
+
+            while (!BoardRules.isMatchEnded(board, boardSizePerPlayer)) {
+                final int target = randomPit(board, boardSizePerPlayer, player, random);
+                final String scenario = String.format("board %s, player %s, target %d", Arrays.toString(board),
+                                player, target);
+                final int lastIndex = BoardRules.moveStones(board, player, boardSizePerPlayer, target);
+                if (BoardRules.doNotHaveOtherRound(player, lastIndex, boardSizePerPlayer))
+                    player = PlayerKind.nextPlayer(player);
+                packed = packed.move(target);
+
+                assertArrayEquals(scenario, board, packed.pits());
+                assertEquals(scenario, player, packed.getCurrentPlayer());
+                assertEquals(scenario, BoardRules.isMatchEnded(board, boardSizePerPlayer), packed.isMatchEnded());
+            }
+
+            final PlayerKind winner = BoardRules.collectAllRemainStones(board, boardSizePerPlayer);
+            packed = packed.processPossibleWinner();
+            assertArrayEquals(board, packed.pits());
+            assertEquals(winner, packed.getWinner());
+            assertEquals(false, packed.isOpen());
+        }
+    }
+
+    @Test
+    public void packedBoardsAreComparedAndRebuiltByTheirLongs() {
+        final int[] board = {0, 4, 4, 4, 4, 4, 4, 0, 4, 4, 4, 4, 4, 4};
+        final PackedBoard packed = PackedBoard.of(7, board, PlayerKind.PLAYER_1, true, null);
+        final PackedBoard rebuilt = PackedBoard.of(packed.getLow(), packed.getHigh());
+
+        assertEquals(packed, rebuilt);
+        assertEquals(packed.hashCode(), rebuilt.hashCode());
+        assertEquals(7, rebuilt.getBoardSizePerPlayer());
+        assertArrayEquals(board, rebuilt.pits());
+        assertNotEquals(packed, PackedBoard.of(7, board, PlayerKind.PLAYER_2, true, null));
+        assertNotEquals(packed, packed.move(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void packedBoardsHoldUpToAByteOfStones() {
+        final int[] board = new int[14];
+        Arrays.fill(board, 20);
+        PackedBoard.of(7, board, PlayerKind.PLAYER_1, true, null);
+    }
+
+    private static int randomPit(
+                    final int[] board,
+                    final int boardSizePerPlayer,
+                    final PlayerKind player,
+                    final SplittableRandom random
+    ) {
+        final int start = boardSizePerPlayer * player.getIndex() + 1;
+        int index = start + random.nextInt(boardSizePerPlayer - 1);
+        while (board[index] == 0)
+            index = index + 1 < start + boardSizePerPlayer - 1 ? index + 1 : start;
+        return index;
+    }
+}
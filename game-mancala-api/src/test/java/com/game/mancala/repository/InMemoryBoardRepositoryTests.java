@@ -0,0 +1,192 @@
+package com.game.mancala.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.game.mancala.model.Board;
+
+public class InMemoryBoardRepositoryTests {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int BOARDS = 1024;
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    private InMemoryBoardRepository repository;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        repository = new InMemoryBoardRepository();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void concurrentUpdatesOnTheSameBoardAreNotLost() throws Exception {
+        final Board board = repository.save(new Board(6, 6));
+
+        runConcurrently(THREADS, thread -> {
+            for (int operation = 0; operation < OPERATIONS_PER_THREAD; operation++) {
+                repository.withLock(board.getId(), locked -> {
+                    locked.setVersion(locked.getVersion() + 1);
+                    return locked;
+                }).getUnchecked();
+            }
+        });
+
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, board.getVersion());
+    }
+
+    @Test
+    public void concurrentSwapsOnTheSameBoardArePublishedInOrder() throws Exception {
+        final Board board = repository.save(new Board(6, 6));
+        final int swaps = OPERATIONS_PER_THREAD / 10;
+        final List<Long> published = new ArrayList<>();
+
+        runConcurrently(THREADS, thread -> {
+            for (int operation = 0; operation < swaps; operation++) {
+                Board.Snapshot before;
+                Board.Snapshot after;
+                do {
+                    before = board.snapshot();
+                    after = new Board.Snapshot(before.getState(), before.getVersion() + 1);
+                } while (!board.compareAndSet(before, after));
+
+                final long version = after.getVersion();
+                board.publish(before, after, () -> published.add(version));
+            }
+        });
+
+        assertEquals(THREADS * swaps, board.getVersion());
+        assertEquals(THREADS * swaps, published.size());
+        for (int index = 0; index < published.size(); index++)
+            assertEquals(index + 1, (long) published.get(index));
+    }
+
+    @Test
+    public void concurrentMovesKeepTheStonesOfEveryBoard() throws Exception {
+        final int boardSize = 6;
+        final int stonesPerPit = 6;
+        final List<UUID> ids = new ArrayList<>();
+        for (int index = 0; index < THREADS; index++)
+            ids.add(repository.save(new Board(boardSize, stonesPerPit)).getId());
+
+        final AtomicInteger moves = new AtomicInteger();
+        runConcurrently(THREADS, thread -> {
+            final SplittableRandom random = new SplittableRandom(thread);
+            for (int operation = 0; operation < OPERATIONS_PER_THREAD; operation++) {
+                final UUID id = ids.get(random.nextInt(ids.size()));
+                final int target = random.nextInt(boardSize * 2 + 2);
+                repository.withLock(id, board -> {
+                    if (board.isOpen())
+                        board.update(target).processPossibleWinner();
+                    return board;
+                }).onSuccess(board -> moves.incrementAndGet());
+            }
+        });
+
+        assertTrue(moves.get() > 0);
+        for (final UUID id : ids) {
+            final int stones = repository.withLock(id, board -> Arrays.stream(board.getBoard()).sum())
+                            .getUnchecked();
+            assertEquals(boardSize * stonesPerPit * 2, stones);
+        }
+    }
+
+    @Test
+    public void createRacingGetAlwaysFindsTheBoard() throws Exception {
+        final AtomicInteger missing = new AtomicInteger();
+        runConcurrently(THREADS, thread -> {
+            for (int operation = 0; operation < OPERATIONS_PER_THREAD / 10; operation++) {
+                final UUID id = repository.save(new Board(2, 1)).getId();
+                if (!repository.findOne(id).isPresent())
+                    missing.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, missing.get());
+    }
+
+    @Test
+    public void concurrentUpdatesOnIndependentBoardsAreNotLost() throws Exception {
+        final List<UUID> ids = new ArrayList<>();
+        for (int index = 0; index < BOARDS; index++)
+            ids.add(repository.save(new Board(6, 6)).getId());
+
+        runConcurrently(THREADS, thread -> {
+            for (int operation = 0; operation < OPERATIONS_PER_THREAD; operation++) {
+                repository.withLock(ids.get(boardOf(thread, operation)), board -> {
+                    board.setVersion(board.getVersion() + 1);
+                    return board;
+                }).getUnchecked();
+            }
+        });
+
+        final long[] expected = new long[BOARDS];
+        for (int thread = 0; thread < THREADS; thread++)
+            for (int operation = 0; operation < OPERATIONS_PER_THREAD; operation++)
+                expected[boardOf(thread, operation)]++;
+        for (int index = 0; index < BOARDS; index++)
+            assertEquals(expected[index], repository.findOne(ids.get(index)).get().getVersion());
+    }
+
+    private static int boardOf(
+                    final int thread,
+                    final int operation
+    ) {
+        return (thread * 31 + operation) & (BOARDS - 1);
+    }
+
+    /**
+     * This method will start all the tasks at the same time and wait for them, rethrowing the first failure
+     *
+     * @param threads the amount of concurrent tasks
+     * @param task    the task receiving its thread number
+     * @throws Exception
+     */
+    private void runConcurrently(
+                    final int threads,
+                    final ThreadTask task
+    ) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            final int threadNumber = thread;
+            final Callable<Void> callable = () -> {
+                start.await();
+                task.run(threadNumber);
+                return null;
+            };
+            futures.add(executor.submit(callable));
+        }
+        start.countDown();
+        for (final Future<Void> future : futures)
+            future.get(1, TimeUnit.MINUTES);
+    }
+
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,263 @@
+package com.game.mancala.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.game.mancala.model.Board;
+
+public class JournaledBoardRepositoryTests {
+
+    private static final int BOARDS = 64;
+    private static final int MOVES = 4_000;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (final Path file : files)
+                Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void crashedRepositoryIsRebuiltFromTheJournal() throws Exception {
+        final JournaledBoardRepository repository = open();
+        final List<UUID> ids = createBoards(repository);
+        playRandomMoves(repository, ids, 1, MOVES);
+
+        assertSameOpenBoards(repository, open(), ids);
+    }
+
+    @Test
+    public void crashedRepositoryIsRebuiltFromTheSnapshotAndTheJournalAfterIt() throws Exception {
+        final JournaledBoardRepository repository = open();
+        final List<UUID> ids = createBoards(repository);
+        playRandomMoves(repository, ids, 1, MOVES);
+        repository.snapshot();
+        ids.addAll(createBoards(repository));
+        playRandomMoves(repository, ids, 2, MOVES);
+
+        assertSameOpenBoards(repository, open(), ids);
+    }
+
+    @Test
+    public void boardsCreatedWhileASnapshotRunsAreRecovered() throws Exception {
+        final AtomicReference<JournaledBoardRepository> repository = new AtomicReference<>();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final List<Future<Integer>> snapshots = new ArrayList<>();
+        final InMemoryBoardRepository boards = new InMemoryBoardRepository() {
+            @Override
+            public Board save(
+                            final Board board
+            ) {
+                if (repository.get() != null)
+                    snapshotWhileJournaled(executor.submit(() -> repository.get().snapshot()));
+                return super.save(board);
+            }
+
+            private void snapshotWhileJournaled(
+                            final Future<Integer> snapshot
+            ) {
+                snapshots.add(snapshot);
+                try {
+                    snapshot.get(200, TimeUnit.MILLISECONDS);
+                } catch (final TimeoutException e) {
+                    return;
+                } catch (final InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        try {
+            repository.set(new JournaledBoardRepository(boards, directory.toString(), 64 * 1024,
+                            TimeUnit.HOURS.toMillis(1)));
+            final List<UUID> ids = new ArrayList<>();
+            for (int index = 0; index < 4; index++)
+                ids.add(repository.get().save(new Board(6, 6)).getId());
+            for (final Future<Integer> snapshot : snapshots)
+                snapshot.get(1, TimeUnit.MINUTES);
+
+            assertSameOpenBoards(repository.get(), open(), ids);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void crashedRepositoryReplaysTheBatchesOfMoves() throws Exception {
+        final JournaledBoardRepository repository = open();
+        final List<UUID> ids = createBoards(repository);
+        playRandomMoves(repository, ids, 1, MOVES / 2);
+        playRandomBatches(repository, ids, 2, MOVES);
+
+        assertSameOpenBoards(repository, open(), ids);
+    }
+
+    @Test
+    public void tornTailIsIgnored() throws Exception {
+        final JournaledBoardRepository repository = open();
+        final List<UUID> ids = createBoards(repository);
+        playRandomMoves(repository, ids, 1, MOVES);
+
+        final Path lastSegment = lastSegment();
+        try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {40, 0, 0, 0, 1, 2, 3}));
+        }
+
+        assertSameOpenBoards(repository, open(), ids);
+    }
+
+    @Test
+    public void concurrentMovesAreRebuiltFromTheJournal() throws Exception {
+        final JournaledBoardRepository repository = open();
+        final List<UUID> ids = createBoards(repository);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final int seed = thread;
+                futures.add(executor.submit(() -> playRandomMoves(repository, ids, seed, MOVES / 8)));
+            }
+            for (final Future<?> future : futures)
+                future.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertSameOpenBoards(repository, open(), ids);
+    }
+
+    private JournaledBoardRepository open() throws IOException {
+        return new JournaledBoardRepository(new InMemoryBoardRepository(), directory.toString(), 64 * 1024,
+                        TimeUnit.HOURS.toMillis(1));
+    }
+
+    private List<UUID> createBoards(
+                    final JournaledBoardRepository repository
+    ) {
+        final List<UUID> ids = new ArrayList<>();
+        for (int index = 0; index < BOARDS; index++)
+            ids.add(repository.save(new Board(2 + index % 5, 1 + index % 6)).getId());
+        return ids;
+    }
+
+    /**
+     * This method will play random moves the same way the board service does, skipping the invalid ones
+     *
+     * @param repository the repository
+     * @param ids        the boards to play
+     * @param seed       the seed of the moves
+     * @param moves      the amount of moves to try
+     */
+    private void playRandomMoves(
+                    final JournaledBoardRepository repository,
+                    final List<UUID> ids,
+                    final int seed,
+                    final int moves
+    ) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        for (int move = 0; move < moves; move++) {
+            final UUID id = ids.get(random.nextInt(ids.size()));
+            repository.withLock(id, board -> {
+                final int pit = random.nextInt(board.getBoard().length);
+                if (board.isOpen()) {
+                    board.update(pit).processPossibleWinner();
+                    repository.moved(board, pit);
+                }
+                return board;
+            });
+        }
+    }
+
+    /**
+     * This method will play random batches of moves the same way the board service does, a batch with an invalid
+     * move is rejected as a whole
+     *
+     * @param repository the repository
+     * @param ids        the boards to play
+     * @param seed       the seed of the moves
+     * @param batches    the amount of batches to try
+     */
+    private void playRandomBatches(
+                    final JournaledBoardRepository repository,
+                    final List<UUID> ids,
+                    final int seed,
+                    final int batches
+    ) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        for (int batch = 0; batch < batches; batch++) {
+            final UUID id = ids.get(random.nextInt(ids.size()));
+            repository.withLock(id, board -> {
+                final int[] pits = random.ints(1 + random.nextInt(3), 0, board.getBoard().length).toArray();
+                if (board.isOpen()) {
+                    board.updateAll(pits);
+                    repository.moved(board, pits);
+                }
+                return board;
+            });
+        }
+    }
+
+    private void assertSameOpenBoards(
+                    final BoardRepository expected,
+                    final BoardRepository recovered,
+                    final List<UUID> ids
+    ) {
+        int open = 0;
+        for (final UUID id : ids) {
+            final Board board = expected.findOne(id).get();
+            if (!board.isOpen())
+                continue;
+
+            final Board recoveredBoard = recovered.findOne(id).get();
+            assertArrayEquals(board.getBoard(), recoveredBoard.getBoard());
+            assertEquals(board.getCurrentPlayer(), recoveredBoard.getCurrentPlayer());
+            assertEquals(board.getVersion(), recoveredBoard.getVersion());
+            assertTrue(recoveredBoard.isOpen());
+            open++;
+        }
+        assertTrue(open > 0);
+    }
+
+    private Path lastSegment() throws IOException {
+        Path last = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-*.log")) {
+            for (final Path file : files) {
+                if (last == null || file.compareTo(last) > 0)
+                    last = file;
+            }
+        }
+        return last;
+    }
+}
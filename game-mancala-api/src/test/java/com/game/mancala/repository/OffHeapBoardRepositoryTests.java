@@ -0,0 +1,137 @@
+package com.game.mancala.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.game.mancala.model.Board;
+import com.game.mancala.model.PlayerKind;
+
+public class OffHeapBoardRepositoryTests {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int OPERATIONS_PER_THREAD = 20_000;
+
+    @Test
+    public void concurrentMovesAreWrittenBackToTheirSlots() throws Exception {
+        final OffHeapBoardRepository repository = new OffHeapBoardRepository(1024);
+        final List<UUID> ids = new ArrayList<>();
+        for (int index = 0; index < THREADS; index++)
+            ids.add(repository.save(new Board(6, 6)).getId());
+
+        final AtomicInteger moves = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final SplittableRandom random = new SplittableRandom(thread);
+            futures.add(executor.submit(() -> {
+                for (int operation = 0; operation < OPERATIONS_PER_THREAD; operation++) {
+                    final UUID id = ids.get(random.nextInt(ids.size()));
+                    final int target = random.nextInt(14);
+                    repository.withLock(id, board -> board.update(target).processPossibleWinner())
+                                    .onSuccess(board -> moves.incrementAndGet());
+                }
+            }));
+        }
+        for (final Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+
+        long versions = 0;
+        for (final UUID id : ids) {
+            final Board board = repository.findOne(id).get();
+            assertEquals(72, Arrays.stream(board.getBoard()).sum());
+            versions += board.getVersion();
+        }
+        assertTrue(moves.get() > 0);
+        assertEquals(moves.get(), versions);
+    }
+
+    @Test
+    public void boardsReadWithoutTheirLockAreNeverTornByConcurrentMoves() throws Exception {
+        final OffHeapBoardRepository repository = new OffHeapBoardRepository(1024);
+        final UUID id = repository.save(new Board(6, 6)).getId();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final SplittableRandom random = new SplittableRandom(thread);
+            final boolean reader = thread % 2 == 0;
+            futures.add(executor.submit(() -> {
+                long lastVersion = 0;
+                for (int operation = 0; operation < OPERATIONS_PER_THREAD; operation++) {
+                    if (!reader) {
+                        final int target = random.nextInt(14);
+                        repository.withLock(id, board -> board.update(target));
+                        continue;
+                    }
+                    final Board board = repository.findOne(id).get();
+                    assertEquals(72, Arrays.stream(board.getBoard()).sum());
+                    assertTrue(board.getVersion() >= lastVersion);
+                    lastVersion = board.getVersion();
+                }
+            }));
+        }
+        for (final Future<?> future : futures)
+            future.get();
+        executor.shutdown();
+    }
+
+    @Test
+    public void theOldestFinishedBoardIsRecycledOnceEverySlotIsUsed() {
+        final OffHeapBoardRepository repository = new OffHeapBoardRepository(3);
+        final UUID open = repository.save(new Board(3, 2)).getId();
+        final UUID finishedFirst = repository.save(finished()).getId();
+        final UUID finishedSecond = repository.save(finished()).getId();
+
+        final UUID created = repository.save(new Board(3, 2)).getId();
+        assertFalse(repository.findOne(finishedFirst).isPresent());
+        assertTrue(repository.findOne(finishedSecond).isPresent());
+        assertTrue(repository.findOne(open).isPresent());
+        assertTrue(repository.findOne(created).isPresent());
+        assertEquals(3, repository.size());
+
+        repository.save(new Board(3, 2));
+        assertFalse(repository.findOne(finishedSecond).isPresent());
+        try {
+            repository.save(new Board(3, 2));
+            throw new AssertionError("a full arena of open boards accepted a board");
+        } catch (final IllegalStateException e) {
+            assertEquals(3, repository.size());
+        }
+    }
+
+    @Test
+    public void theIndexFindsEveryBoardWhileSlotsAreRecycled() {
+        final int capacity = 64;
+        final OffHeapBoardRepository repository = new OffHeapBoardRepository(capacity);
+        final Deque<UUID> stored = new ArrayDeque<>();
+        for (int index = 0; index < 20_000; index++) {
+            stored.addLast(repository.save(finished()).getId());
+            if (stored.size() > capacity)
+                assertFalse(repository.findOne(stored.removeFirst()).isPresent());
+            if (index % 97 == 0)
+                stored.forEach(id -> assertTrue(repository.findOne(id).isPresent()));
+        }
+        assertEquals(capacity, repository.size());
+    }
+
+    private static Board finished() {
+        return new Board(UUID.randomUUID(), 4, new int[]{4, 0, 0, 0, 2, 0, 0, 0}, PlayerKind.PLAYER_1, false,
+                        PlayerKind.PLAYER_1);
+    }
+}
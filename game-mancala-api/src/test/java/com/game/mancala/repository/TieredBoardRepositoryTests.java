@@ -0,0 +1,139 @@
+package com.game.mancala.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.game.mancala.model.Board;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TieredBoardRepositoryTests {
+
+    private static final int HOT_BOARDS = 16;
+    private static final int BOARDS = 256;
+
+    private Path directory;
+    private SimpleMeterRegistry registry;
+    private TieredBoardRepository repository;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("boards");
+        registry = new SimpleMeterRegistry();
+        repository = new TieredBoardRepository(registry, directory.toString(), HOT_BOARDS,
+                        TimeUnit.HOURS.toMillis(1));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void evictedBoardsAreFaultedBackWithTheirState() throws Exception {
+        final List<UUID> ids = new ArrayList<>();
+        final List<int[]> expected = new ArrayList<>();
+        for (int index = 0; index < BOARDS; index++) {
+            final Board board = repository.save(new Board(6, 6));
+            ids.add(board.getId());
+            final int pit = board.getCurrentPlayer().getIndex() * 7 + 1 + index % 6;
+            expected.add(repository.withLock(board.getId(), locked -> {
+                locked.update(pit).processPossibleWinner();
+                return locked.getBoard().clone();
+            }).getUnchecked());
+        }
+
+        awaitSpilled(1);
+        for (int index = 0; index < BOARDS; index++) {
+            final int[] pits = repository.withLock(ids.get(index), Board::getBoard).getUnchecked();
+            assertArrayEquals(expected.get(index), pits);
+            assertEquals(1L, (long) repository.withLock(ids.get(index), Board::getVersion).getUnchecked());
+        }
+        assertTrue(registry.get("mancala.boards.fault.in").timer().count() > 0);
+        assertTrue(registry.get("cache.evictions").functionCounter().count() > 0);
+    }
+
+    @Test
+    public void finishedBoardsLeaveTheHotCache() throws Exception {
+        final Board board = repository.save(new Board(2, 1));
+        final SplittableRandom random = new SplittableRandom(7);
+        while (board.isOpen()) {
+            final int pit = random.nextInt(board.getBoard().length);
+            repository.withLock(board.getId(), locked -> locked.update(pit).processPossibleWinner());
+        }
+
+        awaitSpilled(1);
+        assertFalse(repository.findOne(board.getId()).isPresent());
+        final Board finished = repository.withLock(board.getId(), locked -> locked).getUnchecked();
+        assertFalse(finished.isOpen());
+        assertEquals(board.getWinner(), finished.getWinner());
+        assertArrayEquals(board.getBoard(), finished.getBoard());
+    }
+
+    @Test
+    public void concurrentMovesKeepTheStonesWhileBoardsSpill() throws Exception {
+        final List<UUID> ids = new ArrayList<>();
+        for (int index = 0; index < HOT_BOARDS * 4; index++)
+            ids.add(repository.save(new Board(6, 6)).getId());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final SplittableRandom random = new SplittableRandom(thread);
+                futures.add(executor.submit(() -> {
+                    for (int operation = 0; operation < 5_000; operation++) {
+                        final UUID id = ids.get(random.nextInt(ids.size()));
+                        final int pit = random.nextInt(14);
+                        repository.withLock(id, board -> board.isOpen()
+                                        ? board.update(pit).processPossibleWinner()
+                                        : board);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures)
+                future.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (final UUID id : ids) {
+            final int stones = repository.withLock(id, board -> Arrays.stream(board.getBoard()).sum())
+                            .getUnchecked();
+            assertEquals(6 * 6 * 2, stones);
+        }
+    }
+
+    private void awaitSpilled(
+                    final int boards
+    ) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get("mancala.boards.spilled").counter().count() < boards && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertTrue(registry.get("mancala.boards.spilled").counter().count() >= boards);
+    }
+}
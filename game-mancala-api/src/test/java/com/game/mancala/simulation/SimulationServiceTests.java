@@ -0,0 +1,128 @@
+package com.game.mancala.simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.mancala.model.PlayerKind;
+import com.game.mancala.model.SimulationWrapper;
+
+public class SimulationServiceTests {
+
+    private static final long GAMES = 3 * MonteCarloSimulator.GAMES_PER_CHUNK + 17;
+    private static final double EPSILON = 1e-9;
+    private static final int RANDOM_MOVES = 60000;
+
+    private final SimulationService simulationService = new SimulationService();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void theSameSeedGivesTheSameStatistics() throws Exception {
+        for (final String policy : new String[]{"RANDOM", "GREEDY"}) {
+            final SimulationWrapper.Create input = create(4, 3, GAMES, policy, 20180622L);
+
+            final SimulationWrapper.Result first = simulationService.simulate(input);
+            final SimulationWrapper.Result second = simulationService.simulate(input);
+
+            assertSameStatistics(first, second);
+            assertNotEquals(first.getFirstPlayerWinRate(),
+                            simulationService.simulate(create(4, 3, GAMES, policy, 7L)).getFirstPlayerWinRate());
+        }
+    }
+
+    @Test
+    public void theSameSeedGivesTheSameStatisticsOnAnyAmountOfCores() throws Exception {
+        final MonteCarloSimulator simulator = new MonteCarloSimulator(6, 4, SimulationWrapper.Policy.RANDOM);
+        final ForkJoinPool singleCore = new ForkJoinPool(1);
+        try {
+            final PlayoutStatistics parallel = simulator.simulate(GAMES, 42L);
+            final PlayoutStatistics sequential = singleCore.submit(() -> simulator.simulate(GAMES, 42L)).get();
+
+            assertEquals(parallel.games, sequential.games);
+            assertEquals(parallel.firstPlayerWins, sequential.firstPlayerWins);
+            assertEquals(parallel.draws, sequential.draws);
+            assertEquals(parallel.moves, sequential.moves);
+            for (final PlayerKind player : PlayerKind.values())
+                assertArrayEquals(parallel.storeHistograms[player.getIndex()],
+                                sequential.storeHistograms[player.getIndex()]);
+        } finally {
+            singleCore.shutdownNow();
+        }
+    }
+
+    @Test
+    public void aRandomMoveIsUniformOverThePitsWithStones() {
+        final MonteCarloSimulator simulator = new MonteCarloSimulator(6, 4, SimulationWrapper.Policy.RANDOM);
+        final int[] pits = {0, 0, 0, 0, 4, 4, 4, 0, 4, 4, 4, 4, 4, 4};
+        final long[] picks = new long[pits.length];
+        final SplittableRandom random = new SplittableRandom(20180622L);
+        for (int move = 0; move < RANDOM_MOVES; move++)
+            picks[simulator.randomMove(pits, PlayerKind.PLAYER_1, random)]++;
+
+        for (int pit = 0; pit < pits.length; pit++) {
+            if (pit >= 4 && pit <= 6)
+                assertEquals(1.0 / 3, (double) picks[pit] / RANDOM_MOVES, 0.01);
+            else
+                assertEquals(0, picks[pit]);
+        }
+    }
+
+    @Test
+    public void theHistogramsCountEveryGame() throws Exception {
+        for (final long games : new long[]{1, 10, GAMES}) {
+            final SimulationWrapper.Result result = simulationService.simulate(create(3, 2, games, "GREEDY", 1L));
+
+            assertEquals(Long.valueOf(games), result.getGames());
+            for (final PlayerKind player : PlayerKind.values()) {
+                final List<Long> histogram = result.getStoreHistograms().get(player);
+                assertEquals(3 * 2 * 2 + 1, histogram.size());
+                assertEquals(games, histogram.stream().mapToLong(Long::longValue).sum());
+            }
+        }
+    }
+
+    @Test
+    public void theRatesSumToOne() throws Exception {
+        for (final String policy : new String[]{"RANDOM", "GREEDY"}) {
+            for (int boardSize = 2; boardSize <= 6; boardSize += 2) {
+                final SimulationWrapper.Result result = simulationService.simulate(create(boardSize, 1, 5000,
+                                policy, boardSize));
+
+                assertEquals(policy + " " + boardSize, 1.0, result.getFirstPlayerWinRate()
+                                + result.getFirstPlayerLossRate() + result.getDrawRate(), EPSILON);
+            }
+        }
+    }
+
+    private static void assertSameStatistics(
+                    final SimulationWrapper.Result expected,
+                    final SimulationWrapper.Result actual
+    ) {
+        assertEquals(expected.getGames(), actual.getGames());
+        assertEquals(expected.getFirstPlayerWinRate(), actual.getFirstPlayerWinRate());
+        assertEquals(expected.getFirstPlayerLossRate(), actual.getFirstPlayerLossRate());
+        assertEquals(expected.getDrawRate(), actual.getDrawRate());
+        assertEquals(expected.getAverageGameLength(), actual.getAverageGameLength());
+        assertEquals(expected.getStoreHistograms(), actual.getStoreHistograms());
+    }
+
+    private SimulationWrapper.Create create(
+                    final int boardSize,
+                    final int stonesPerPit,
+                    final long games,
+                    final String policy,
+                    final long seed
+    ) throws IOException {
+        return objectMapper.readValue(String.format("{\"board\": {\"boardSize\": %d, \"stonesPerPit\": %d}, "
+                        + "\"games\": %d, \"policy\": \"%s\", \"seed\": %d}", boardSize, stonesPerPit, games,
+                        policy, seed), SimulationWrapper.Create.class);
+    }
+}
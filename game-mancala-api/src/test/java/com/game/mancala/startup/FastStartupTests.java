@@ -0,0 +1,55 @@
+package com.game.mancala.startup;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.game.mancala.GameMancalaApplication;
+import com.game.mancala.ai.BoardAiService;
+import com.game.mancala.repository.BoardRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(GameMancalaApplication.FAST_STARTUP_PROFILE)
+public class FastStartupTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    public void onlyTheBeansNotNeededToStartAreLazy() {
+        for (final String name : beanFactory.getBeanNamesForType(BoardAiService.class, true, false))
+            assertTrue(name, beanFactory.getBeanDefinition(name).isLazyInit());
+        for (final String name : beanFactory.getBeanNamesForType(BoardRepository.class, true, false))
+            assertFalse(name, beanFactory.getBeanDefinition(name).isLazyInit());
+        for (final String name : beanFactory.getBeanNamesForType(SmartInitializingSingleton.class, true, false))
+            assertFalse(name, beanFactory.getBeanDefinition(name).isLazyInit());
+    }
+
+    @Test
+    public void theFirstBoardIsCreated() throws Exception {
+        mockMvc.perform(post("/board")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"boardSize\": 6, \"stonesPerPit\": 6}"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.board.length()").value(14));
+    }
+}
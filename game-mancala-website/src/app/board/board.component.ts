@@ -1,10 +1,10 @@
-import {Component, EventEmitter, OnInit} from '@angular/core'
+import {Component, EventEmitter, OnDestroy, OnInit} from '@angular/core'
 import {ActivatedRoute} from '@angular/router'
 import {ParamMap} from '@angular/router/src/shared'
 import {find, map} from 'rxjs/operators'
 import {HttpClient} from '@angular/common/http'
 import {environment} from 'environments/environment'
-import {IBoard} from 'models/board.model'
+import {IBoard, IBoardDelta} from 'models/board.model'
 
 export class BoardComponentEmitter {
   public eventBoard: EventEmitter<IBoard> = new EventEmitter()
@@ -20,10 +20,11 @@ export interface BoardStone {
   templateUrl: './board.component.html',
   styleUrls: ['./board.component.css']
 })
-export class BoardComponent implements OnInit {
+export class BoardComponent implements OnInit, OnDestroy {
 
   private keyId = 'id'
   private board: IBoard
+  private events: EventSource
 
   public collectorPlayer1: BoardStone
   public boardPlayer1: BoardStone[]
@@ -44,9 +45,35 @@ export class BoardComponent implements OnInit {
     this.httpClient.get(`${environment.baseUrl}/board/${id}`).subscribe(
       (board: IBoard) => this.mappingBoard(board)
     )
+    this.listenBoard(id)
+  }
+
+  private listenBoard(id: string) {
+    this.events = new EventSource(`${environment.baseUrl}/board/${id}/events`)
+    this.events.addEventListener('board', (event: MessageEvent) => this.mappingBoard(JSON.parse(event.data)))
+    this.events.addEventListener('move', (event: MessageEvent) => this.applyDelta(JSON.parse(event.data)))
+  }
+
+  private applyDelta(delta: IBoardDelta) {
+    if (!this.board || this.isOutdated(delta.version)) {
+      return
+    }
+    const stones = this.board.board.slice()
+    delta.pits.forEach((pit, index) => stones[pit] = delta.stones[index])
+    this.mappingBoard({
+      ...this.board,
+      board: stones,
+      currentPlayer: delta.currentPlayer,
+      isOpen: delta.isOpen,
+      winner: delta.winner,
+      version: delta.version
+    })
   }
 
   private mappingBoard(board: IBoard) {
+    if (this.isOutdated(board.version)) {
+      return
+    }
     const indexedBoard: BoardStone[] = board.board.map((stone, index) => {
       const subItem: BoardStone = {index: index, stones: stone}
       return subItem
@@ -58,10 +85,24 @@ export class BoardComponent implements OnInit {
     this.board = board
   }
 
+  private isOutdated(version: number) {
+    return this.board && version < this.board.version
+  }
+
   ngOnInit() {
     this.boardComponentEmitter.eventBoard.subscribe(
-      (board: IBoard) => this.board = board
+      (board: IBoard) => {
+        if (!this.isOutdated(board.version)) {
+          this.board = board
+        }
+      }
     )
   }
 
+  ngOnDestroy() {
+    if (this.events) {
+      this.events.close()
+    }
+  }
+
 }
@@ -1,5 +1,5 @@
 import {Component, EventEmitter, Input, OnInit} from '@angular/core'
-import {HttpClient} from '@angular/common/http'
+import {HttpClient, HttpHeaders} from '@angular/common/http'
 import {environment} from 'environments/environment'
 import {IBoard} from 'models/board.model'
 import {ICardBroadcast} from 'models/card.model'
@@ -20,6 +20,7 @@ export class CardComponent implements OnInit {
   @Input() boardId: string
   @Input() id: number
   @Input() stone: number
+  @Input() version: number
 
   constructor(private cardComponentEmitter: CardComponentEmitter,
               private boardComponentEmitter: BoardComponentEmitter,
@@ -27,7 +28,8 @@ export class CardComponent implements OnInit {
   }
 
   public targetStone() {
-    this.httpClient.put(`${environment.baseUrl}/board/${this.boardId}/target/${this.id}`, null).subscribe(
+    const headers = new HttpHeaders({'If-Match': `"${this.version}"`})
+    this.httpClient.put(`${environment.baseUrl}/board/${this.boardId}/target/${this.id}`, null, {headers}).subscribe(
       (board: IBoard) => {
         this.broadcastBoard(board)
         this.emitBoardComponent(board)
@@ -9,5 +9,16 @@ export interface IBoard {
   boardSizePerPlayer: number,
   isOpen: boolean,
   winner?: string,
+  version: number,
   board: number[]
 }
+
+export interface IBoardDelta {
+  id: string,
+  pits: number[],
+  stones: number[],
+  currentPlayer: string,
+  isOpen: boolean,
+  winner?: string,
+  version: number
+}